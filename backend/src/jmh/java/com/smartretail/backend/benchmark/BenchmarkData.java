@@ -0,0 +1,107 @@
+package com.smartretail.backend.benchmark;
+
+import com.smartretail.backend.config.I18nConfig;
+import com.smartretail.backend.dto.FullReportResponse;
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.models.Product;
+import org.springframework.context.MessageSource;
+
+import java.util.*;
+
+/**
+ * Deterministic fixtures sized like production data: a busy counter bill has
+ * 5-60 lines, the catalogue a few thousand products, CSV imports a few hundred rows.
+ */
+final class BenchmarkData {
+
+    private static final String[] CATEGORIES = {"Grocery", "Dairy", "Snacks", "Beverages", "Household", "Personal Care"};
+
+    private BenchmarkData() {}
+
+    static MessageSource messageSource() {
+        return new I18nConfig().messageSource();
+    }
+
+    static Bill bill(int itemCount) {
+        Random random = new Random(itemCount);
+        List<Bill.BillItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Bill.BillItem("P" + (1000 + i), "Product " + i + " 500g",
+                    1 + random.nextInt(5), 10 + random.nextInt(49000) / 100.0));
+        }
+        Bill bill = new Bill("BILL-" + itemCount, items, "cashier@smartretail.in");
+        bill.setCustomer(new Bill.CustomerInfo("Asha Patil", "asha@example.com", "9876543210"));
+        return bill;
+    }
+
+    static List<Product> products(int count) {
+        Random random = new Random(count);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product p = new Product("P" + (1000 + i), "Product " + i, CATEGORIES[i % CATEGORIES.length],
+                    10 + random.nextInt(49000) / 100.0, random.nextInt(500), 10, 20,
+                    new Date(1767225600000L + i * 86_400_000L), null, "/api/products/image/" + i,
+                    "supplier" + (i % 40) + "@example.com", "owner@smartretail.in");
+            p.setId(Integer.toHexString(0x650000 + i));
+            products.add(p);
+        }
+        return products;
+    }
+
+    static FullReportResponse fullReport(int topProducts, int lowStock) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total_revenue", 1_845_230.50);
+        summary.put("total_orders", 4_210);
+        summary.put("total_products_sold", 18_455);
+
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (int i = 0; i < topProducts; i++) {
+            top.add(Map.of("name", "Product " + i, "category", CATEGORIES[i % CATEGORIES.length],
+                    "qty", 500 - i, "revenue", 25_000.0 - i * 100));
+        }
+        Map<String, Object> sales = new LinkedHashMap<>();
+        sales.put("summary", summary);
+        sales.put("top_products", top);
+        sales.put("aiSummary", "Sales grew 12% week over week, led by dairy and beverages.");
+
+        List<Map<String, Object>> low = new ArrayList<>();
+        for (int i = 0; i < lowStock; i++) {
+            low.add(Map.of("name", "Product " + i, "category", CATEGORIES[i % CATEGORIES.length],
+                    "quantity", i % 10, "reorderLevel", 20));
+        }
+        Map<String, Object> inventory = new LinkedHashMap<>();
+        inventory.put("lowStockProducts", low);
+        inventory.put("lowStockCount", lowStock);
+        inventory.put("expiringCount", lowStock / 3);
+
+        return FullReportResponse.builder()
+                .salesReport(sales)
+                .textSummary(Map.of("report", "Weekly summary: revenue steady, 14 SKUs below reorder level."))
+                .inventoryReport(inventory)
+                .build();
+    }
+
+    static String productCsv(int rows) {
+        StringBuilder sb = new StringBuilder("productId,name,category,price,quantity,minQuantity,reorderLevel,expiryDate,addedBy\n");
+        for (int i = 0; i < rows; i++) {
+            sb.append('P').append(1000 + i).append(",Product ").append(i).append(',')
+                    .append(CATEGORIES[i % CATEGORIES.length]).append(',').append(10 + i % 490).append(".50,")
+                    .append(i % 300).append(",10,20,2026-12-31,owner@smartretail.in\n");
+        }
+        return sb.toString();
+    }
+
+    static String billCsv(int rows, int itemsPerBill) {
+        StringBuilder sb = new StringBuilder("billId,customerMobile,items,createdAt,addedBy\n");
+        for (int i = 0; i < rows; i++) {
+            StringJoiner items = new StringJoiner(",", "\"[", "]\"");
+            for (int j = 0; j < itemsPerBill; j++) {
+                items.add("{\"\"productId\"\":\"\"P" + (1000 + j) + "\"\",\"\"productName\"\":\"\"Product " + j
+                        + "\"\",\"\"qty\"\":" + (1 + j % 4) + ",\"\"price\"\":" + (20 + j) + ".0}");
+            }
+            sb.append("B").append(i).append(",98765").append(String.format("%05d", i)).append(',')
+                    .append(items).append(",2026-01-15T10:30:00.000Z,cashier@smartretail.in\n");
+        }
+        return sb.toString();
+    }
+}
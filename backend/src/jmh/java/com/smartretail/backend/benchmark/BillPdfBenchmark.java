@@ -0,0 +1,48 @@
+package com.smartretail.backend.benchmark;
+
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.service.PdfServiceImpl;
+import com.smartretail.backend.service.ReceiptLabelSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BillPdfBenchmark {
+
+    @Param({"5", "60"})
+    private int items;
+
+    @Param({"en", "hi"})
+    private String lang;
+
+    private PdfServiceImpl pdfService;
+    private Bill bill;
+    private Locale locale;
+
+    @Setup
+    public void setup() {
+        pdfService = new PdfServiceImpl(new ReceiptLabelSource(BenchmarkData.messageSource()), new SimpleMeterRegistry());
+        bill = BenchmarkData.bill(items);
+        locale = Locale.forLanguageTag(lang);
+    }
+
+    @Benchmark
+    public byte[] generateBillPdf() {
+        return pdfService.generateBillPdf(bill, locale);
+    }
+
+    /** Streaming path used by GET /api/bills/{billId}/pdf, without the intermediate byte[]. */
+    @Benchmark
+    public void writeBillPdf() {
+        pdfService.writeBillPdf(bill, locale, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,41 @@
+package com.smartretail.backend.benchmark;
+
+import com.smartretail.backend.models.Bill;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Bill.calculateTotal and the per-item loop checkout runs for every sale. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BillTotalBenchmark {
+
+    @Param({"5", "20", "60"})
+    private int items;
+
+    private Bill bill;
+
+    @Setup
+    public void setup() {
+        bill = BenchmarkData.bill(items);
+    }
+
+    @Benchmark
+    public double calculateTotal() {
+        return bill.calculateTotal();
+    }
+
+    @Benchmark
+    public double itemLoop() {
+        double total = 0.0;
+        for (Bill.BillItem item : bill.getItems()) {
+            if (item.getProductId() == null || item.getProductId().trim().isEmpty()) continue;
+            total += item.getQty() * item.getPrice();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,59 @@
+package com.smartretail.backend.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.bean.CsvToBeanBuilder;
+import com.smartretail.backend.controller.BillController.BillCsvBean;
+import com.smartretail.backend.controller.ProductController.ProductCsvBean;
+import com.smartretail.backend.models.Bill;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Same CsvToBean configuration as the /upload-csv endpoints, without the persistence. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvImportBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String productCsv;
+    private String billCsv;
+
+    @Setup
+    public void setup() {
+        productCsv = BenchmarkData.productCsv(rows);
+        billCsv = BenchmarkData.billCsv(rows, 8);
+    }
+
+    @Benchmark
+    public List<ProductCsvBean> parseProducts() {
+        return new CsvToBeanBuilder<ProductCsvBean>(new StringReader(productCsv))
+                .withType(ProductCsvBean.class)
+                .withIgnoreLeadingWhiteSpace(true)
+                .build()
+                .parse();
+    }
+
+    @Benchmark
+    public void parseBills(Blackhole bh) throws Exception {
+        List<BillCsvBean> beans = new CsvToBeanBuilder<BillCsvBean>(new StringReader(billCsv))
+                .withType(BillCsvBean.class)
+                .withIgnoreLeadingWhiteSpace(true)
+                .withIgnoreEmptyLine(true)
+                .build()
+                .parse();
+        for (BillCsvBean bean : beans) {
+            bh.consume(objectMapper.readValue(bean.getItems(), new TypeReference<List<Bill.BillItem>>() {}));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.smartretail.backend.benchmark;
+
+import com.smartretail.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/** Runs on every authenticated request via JwtAuthenticationFilter. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret",
+                "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        token = jwtUtil.generateToken("cashier@smartretail.in", "CASHIER");
+    }
+
+    @Benchmark
+    public Claims validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("cashier@smartretail.in", "CASHIER");
+    }
+}
@@ -0,0 +1,47 @@
+package com.smartretail.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.smartretail.backend.models.Product;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** GET /api/products response body: the whole catalogue serialized per request. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+    @Param({"100", "2000"})
+    private int products;
+
+    private ObjectWriter writer;
+    private ObjectMapper mapper;
+    private List<Product> list;
+    private byte[] json;
+
+    @Setup
+    public void setup() throws Exception {
+        // Same defaults Spring MVC applies to its message converter
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Product.class));
+        list = BenchmarkData.products(products);
+        json = writer.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public Product[] deserialize() throws Exception {
+        return mapper.readValue(json, Product[].class);
+    }
+}
@@ -0,0 +1,35 @@
+package com.smartretail.backend.benchmark;
+
+import com.smartretail.backend.dto.FullReportResponse;
+import com.smartretail.backend.service.ReportPdfServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportPdfBenchmark {
+
+    @Param({"10", "100"})
+    private int rows;
+
+    private ReportPdfServiceImpl reportPdfService;
+    private FullReportResponse report;
+
+    @Setup
+    public void setup() {
+        reportPdfService = new ReportPdfServiceImpl(BenchmarkData.messageSource(), new SimpleMeterRegistry());
+        report = BenchmarkData.fullReport(rows, rows);
+    }
+
+    @Benchmark
+    public byte[] generateFullReportPdf() {
+        return reportPdfService.generateFullReportPdf(report, "2026-01-01", "2026-01-31", Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,106 @@
+package com.smartretail.backend.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A burst of requests that each block on I/O for a few milliseconds (a Mongo read, an SMTP
+ * or Flask round trip), served by Tomcat's default 200 platform threads versus one virtual
+ * thread per request. The pinned variant blocks inside {@code synchronized}, as JavaMail does,
+ * and on JDK 21-23 falls back to roughly one request per carrier. Needs JDK 21+.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"200", "2000"})
+    private int concurrentRequests;
+
+    @Param({"5"})
+    private int blockingMs;
+
+    private ExecutorService platformPool;
+    private VirtualThreadTaskExecutor virtualThreads;
+
+    @Setup
+    public void setup() {
+        platformPool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        virtualThreads = new VirtualThreadTaskExecutor("bench-");
+    }
+
+    @TearDown
+    public void tearDown() {
+        platformPool.shutdownNow();
+    }
+
+    @Benchmark
+    public void platformThreads() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            platformPool.execute(() -> blockingCall(done));
+        }
+        done.await();
+    }
+
+    @Benchmark
+    public void virtualThreads() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            virtualThreads.execute(() -> blockingCall(done));
+        }
+        done.await();
+    }
+
+    @Benchmark
+    public void virtualThreadsBlockingInSynchronized() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            Object monitor = new Object();
+            virtualThreads.execute(() -> {
+                synchronized (monitor) {
+                    blockingCall(done);
+                }
+            });
+        }
+        done.await();
+    }
+
+    @Benchmark
+    public void virtualThreadsBlockingUnderLock() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrentRequests);
+        for (int i = 0; i < concurrentRequests; i++) {
+            ReentrantLock lock = new ReentrantLock();
+            virtualThreads.execute(() -> {
+                lock.lock();
+                try {
+                    blockingCall(done);
+                } finally {
+                    lock.unlock();
+                }
+            });
+        }
+        done.await();
+    }
+
+    private void blockingCall(CountDownLatch done) {
+        try {
+            Thread.sleep(blockingMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            done.countDown();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartretail.backend.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder; // <-- NEW IMPORT
@@ -14,8 +15,9 @@ public class AppConfig {
     }
 
     // --- ADD THIS BEAN ---
+    // Raising the strength re-hashes each user's password on their next successful login
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
\ No newline at end of file
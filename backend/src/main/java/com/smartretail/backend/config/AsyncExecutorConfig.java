@@ -0,0 +1,92 @@
+package com.smartretail.backend.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executors for work that must not run on Tomcat request threads.
+ * Each pool rejects instead of queueing without limit, so overload surfaces as 503.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true} on JDK 21+, the I/O-bound pools (report
+ * jobs, push) run their workers as virtual threads; their bounds and queues stay as they are.
+ * The CPU-bound pools (BCrypt, image renditions) keep platform threads either way.
+ */
+@Configuration
+public class AsyncExecutorConfig {
+
+    private final boolean virtualThreads;
+
+    public AsyncExecutorConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    }
+
+    @Bean(name = "reportJobExecutor")
+    public ThreadPoolTaskExecutor reportJobExecutor(
+            @Value("${report.jobs.concurrency:2}") int concurrency,
+            @Value("${report.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-job-");
+        useVirtualThreads(executor, "report-job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "imageRenditionExecutor")
+    public ThreadPoolTaskExecutor imageRenditionExecutor(
+            @Value("${image.renditions.concurrency:1}") int concurrency,
+            @Value("${image.renditions.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-rendition-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    // BCrypt is pure CPU: a small pool keeps a login storm from starving checkout requests
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(
+            @Value("${login.verify.concurrency:0}") int concurrency,
+            @Value("${login.verify.queue-capacity:32}") int queueCapacity) {
+        int threads = concurrency > 0 ? concurrency : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "pushExecutor")
+    public ThreadPoolTaskExecutor pushExecutor(
+            @Value("${push.fanout.concurrency:4}") int concurrency,
+            @Value("${push.fanout.queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("push-");
+        useVirtualThreads(executor, "push-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    private void useVirtualThreads(ThreadPoolTaskExecutor executor, String prefix) {
+        if (virtualThreads) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.smartretail.backend.config;
+
+import com.smartretail.backend.service.MongoCommandStatsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class MongoClientConfig {
+
+    // Registers the lightweight command listener instead of DEBUG query logging
+    @Bean
+    public MongoClientSettingsBuilderCustomizer commandStatsCustomizer(MongoCommandStatsService commandStatsService) {
+        return builder -> builder.addCommandListener(commandStatsService);
+    }
+
+    // With virtual threads Tomcat no longer caps concurrency at 200, so the connection pool becomes the limit
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${mongo.pool.max-size:100}") int maxSize,
+            @Value("${mongo.pool.max-wait-ms:120000}") long maxWaitMs) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(maxSize)
+                .maxWaitTime(maxWaitMs, TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,157 @@
+package com.smartretail.backend.config;
+
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Declarative list of every index the backend relies on.
+ * Spring Boot does not auto-create @Indexed annotations, so this catalog is the
+ * single source of truth: any new repository query or MongoTemplate criteria
+ * must add the index it needs here.
+ */
+@Component
+public class MongoIndexCatalog {
+
+    private final List<IndexSpec> entries = new ArrayList<>();
+
+    public MongoIndexCatalog() {
+        // products
+        add(IndexSpec.on("products", "productId").unique());
+        add(IndexSpec.on("products", "expiryDate"));
+        // multikey; products without barcodes keep the field null, never [], or the unique index would collide
+        add(IndexSpec.on("products", "barcodes").unique().sparse());
+        // keyset listings: every sort ends on _id (descending listings walk these backwards)
+        add(IndexSpec.on("products", "productId").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("products", "name").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("products", "lastUpdated").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("products", "category").and("productId", Sort.Direction.ASC));
+
+        // bills – date range reports, findByCreatedAtBetween and the keyset listings
+        add(IndexSpec.on("bills", "createdAt").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("bills", "totalAmount").and("_id", Sort.Direction.ASC));
+
+        // customers – checkout lookup by mobile, re-engagement scan and the keyset listings
+        add(IndexSpec.on("customers", "mobile"));
+        add(IndexSpec.on("customers", "lastPurchaseDate").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("customers", "createdAt").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("customers", "name").and("_id", Sort.Direction.ASC));
+
+        // audit log filtering (actionType + timestamp range)
+        add(IndexSpec.on("auditLogs", "actionType").and("timestamp", Sort.Direction.DESC));
+        add(IndexSpec.on("auditLogs", "timestamp"));
+
+        // users / payments business keys
+        add(IndexSpec.on("users", "email").unique());
+        add(IndexSpec.on("payments", "paymentId").unique());
+
+        // payment / notification listings
+        add(IndexSpec.on("payments", "createdAt").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("payments", "billId"));
+        add(IndexSpec.on("notifications", "sentAt").and("_id", Sort.Direction.ASC));
+        add(IndexSpec.on("notifications", "to").and("sentAt", Sort.Direction.DESC));
+
+        // auth + push
+        add(IndexSpec.on("push_subscriptions", "userId"));
+        add(IndexSpec.on("push_subscriptions", "endpoint"));
+        add(IndexSpec.on("refresh_tokens", "token"));
+        add(IndexSpec.on("refresh_tokens", "userId"));
+        add(IndexSpec.on("refresh_tokens", "tokenHash").unique().sparse());
+        // TTL: Mongo removes each token once its expiryDate has passed
+        add(IndexSpec.on("refresh_tokens", "expiryDate").expireAfter(Duration.ZERO));
+
+        // GridFS receipt PDF cache (product images carry no such metadata, hence sparse)
+        add(IndexSpec.on("fs.files", "metadata.cacheKey").sparse());
+        add(IndexSpec.on("fs.files", "metadata.billId").sparse());
+
+        // product images – content-hash dedupe and the nightly sweep of unreferenced files
+        add(IndexSpec.on("fs.files", "metadata.contentHash").unique().sparse());
+        add(IndexSpec.on("fs.files", "metadata.originalId").sparse());
+
+        // report PDF jobs – dedupe lookup and nightly purge
+        add(IndexSpec.on("report_jobs", "jobKey").and("status", Sort.Direction.ASC).and("completedAt", Sort.Direction.DESC));
+        add(IndexSpec.on("report_jobs", "createdAt"));
+        add(IndexSpec.on("fs.files", "metadata.kind").and("uploadDate", Sort.Direction.ASC).sparse());
+    }
+
+    private void add(IndexSpec spec) {
+        entries.add(spec);
+    }
+
+    public List<IndexSpec> getEntries() {
+        return Collections.unmodifiableList(entries);
+    }
+
+    public List<String> getCollections() {
+        return entries.stream().map(IndexSpec::getCollection).distinct().toList();
+    }
+
+    @Getter
+    public static class IndexSpec {
+        private final String collection;
+        private final LinkedHashMap<String, Sort.Direction> keys = new LinkedHashMap<>();
+        private boolean unique;
+        private boolean sparse;
+        private Duration expireAfter;
+
+        private IndexSpec(String collection) {
+            this.collection = collection;
+        }
+
+        public static IndexSpec on(String collection, String field) {
+            return new IndexSpec(collection).and(field, Sort.Direction.ASC);
+        }
+
+        public IndexSpec and(String field, Sort.Direction direction) {
+            keys.put(field, direction);
+            return this;
+        }
+
+        public IndexSpec unique() {
+            this.unique = true;
+            return this;
+        }
+
+        public IndexSpec sparse() {
+            this.sparse = true;
+            return this;
+        }
+
+        public IndexSpec expireAfter(Duration ttl) {
+            this.expireAfter = ttl;
+            return this;
+        }
+
+        /** Default Mongo naming (field_1_other_-1) so existing indexes are recognised. */
+        public String getName() {
+            StringBuilder sb = new StringBuilder();
+            for (Map.Entry<String, Sort.Direction> e : keys.entrySet()) {
+                if (sb.length() > 0) sb.append('_');
+                sb.append(e.getKey()).append('_').append(e.getValue() == Sort.Direction.ASC ? "1" : "-1");
+            }
+            return sb.toString();
+        }
+
+        public Index toIndex() {
+            Index index = new Index().named(getName());
+            keys.forEach(index::on);
+            if (unique) index.unique();
+            if (sparse) index.sparse();
+            if (expireAfter != null) index.expire(expireAfter);
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            return collection + "." + getName();
+        }
+    }
+}
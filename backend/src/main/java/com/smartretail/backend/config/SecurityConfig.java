@@ -3,6 +3,7 @@ package com.smartretail.backend.config;
 import com.smartretail.backend.security.CustomOAuth2AuthenticationSuccessHandler;
 import com.smartretail.backend.security.JwtAuthenticationFilter;
 import com.smartretail.backend.service.UserService;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -41,13 +42,21 @@ public class SecurityConfig {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Async results (CompletableFuture, StreamingResponseBody, Mono/Flux) are written on a second
+                        // dispatch that the JWT filter does not see; the request was already authorized on its first dispatch
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/static/**", "/css/**", "/js/**", "/images/**").permitAll()
                         .requestMatchers("/api/auth/**", "/error", "/static/**", "/", "/index.html", "/favicon.ico", "/login/oauth2/**", "/oauth2/**").permitAll()
-                        .requestMatchers("/api/bills/{billId}/pdf").permitAll()
+                        .requestMatchers("/api/bills/{billId}/pdf", "/api/bills/{billId}/receipt").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("OWNER")
 
                         // Allow anyone to GET product images
                         .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/products/image/**").permitAll()
 
+                        // Till lookups
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/products/search", "/api/products/by-barcode/**").hasAnyRole("MANAGER", "CASHIER", "OWNER")
+
                         // This rule now correctly secures the other product endpoints
                         .requestMatchers("/api/products/**", "/api/bills/**").hasAnyRole("MANAGER","OWNER")
 
@@ -56,7 +65,13 @@ public class SecurityConfig {
 
                         .requestMatchers("/api/customers/**").hasAnyRole("MANAGER", "CASHIER", "OWNER")
                         .requestMatchers("/api/reports/**").hasAnyRole("MANAGER", "OWNER")
+
+                        // Reactive read API: same rules as the servlet paths it mirrors
+                        .requestMatchers(org.springframework.http.HttpMethod.GET, "/api/reactive/products/image/**").permitAll()
+                        .requestMatchers("/api/reactive/products/**", "/api/reactive/reports/**", "/api/reactive/analytics/**")
+                        .hasAnyRole("MANAGER", "OWNER")
                         .requestMatchers("/api/users/**").hasRole("OWNER")
+                        .requestMatchers("/api/admin/**").hasRole("OWNER")
                         .anyRequest().authenticated()
                 )
                 .csrf(AbstractHttpConfigurer::disable)
@@ -85,6 +100,8 @@ public class SecurityConfig {
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Accept-Language"));
+        // Listing endpoints return the next page's cursor in headers
+        configuration.setExposedHeaders(Arrays.asList("X-Next-Cursor", "Link"));
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,70 @@
+package com.smartretail.backend.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Support for the {@code fast-startup} profile, which turns on lazy initialisation, and for
+ * the optional native image.
+ */
+@Configuration
+@ImportRuntimeHints(StartupConfig.NativeHints.class)
+public class StartupConfig {
+
+    // Lazy beans are never seen by the @Scheduled processor, so beans with scheduled jobs stay eager
+    @Bean
+    static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+        return (beanName, definition, beanType) -> {
+            if (beanType == null) return false;
+            for (Method method : ReflectionUtils.getUniqueDeclaredMethods(beanType)) {
+                if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)) return true;
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Reflection and resources that AOT cannot find on its own: jjwt's implementation classes
+     * (loaded by name from the api jar), the BouncyCastle EC classes web push needs, and iText's
+     * bundled font metrics. Gaps show up at the first use and can be found with the
+     * native-image tracing agent.
+     */
+    static final class NativeHints implements RuntimeHintsRegistrar {
+
+        private static final String[] REFLECTIVE = {
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer",
+                "org.bouncycastle.jce.provider.BouncyCastleProvider",
+                "org.bouncycastle.jcajce.provider.asymmetric.EC$Mappings",
+                "org.bouncycastle.jcajce.provider.asymmetric.ec.KeyFactorySpi$EC",
+                "org.bouncycastle.jcajce.provider.asymmetric.ec.KeyPairGeneratorSpi$EC",
+                "org.bouncycastle.jcajce.provider.asymmetric.ec.KeyAgreementSpi$DH",
+                "org.bouncycastle.jcajce.provider.asymmetric.ec.SignatureSpi$ecDSA256"
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : REFLECTIVE) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("com/itextpdf/io/font/**");
+        }
+    }
+}
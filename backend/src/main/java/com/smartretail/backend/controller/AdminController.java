@@ -0,0 +1,61 @@
+package com.smartretail.backend.controller;
+
+import com.smartretail.backend.service.IndexManagementService;
+import com.smartretail.backend.service.MongoCommandStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+@PreAuthorize("hasRole('OWNER')")
+public class AdminController {
+
+    private final IndexManagementService indexManagementService;
+    private final MongoCommandStatsService commandStatsService;
+
+    public AdminController(IndexManagementService indexManagementService,
+                           MongoCommandStatsService commandStatsService) {
+        this.indexManagementService = indexManagementService;
+        this.commandStatsService = commandStatsService;
+    }
+
+    @GetMapping("/indexes")
+    public ResponseEntity<Map<String, Object>> getIndexReport() {
+        return ResponseEntity.ok(indexManagementService.getLastReport());
+    }
+
+    @PostMapping("/indexes/verify")
+    public ResponseEntity<Map<String, Object>> verifyIndexes() {
+        return ResponseEntity.ok(indexManagementService.verify());
+    }
+
+    @PostMapping("/indexes/apply")
+    public ResponseEntity<Map<String, Object>> applyIndexes() {
+        List<String> created = indexManagementService.applyCatalog();
+        return ResponseEntity.ok(Map.of(
+                "created", created,
+                "report", indexManagementService.verify()));
+    }
+
+    @GetMapping("/mongo/slow-queries")
+    public ResponseEntity<Map<String, Object>> getSlowQueries() {
+        return ResponseEntity.ok(Map.of(
+                "thresholdMs", commandStatsService.getSlowThresholdMs(),
+                "commands", commandStatsService.getSlowCommands()));
+    }
+
+    @GetMapping("/mongo/latency")
+    public ResponseEntity<Map<String, Object>> getCommandLatency() {
+        return ResponseEntity.ok(commandStatsService.getHistograms());
+    }
+
+    @DeleteMapping("/mongo/stats")
+    public ResponseEntity<Void> resetCommandStats() {
+        commandStatsService.reset();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -44,4 +44,16 @@ public class AuthController {
         response.put("accessToken", newAccessToken);
         return ResponseEntity.ok(response);
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody String refreshToken) {
+        authService.logout(refreshToken);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAll(@RequestBody String refreshToken) {
+        long revoked = authService.logoutAll(refreshToken);
+        return ResponseEntity.ok(Map.of("revoked", revoked));
+    }
 }
\ No newline at end of file
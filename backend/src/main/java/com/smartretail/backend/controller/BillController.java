@@ -4,21 +4,31 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.bean.CsvToBeanBuilder;
 import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.security.PdfAccessTokens;
 import com.smartretail.backend.service.BillService;
-import com.smartretail.backend.service.PdfService;
+import com.smartretail.backend.service.ExportService;
+import com.smartretail.backend.service.ListingService;
+import com.smartretail.backend.service.ReceiptPdfCache;
+import com.smartretail.backend.service.ReceiptTextRenderer;
 import lombok.Getter;
 import lombok.Setter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
@@ -29,15 +39,25 @@ import java.util.*;
 public class BillController {
 
     private static final Logger logger = LoggerFactory.getLogger(BillController.class);
+    private static final String ESC_POS_VALUE = "application/vnd.escpos";
+    private static final MediaType ESC_POS = MediaType.parseMediaType(ESC_POS_VALUE);
     private final BillService billService;
-    private final PdfService pdfService;
+    private final ReceiptPdfCache receiptPdfCache;
+    private final ReceiptTextRenderer receiptTextRenderer;
     private final MessageSource messageSource;
+    private final ListingService listingService;
+    private final ExportService exportService;
     private final ObjectMapper objectMapper;
 
-    public BillController(BillService billService, PdfService pdfService, MessageSource messageSource) {
+    public BillController(BillService billService, ReceiptPdfCache receiptPdfCache,
+                          ReceiptTextRenderer receiptTextRenderer, MessageSource messageSource,
+                          ListingService listingService, ExportService exportService) {
         this.billService = billService;
-        this.pdfService = pdfService;
+        this.receiptPdfCache = receiptPdfCache;
+        this.receiptTextRenderer = receiptTextRenderer;
         this.messageSource = messageSource;
+        this.listingService = listingService;
+        this.exportService = exportService;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -83,12 +103,33 @@ public class BillController {
         return ResponseEntity.ok(bill);
     }
 
-    // ✅ Get all bills
+    // ✅ List bills, newest first, one page per call (next cursor in X-Next-Cursor)
     @GetMapping
-    public ResponseEntity<List<Bill>> getAllBills() {
-        logger.debug("[BILL CONTROLLER] Fetching all bills");
-        List<Bill> bills = billService.getAllBills();
-        return ResponseEntity.ok(bills);
+    public ResponseEntity<List<Object>> getAllBills(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to,
+            @RequestParam(required = false) String customerMobile,
+            @RequestParam(required = false) String addedBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        logger.debug("[BILL CONTROLLER] Listing bills (cursor={}, limit={})", cursor, limit);
+        return ListingResponses.of(listingService.listBills(from, to, customerMobile, addedBy,
+                new ListingService.ListParams(cursor, limit, sort, fields)));
+    }
+
+    // ✅ Export bills as NDJSON or CSV, streamed from the cursor (gzip when accepted)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBills(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.info("[BILL CONTROLLER] Export requested: format={}, from={}, to={}", format, from, to);
+        ExportService.Export export = exportService.bills(ExportService.Format.parse(format), from, to, fields);
+        return ExportResponses.of(export, acceptEncoding);
     }
 
     // ✅ Generate PDF access token for existing bill
@@ -110,38 +151,117 @@ public class BillController {
         return ResponseEntity.ok(response);
     }
 
-    // ✅ Generate Bill PDF (Optimized version)
+    // ✅ Bill PDF, served from the receipt cache with ETag revalidation
     @GetMapping(value = "/{billId}/pdf", produces = MediaType.APPLICATION_PDF_VALUE)
-    public ResponseEntity<byte[]> downloadBillPdf(@PathVariable String billId,
-                                                  @RequestParam(required = false) String token) {
+    public ResponseEntity<Resource> downloadBillPdf(@PathVariable String billId,
+                                                    @RequestParam(required = false) String token,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Locale locale = LocaleContextHolder.getLocale();
         logger.info("[BILL CONTROLLER] Generating PDF for Bill ID: {}", billId);
 
         // Token validation – allow download only with a valid token
         if (token == null || !billService.validatePdfAccessToken(billId, token)) {
             logger.warn("[BILL CONTROLLER] Invalid or missing token for Bill {}", billId);
-            return ResponseEntity.status(HttpStatus.FORBIDDEN)
-                    .body(null);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
 
+        Bill bill;
         try {
-            Bill bill = billService.getBillById(billId, locale);
-            byte[] pdfBytes = pdfService.generateBillPdf(bill, locale);
+            bill = billService.getBillById(billId, locale);
+        } catch (Exception e) {
+            logger.error("[BILL CONTROLLER] Error loading Bill {} for PDF: {}", billId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        try {
+            ReceiptPdfCache.CachedPdf pdf = receiptPdfCache.get(bill, locale);
 
             HttpHeaders headers = new HttpHeaders();
+            headers.setETag(pdf.etag());
+            // The signed token in the URL gates access, so shared caches may keep the
+            // response keyed by it, but never past the token's own expiry
+            headers.setCacheControl("public, max-age=" + PdfAccessTokens.secondsLeft(token));
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE);
+            headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "Content-Disposition, ETag");
+
+            if (ifNoneMatch != null && (ifNoneMatch.contains(pdf.etag()) || ifNoneMatch.trim().equals("*"))) {
+                return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+            }
+
             headers.setContentType(MediaType.APPLICATION_PDF);
             headers.setContentDispositionFormData("attachment", "Bill_" + billId + ".pdf");
-            headers.setCacheControl("no-cache, no-store, must-revalidate");
-            headers.add(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, "Content-Disposition");
+            headers.setContentLength(pdf.bytes().length);
 
-            logger.info("[BILL CONTROLLER] PDF generated successfully for Bill ID: {}", billId);
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            // ByteArrayResource wraps the cached array without copying it
+            return new ResponseEntity<>(new ByteArrayResource(pdf.bytes()), headers, HttpStatus.OK);
         } catch (Exception e) {
             logger.error("[BILL CONTROLLER] Error generating PDF for Bill {}: {}", billId, e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    // ✅ Receipt for thermal printers: ESC/POS, plain text or PDF chosen by Accept (or ?format=)
+    @GetMapping(value = "/{billId}/receipt",
+            produces = {ESC_POS_VALUE, MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_PDF_VALUE})
+    public ResponseEntity<byte[]> getReceipt(@PathVariable String billId,
+                                             @RequestParam(required = false) String token,
+                                             @RequestParam(required = false) String format,
+                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        Locale locale = LocaleContextHolder.getLocale();
+
+        if (token == null || !billService.validatePdfAccessToken(billId, token)) {
+            logger.warn("[BILL CONTROLLER] Invalid or missing token for receipt of Bill {}", billId);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        Bill bill;
+        try {
+            bill = billService.getBillById(billId, locale);
+        } catch (Exception e) {
+            logger.error("[BILL CONTROLLER] Error loading Bill {} for receipt: {}", billId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+
+        MediaType type = selectReceiptType(format, accept);
+        byte[] body;
+        if (ESC_POS.equals(type)) {
+            body = receiptTextRenderer.renderEscPos(bill, locale);
+        } else if (MediaType.TEXT_PLAIN.equals(type)) {
+            body = receiptTextRenderer.renderText(bill, locale);
+            type = new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8);
+        } else {
+            body = receiptPdfCache.get(bill, locale).bytes();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(type);
+        headers.setContentLength(body.length);
+        headers.setCacheControl("private, no-cache");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_LANGUAGE);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    private static MediaType selectReceiptType(String format, String accept) {
+        if (format != null) {
+            return switch (format.toLowerCase(Locale.ROOT)) {
+                case "escpos" -> ESC_POS;
+                case "text", "txt" -> MediaType.TEXT_PLAIN;
+                default -> MediaType.APPLICATION_PDF;
+            };
+        }
+        if (accept != null) {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType candidate : accepted) {
+                if (candidate.isWildcardType()) break;
+                if (candidate.isCompatibleWith(ESC_POS)) return ESC_POS;
+                if (candidate.isCompatibleWith(MediaType.TEXT_PLAIN)) return MediaType.TEXT_PLAIN;
+                if (candidate.isCompatibleWith(MediaType.APPLICATION_PDF)) return MediaType.APPLICATION_PDF;
+            }
+        }
+        return MediaType.APPLICATION_PDF;
+    }
+
     // ✅ Resend Bill Email
     @PostMapping("/resend-email/{billId}")
     public ResponseEntity<?> resendBillEmail(@PathVariable String billId) {
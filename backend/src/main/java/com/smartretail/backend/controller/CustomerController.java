@@ -4,6 +4,7 @@ import com.smartretail.backend.dto.CustomEmailRequest; // <-- ADDED IMPORT
 import com.smartretail.backend.models.Bill;
 import com.smartretail.backend.models.Customer;
 import com.smartretail.backend.service.CustomerService;
+import com.smartretail.backend.service.ListingService;
 import com.smartretail.backend.service.ReminderService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -26,10 +27,13 @@ public class CustomerController {
 
     private final CustomerService customerService;
     private final ReminderService reminderService;
+    private final ListingService listingService;
 
-    public CustomerController(CustomerService customerService, ReminderService reminderService) {
+    public CustomerController(CustomerService customerService, ReminderService reminderService,
+                              ListingService listingService) {
         this.customerService = customerService;
         this.reminderService = reminderService;
+        this.listingService = listingService;
     }
 
     @PostMapping
@@ -56,12 +60,19 @@ public class CustomerController {
 
     @GetMapping
     @PreAuthorize("hasAnyRole('OWNER', 'MANAGER', 'CASHIER')")
-    public ResponseEntity<List<Customer>> getAllCustomers(
+    public ResponseEntity<List<Object>> getAllCustomers(
+            @RequestParam(required = false) String mobile,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date purchasedSince,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields,
             @RequestHeader(value = "Accept-Language", defaultValue = "en", required = false) String language) {
-        Locale locale = parseLocale(language);
-        logger.debug("Fetching all customers");
-        List<Customer> customers = customerService.getAllCustomers();
-        return ResponseEntity.ok(customers);
+        logger.debug("Listing customers (cursor={}, limit={}, sort={})", cursor, limit, sort);
+        return ListingResponses.of(listingService.listCustomers(mobile, email, name, purchasedSince,
+                new ListingService.ListParams(cursor, limit, sort, fields)));
     }
 
     @PutMapping("/{id}")
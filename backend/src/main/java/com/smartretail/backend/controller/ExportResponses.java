@@ -0,0 +1,43 @@
+package com.smartretail.backend.controller;
+
+import com.smartretail.backend.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export responses are written on an async thread after the handler returns, compressed
+ * on the fly when the client accepts gzip. No Content-Length: the size is unknown until the cursor ends.
+ */
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    static ResponseEntity<StreamingResponseBody> of(ExportService.Export export, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+                export.writeTo(compressed);
+                compressed.finish();
+            } else {
+                export.writeTo(out);
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(export.getFormat().getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(export.getFilename()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+}
@@ -0,0 +1,37 @@
+package com.smartretail.backend.controller;
+
+import com.smartretail.backend.service.FileService;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image responses for the servlet and reactive catalog endpoints. Range requests are
+ * answered with 206 by the resource converter, which also sets Content-Length; an explicit
+ * length here would be wrong for ranges.
+ */
+final class ImageResponses {
+
+    private ImageResponses() {
+    }
+
+    static ResponseEntity<Resource> of(FileService.StoredImage image, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(image.etag());
+        // A new upload always gets a new id, so a fetched image never changes; a stand-in
+        // original is only kept briefly so the rendition is picked up once generated
+        headers.setCacheControl(image.exact()
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic());
+        if (ifNoneMatch != null && (ifNoneMatch.contains(image.etag()) || ifNoneMatch.trim().equals("*"))) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        headers.setContentType(MediaType.parseMediaType(image.contentType()));
+        return new ResponseEntity<>(image.resource(), headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,35 @@
+package com.smartretail.backend.controller;
+
+import com.smartretail.backend.dto.CursorPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.List;
+
+/**
+ * Listing endpoints keep returning a plain JSON array so existing clients keep working;
+ * the cursor for the next page travels in {@code X-Next-Cursor} and a {@code Link rel="next"}.
+ */
+final class ListingResponses {
+
+    static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private ListingResponses() {
+    }
+
+    static <T> ResponseEntity<List<T>> of(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR, page.getNextCursor());
+            if (RequestContextHolder.getRequestAttributes() != null) {
+                String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .replaceQueryParam("cursor", page.getNextCursor())
+                        .toUriString();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+        }
+        return response.body(page.getItems());
+    }
+}
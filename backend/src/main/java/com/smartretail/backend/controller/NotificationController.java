@@ -1,22 +1,27 @@
 package com.smartretail.backend.controller;
 
 import com.smartretail.backend.models.Notification;
+import com.smartretail.backend.service.ListingService;
 import com.smartretail.backend.service.NotificationService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Date;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/notifications")
 public class NotificationController {
     private final NotificationService notificationService;
+    private final ListingService listingService;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, ListingService listingService) {
         this.notificationService = notificationService;
+        this.listingService = listingService;
     }
 
     @PostMapping
@@ -26,9 +31,16 @@ public class NotificationController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Notification>> getAllNotifications() {
-        List<Notification> notifications = notificationService.getAllNotifications();
-        return ResponseEntity.ok(notifications);
+    public ResponseEntity<List<Object>> getAllNotifications(
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date until,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        return ListingResponses.of(listingService.listNotifications(to, from, until,
+                new ListingService.ListParams(cursor, limit, sort, fields)));
     }
 
     @PostMapping("/test")
@@ -1,20 +1,25 @@
 package com.smartretail.backend.controller;
 
 import com.smartretail.backend.models.Payment;
+import com.smartretail.backend.service.ListingService;
 import com.smartretail.backend.service.PaymentService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Date;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/payments")
 public class PaymentController {
     private final PaymentService paymentService;
+    private final ListingService listingService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, ListingService listingService) {
         this.paymentService = paymentService;
+        this.listingService = listingService;
     }
 
     @PostMapping
@@ -33,8 +38,17 @@ public class PaymentController {
     }
 
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        List<Payment> payments = paymentService.getAllPayments();
-        return ResponseEntity.ok(payments);
+    public ResponseEntity<List<Object>> getAllPayments(
+            @RequestParam(required = false) String billId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String paymentMode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        return ListingResponses.of(listingService.listPayments(billId, status, paymentMode, from, to,
+                new ListingService.ListParams(cursor, limit, sort, fields)));
     }
 }
\ No newline at end of file
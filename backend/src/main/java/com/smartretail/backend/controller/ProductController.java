@@ -4,8 +4,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.bean.CsvBindByName;
 import com.opencsv.bean.CsvToBeanBuilder;
 import com.smartretail.backend.dto.ProductRequest;
+import com.smartretail.backend.exception.ProductNotFoundException;
 import com.smartretail.backend.models.Product;
+import com.smartretail.backend.service.BarcodeIndex;
+import com.smartretail.backend.service.ExportService;
 import com.smartretail.backend.service.FileService;
+import com.smartretail.backend.service.ImageRenditionService;
+import com.smartretail.backend.service.ListingService;
+import com.smartretail.backend.service.ProductSearchIndex;
 import com.smartretail.backend.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.Getter;
@@ -14,14 +20,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.http.HttpHeaders;
-import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import java.util.*;
 import java.io.BufferedReader;
@@ -41,15 +48,27 @@ public class ProductController {
     private final ProductService productService;
     private final FileService fileService;
     private final MessageSource messageSource;
+    private final ProductSearchIndex searchIndex;
+    private final BarcodeIndex barcodeIndex;
+    private final ListingService listingService;
+    private final ExportService exportService;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Autowired
     public ProductController(ProductService productService,
                              FileService fileService,
-                             MessageSource messageSource) {
+                             MessageSource messageSource,
+                             ProductSearchIndex searchIndex,
+                             BarcodeIndex barcodeIndex,
+                             ListingService listingService,
+                             ExportService exportService) {
         this.productService = productService;
         this.fileService = fileService;
         this.messageSource = messageSource;
+        this.searchIndex = searchIndex;
+        this.barcodeIndex = barcodeIndex;
+        this.listingService = listingService;
+        this.exportService = exportService;
     }
 
     /* -------------------- CREATE -------------------- */
@@ -78,23 +97,22 @@ public class ProductController {
     }
 
     /* -------------------- IMAGE -------------------- */
+    /** Streams the image, or its thumb / card / full rendition, from GridFS. */
     @GetMapping("/image/{imageId}")
-    public ResponseEntity<Resource> getImage(@PathVariable String imageId) {
+    public ResponseEntity<Resource> getImage(@PathVariable String imageId,
+                                             @RequestParam(required = false) String size,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ImageRenditionService.Size rendition = ImageRenditionService.Size.parse(size);
+        FileService.StoredImage image;
         try {
-            Map<String, Object> imageData = fileService.getImage(imageId);
-            byte[] bytes = (byte[]) imageData.get("bytes");
-            String contentType = (String) imageData.get("contentType");
-
-            ByteArrayResource resource = new ByteArrayResource(bytes);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_TYPE, contentType)
-                    .contentLength(bytes.length)
-                    .body(resource);
+            Optional<FileService.StoredImage> found = fileService.findImage(imageId, rendition);
+            if (found.isEmpty()) return ResponseEntity.notFound().build();
+            image = found.get();
         } catch (Exception e) {
             logger.error("Failed to retrieve image: {}", imageId, e);
-            return ResponseEntity.notFound().build();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
+        return ImageResponses.of(image, ifNoneMatch);
     }
 
     private ResponseEntity<Map<String, String>> buildCreatedResponse(Product p) {
@@ -110,9 +128,74 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductById(productId, parseLocale(lang)));
     }
 
+    /** One page per call; the next page's cursor is in the X-Next-Cursor header. */
     @GetMapping
-    public ResponseEntity<List<Product>> list() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<Object>> list(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String name,
+            @RequestParam(defaultValue = "false") boolean lowStock,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String fields) {
+        return ListingResponses.of(listingService.listProducts(category, name, lowStock,
+                new ListingService.ListParams(cursor, limit, sort, fields)));
+    }
+
+    /* -------------------- EXPORT -------------------- */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date updatedTo,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ExportService.Export export = exportService.products(ExportService.Format.parse(format),
+                category, updatedFrom, updatedTo, fields);
+        return ExportResponses.of(export, acceptEncoding);
+    }
+
+    /* -------------------- SEARCH -------------------- */
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> search(@RequestParam("q") String query,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        List<Map<String, Object>> results = searchIndex.search(query, Math.min(limit, 100));
+        return ResponseEntity.ok(Map.of(
+                "query", query,
+                "count", results.size(),
+                "results", results));
+    }
+
+    /* -------------------- BARCODE -------------------- */
+    @GetMapping("/by-barcode/{code}")
+    public ResponseEntity<Map<String, Object>> getByBarcode(
+            @PathVariable String code,
+            @RequestHeader(value = "Accept-Language", defaultValue = "en") String lang) {
+        Locale locale = parseLocale(lang);
+        BarcodeIndex.Match match;
+        try {
+            match = barcodeIndex.resolve(code).orElseThrow(() -> new ProductNotFoundException(
+                    messageSource.getMessage("product.barcode.not.found", new Object[]{code}, locale)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                    messageSource.getMessage("product.barcode.invalid", new Object[]{code}, locale));
+        }
+
+        Product product = productService.getProductById(match.productId(), locale);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("barcode", code);
+        body.put("type", match.type());
+        body.put("product", product);
+        // Weighed-item labels carry the line price (paise) or the weight (grams)
+        if (match.type() == BarcodeIndex.Type.WEIGHED_PRICE) {
+            body.put("lineAmount", match.embeddedValue() / 100.0);
+        } else if (match.type() == BarcodeIndex.Type.WEIGHED_WEIGHT) {
+            double kg = match.embeddedValue() / 1000.0;
+            body.put("weightKg", kg);
+            body.put("lineAmount", Math.round(product.getPrice() * kg * 100) / 100.0);
+        }
+        return ResponseEntity.ok(body);
     }
 
     /* -------------------- UPDATE -------------------- */
@@ -329,6 +412,7 @@ public class ProductController {
         product.setExpiryDate(parseDate(request.getExpiryDate()));
         product.setImageUrl(request.getImageUrl());
         product.setSupplierEmail(request.getSupplierEmail());
+        product.setBarcodes(request.getBarcodes());
         product.setAddedBy("system"); // Default value
         product.setCreatedAt(new Date());
         product.setLastUpdated(new Date());
@@ -1,12 +1,17 @@
 package com.smartretail.backend.controller;
 
+import com.smartretail.backend.dto.PushBroadcastRequest;
 import com.smartretail.backend.models.PushSubscription;
 import com.smartretail.backend.service.PushNotificationService;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/notifications")
 public class PushNotificationController {
@@ -25,8 +30,24 @@ public class PushNotificationController {
         return ResponseEntity.ok("Subscription saved");
     }
 
+    // Called by a device when the user turns notifications off there; other devices keep theirs
+    @DeleteMapping("/subscribe")
+    public ResponseEntity<Void> unsubscribe(@RequestParam String endpoint) {
+        String userId = SecurityContextHolder.getContext().getAuthentication().getName();
+        return pushNotificationService.removeSubscription(userId, endpoint)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    @PostMapping("/push/broadcast")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('OWNER')")
+    public ResponseEntity<Map<String, Integer>> broadcast(@Valid @RequestBody PushBroadcastRequest request) {
+        int queued = pushNotificationService.broadcast(request.getTitle(), request.getMessage(), request.getRole());
+        return ResponseEntity.accepted().body(Map.of("queued", queued));
+    }
+
     @GetMapping("/vapid-public-key")
     public ResponseEntity<String> getVapidPublicKey() {
         return ResponseEntity.ok(pushNotificationService.getVapidPublicKey());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package com.smartretail.backend.controller;
+
+import com.smartretail.backend.dto.FullReportResponse;
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.models.Product;
+import com.smartretail.backend.service.ImageRenditionService;
+import com.smartretail.backend.service.ReactiveCatalogService;
+import com.smartretail.backend.service.ReactiveReportService;
+import org.springframework.context.MessageSource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Reactive twins of the read-heavy catalog, report and analytics endpoints. The handlers
+ * return {@link Mono}/{@link Flux}, so the request thread goes back to Tomcat while Mongo or
+ * Flask is working. Lists are streamed with backpressure when the client asks for
+ * {@code application/x-ndjson} or {@code text/event-stream}; plain JSON gets the usual array.
+ * URL security is the same as for the servlet paths (see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/reactive")
+public class ReactiveReadController {
+
+    private final ReactiveCatalogService catalogService;
+    private final ReactiveReportService reportService;
+    private final MessageSource messageSource;
+
+    public ReactiveReadController(ReactiveCatalogService catalogService,
+                                  ReactiveReportService reportService,
+                                  MessageSource messageSource) {
+        this.catalogService = catalogService;
+        this.reportService = reportService;
+        this.messageSource = messageSource;
+    }
+
+    /* -------------------- CATALOG -------------------- */
+    @GetMapping(value = "/products", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Product> products(@RequestParam(required = false) String category,
+                                  @RequestParam(defaultValue = "false") boolean lowStock) {
+        return catalogService.streamProducts(category, lowStock);
+    }
+
+    @GetMapping("/products/{productId}")
+    public Mono<ResponseEntity<Product>> product(@PathVariable String productId) {
+        return catalogService.findProduct(productId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/products/image/{imageId}")
+    public Mono<ResponseEntity<Resource>> image(@PathVariable String imageId,
+                                                @RequestParam(required = false) String size,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ImageRenditionService.Size rendition = ImageRenditionService.Size.parse(size);
+        return catalogService.findImage(imageId, rendition)
+                .map(image -> ImageResponses.of(image, ifNoneMatch))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /* -------------------- REPORTS -------------------- */
+    @GetMapping("/reports/sales")
+    public Mono<Map<String, Object>> salesReport(@RequestParam String startDate,
+                                                 @RequestParam String endDate,
+                                                 Locale locale) {
+        Date[] range = dayRange(startDate, endDate, locale);
+        return reportService.salesReport(range[0], range[1], locale);
+    }
+
+    /** Every bill of the range; use NDJSON for large ranges so nothing is buffered. */
+    @GetMapping(value = "/reports/sales/bills", produces = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Bill> salesBills(@RequestParam String startDate,
+                                 @RequestParam String endDate,
+                                 Locale locale) {
+        Date[] range = dayRange(startDate, endDate, locale);
+        return reportService.streamBills(range[0], range[1]);
+    }
+
+    @GetMapping("/reports/inventory")
+    public Mono<Map<String, Object>> inventoryReport(@RequestParam(defaultValue = "10") int lowStockThreshold,
+                                                     @RequestParam(defaultValue = "30") int expiryDays,
+                                                     Locale locale) {
+        return reportService.inventoryReport(lowStockThreshold, expiryDays, locale);
+    }
+
+    @GetMapping("/reports/full")
+    @PreAuthorize("hasAnyRole('OWNER','MANAGER')")
+    public Mono<FullReportResponse> fullReport(@RequestParam String startDate,
+                                               @RequestParam String endDate,
+                                               @RequestParam(defaultValue = "10") int lowStockThreshold,
+                                               @RequestParam(defaultValue = "30") int expiryDays,
+                                               Locale locale) {
+        return reportService.fullReport(startDate, endDate, lowStockThreshold, expiryDays, locale);
+    }
+
+    /* -------------------- ANALYTICS -------------------- */
+    @GetMapping("/analytics/report")
+    @PreAuthorize("hasAnyRole('OWNER','MANAGER')")
+    public Mono<ResponseEntity<Object>> analyticsReport(@RequestParam(required = false) String startDate,
+                                                        @RequestParam(required = false) String endDate,
+                                                        Locale locale) {
+        return unavailableOnError(reportService.analyticsReport(startDate, endDate, locale));
+    }
+
+    @GetMapping("/analytics/report/text")
+    @PreAuthorize("hasAnyRole('OWNER','MANAGER')")
+    public Mono<ResponseEntity<Object>> analyticsTextReport(@RequestParam(required = false) String startDate,
+                                                            @RequestParam(required = false) String endDate,
+                                                            Locale locale) {
+        return unavailableOnError(reportService.analyticsTextReport(startDate, endDate, locale));
+    }
+
+    // Same contract as AnalyticsController: a Flask failure is a 503 with the reason
+    private static Mono<ResponseEntity<Object>> unavailableOnError(Mono<Object> data) {
+        return data.map(ResponseEntity::ok)
+                .onErrorResume(e -> Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .<Object>body(Map.of("error", "Analytics service unavailable: " + e.getMessage()))));
+    }
+
+    /* -------------------- HELPERS -------------------- */
+    // yyyy-MM-dd in UTC; the end date includes the whole day, as in ReportController
+    private Date[] dayRange(String startDate, String endDate, Locale locale) {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        dateFormat.setLenient(false);
+        try {
+            Date start = dateFormat.parse(startDate);
+            Date end = new Date(dateFormat.parse(endDate).getTime() + 24 * 60 * 60 * 1000 - 1);
+            return new Date[]{start, end};
+        } catch (ParseException e) {
+            throw new IllegalArgumentException(
+                    messageSource.getMessage("report.date.invalid", new Object[]{startDate + " or " + endDate}, locale));
+        }
+    }
+}
@@ -1,23 +1,29 @@
 package com.smartretail.backend.controller;
 
 import com.smartretail.backend.dto.FullReportResponse;
+import com.smartretail.backend.models.ReportJob;
 import com.smartretail.backend.service.AnalyticsService;
-import com.smartretail.backend.service.ReportPdfService;
+import com.smartretail.backend.service.ReportJobService;
 import com.smartretail.backend.service.ReportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.Locale;
-import java.util.Map;
-import java.util.TimeZone;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/reports")
@@ -26,16 +32,19 @@ public class ReportController {
     private final ReportService reportService;
     private final MessageSource messageSource;
     private final AnalyticsService analyticsService;
-    private final ReportPdfService reportPdfService;
+    private final ReportJobService reportJobService;
+
+    @Value("${report.jobs.sync-wait-seconds:25}")
+    private long syncWaitSeconds;
 
     public ReportController(ReportService reportService,
                             MessageSource messageSource,
                             AnalyticsService analyticsService,
-                            ReportPdfService reportPdfService) {
+                            ReportJobService reportJobService) {
         this.reportService = reportService;
         this.messageSource = messageSource;
         this.analyticsService = analyticsService;
-        this.reportPdfService = reportPdfService;
+        this.reportJobService = reportJobService;
     }
 
     @GetMapping("/sales")
@@ -88,7 +97,7 @@ public class ReportController {
 
     @GetMapping("/full/pdf")
     @PreAuthorize("hasAnyRole('OWNER','MANAGER')")
-    public ResponseEntity<byte[]> downloadFullReportPdf(
+    public CompletableFuture<ResponseEntity<?>> downloadFullReportPdf(
             @RequestParam String startDate,
             @RequestParam String endDate,
             @RequestParam(defaultValue = "10") int lowStockThreshold,
@@ -97,21 +106,104 @@ public class ReportController {
 
         logger.debug("Generating PDF report: {} to {}", startDate, endDate);
 
-        // 1. Get the same data DTO
-        FullReportResponse fullReport = reportService.getFullReportData(startDate, endDate, lowStockThreshold, expiryDays, locale);
+        ReportJobService.Submission submission;
+        try {
+            submission = reportJobService.submit(startDate, endDate, lowStockThreshold, expiryDays, locale, currentUser());
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(queueFull());
+        }
+
+        // The request thread is released while waiting; slow reports fall back to a job handle
+        return submission.completion()
+                .<ResponseEntity<?>>thenApply(this::pdfResponse)
+                .completeOnTimeout(accepted(submission.job()), syncWaitSeconds, TimeUnit.SECONDS);
+    }
+
+    @PostMapping("/full/pdf/jobs")
+    @PreAuthorize("hasAnyRole('OWNER','MANAGER')")
+    public ResponseEntity<Map<String, Object>> submitFullReportPdfJob(
+            @RequestParam String startDate,
+            @RequestParam String endDate,
+            @RequestParam(defaultValue = "10") int lowStockThreshold,
+            @RequestParam(defaultValue = "30") int expiryDays,
+            Locale locale) {
+        try {
+            ReportJobService.Submission submission =
+                    reportJobService.submit(startDate, endDate, lowStockThreshold, expiryDays, locale, currentUser());
+            return accepted(submission.job());
+        } catch (TaskRejectedException e) {
+            return queueFull();
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyRole('OWNER','MANAGER')")
+    public ResponseEntity<Map<String, Object>> getReportJob(@PathVariable String jobId) {
+        return reportJobService.getJob(jobId)
+                .map(job -> ResponseEntity.ok(jobHandle(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 
-        // 2. Pass DTO to PDF service
-        byte[] pdfBytes = reportPdfService.generateFullReportPdf(fullReport, startDate, endDate, locale);
+    @GetMapping("/jobs/{jobId}/pdf")
+    @PreAuthorize("hasAnyRole('OWNER','MANAGER')")
+    public ResponseEntity<?> downloadReportJobPdf(@PathVariable String jobId) {
+        Optional<ReportJob> job = reportJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (job.get().getStatus() != ReportJob.Status.DONE) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(jobHandle(job.get()));
+        }
+        return pdfResponse(job.get());
+    }
+
+    private ResponseEntity<?> pdfResponse(ReportJob job) {
+        if (job.getStatus() == ReportJob.Status.FAILED) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(jobHandle(job));
+        }
+        Optional<byte[]> pdfBytes = reportJobService.getResult(job);
+        if (pdfBytes.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.GONE).body(jobHandle(job));
+        }
 
-        // 3. Prepare headers for file download
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_PDF);
-        String filename = String.format("SmartRetail_Report_%s_to_%s.pdf", startDate, endDate);
-        headers.setContentDispositionFormData("attachment", filename);
+        headers.setContentDispositionFormData("attachment", ReportJobService.fileName(job));
         headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
 
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(pdfBytes);
+                .body(pdfBytes.get());
+    }
+
+    private ResponseEntity<Map<String, Object>> accepted(ReportJob job) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/reports/jobs/" + job.getId()))
+                .body(jobHandle(job));
+    }
+
+    private ResponseEntity<Map<String, Object>> queueFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(Map.of("error", "Report queue is full, try again shortly"));
+    }
+
+    private Map<String, Object> jobHandle(ReportJob job) {
+        Map<String, Object> handle = new LinkedHashMap<>();
+        handle.put("jobId", job.getId());
+        handle.put("status", job.getStatus());
+        handle.put("startDate", job.getStartDate());
+        handle.put("endDate", job.getEndDate());
+        handle.put("createdAt", job.getCreatedAt());
+        handle.put("completedAt", job.getCompletedAt());
+        handle.put("statusUrl", "/api/reports/jobs/" + job.getId());
+        handle.put("downloadUrl", "/api/reports/jobs/" + job.getId() + "/pdf");
+        if (job.getError() != null) handle.put("error", job.getError());
+        return handle;
+    }
+
+    private static String currentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : null;
     }
-}
\ No newline at end of file
+}
@@ -4,6 +4,8 @@ import com.smartretail.backend.models.Bill;
 import com.smartretail.backend.models.Product;
 import com.smartretail.backend.service.BillService;
 import com.smartretail.backend.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.Setter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,10 +24,12 @@ public class SyncController {
     private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
     private final BillService billService;
     private final ProductService productService;
+    private final MeterRegistry meterRegistry;
 
-    public SyncController(BillService billService, ProductService productService) {
+    public SyncController(BillService billService, ProductService productService, MeterRegistry meterRegistry) {
         this.billService = billService;
         this.productService = productService;
+        this.meterRegistry = meterRegistry;
     }
 
     @PostMapping("/pending")
@@ -35,6 +39,7 @@ public class SyncController {
             @RequestHeader(value = "Accept-Language", defaultValue = "en") Locale locale) {
         logger.debug("[SYNC CONTROLLER] Processing sync request with {} bills and {} inventory updates",
                 syncRequest.getBills().size(), syncRequest.getInventoryUpdates().size());
+        Timer.Sample sample = Timer.start(meterRegistry);
 
         List<String> processedBillIds = new ArrayList<>();
         List<String> processedProductIds = new ArrayList<>();
@@ -45,10 +50,12 @@ public class SyncController {
             try {
                 Bill savedBill = billService.createBill(bill, locale, true); // true = sync mode
                 processedBillIds.add(savedBill.getBillId());
+                countItem("bill", "success");
                 logger.info("[SYNC CONTROLLER] Successfully synced bill: {}", savedBill.getBillId());
             } catch (Exception e) {
                 logger.error("[SYNC CONTROLLER] Failed to sync bill {}: {}", bill.getBillId(), e.getMessage());
                 errors.add("Bill " + bill.getBillId() + ": " + e.getMessage());
+                countItem("bill", "failure");
             }
         }
 
@@ -58,10 +65,12 @@ public class SyncController {
                 // Use productId instead of id
                 productService.updateProduct(product.getProductId(), product, locale, true); // true = sync mode
                 processedProductIds.add(product.getProductId());
+                countItem("product", "success");
                 logger.info("[SYNC CONTROLLER] Successfully synced product: {}", product.getProductId());
             } catch (Exception e) {
                 logger.error("[SYNC CONTROLLER] Failed to sync product {}: {}", product.getProductId(), e.getMessage());
                 errors.add("Product " + product.getProductId() + ": " + e.getMessage());
+                countItem("product", "failure");
             }
         }
 
@@ -72,9 +81,16 @@ public class SyncController {
                 "message", errors.isEmpty() ? "Sync completed successfully" : "Sync completed with errors"
         );
 
+        sample.stop(Timer.builder("sync.pending")
+                .tag("outcome", errors.isEmpty() ? "success" : "partial")
+                .register(meterRegistry));
         return ResponseEntity.ok(response);
     }
 
+    private void countItem(String type, String outcome) {
+        meterRegistry.counter("sync.items", "type", type, "outcome", outcome).increment();
+    }
+
     // DTO for sync request
     @Setter
     public static class SyncRequest {
@@ -0,0 +1,21 @@
+package com.smartretail.backend.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is null on the last page.
+ */
+@Getter
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final int limit;
+
+    public CursorPage(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+}
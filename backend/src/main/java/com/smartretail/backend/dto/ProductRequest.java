@@ -7,6 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.util.List;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,6 +29,7 @@ public class ProductRequest {
     private String expiryDate;
     private String imageUrl;
     private String supplierEmail;
+    private List<String> barcodes;
 
     // Optional fields with defaults
     private int minQuantity = 5;
@@ -0,0 +1,17 @@
+package com.smartretail.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+@Data
+public class PushBroadcastRequest {
+
+    @NotBlank(message = "Title cannot be empty")
+    private String title;
+
+    @NotBlank(message = "Message cannot be empty")
+    private String message;
+
+    // OWNER, MANAGER or CASHIER; every subscribed device when empty
+    private String role;
+}
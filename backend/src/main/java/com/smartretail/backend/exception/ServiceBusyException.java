@@ -0,0 +1,15 @@
+package com.smartretail.backend.exception;
+
+/** Work was shed because a bounded pool is saturated; answered with 503 and Retry-After. */
+public class ServiceBusyException extends RuntimeException {
+    private final int retryAfterSeconds;
+
+    public ServiceBusyException(String message, int retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
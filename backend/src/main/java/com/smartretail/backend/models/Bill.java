@@ -7,7 +7,6 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 import java.util.List;
-import java.util.UUID;
 
 @Setter
 @Getter
@@ -20,7 +19,6 @@ public class Bill {
     private List<BillItem> items;
     private double totalAmount;
     private Date createdAt;
-    private String pdfAccessToken;
     private String addedBy;
 
     public Bill() {
@@ -46,8 +44,6 @@ public class Bill {
     private void ensureDefaults() {
         if (this.createdAt == null)
             this.createdAt = new Date();
-        if (this.pdfAccessToken == null || this.pdfAccessToken.isEmpty())
-            this.pdfAccessToken = UUID.randomUUID().toString();
     }
 
     @Setter
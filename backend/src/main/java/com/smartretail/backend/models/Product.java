@@ -1,13 +1,16 @@
 package com.smartretail.backend.models;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
+import java.util.List;
 
 @Getter
 @Setter
@@ -34,9 +37,15 @@ public class Product {
     private String imageUrl;                   // public URL
     private String supplierEmail;
     private String addedBy;
+    private List<String> barcodes;             // canonical GTIN-14 or weighed-item prefix; null when none
     private Date lastUpdated;
     private Date createdAt;
 
+    // Set only on copies served from the catalog cache: quantity is as of this time, the DB is authoritative
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Date stockAsOf;
+
     public Product() {
         this.createdAt = new Date();
         this.lastUpdated = new Date();
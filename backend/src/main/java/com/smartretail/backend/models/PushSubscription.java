@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Date;
+
 @Setter
 @Getter
 @Document(collection = "push_subscriptions")
@@ -16,6 +18,8 @@ public class PushSubscription {
     private String endpoint;
     private String p256dh;
     private String auth;
+    private Date createdAt;
+    private Date lastSuccessAt;
 
     // Constructors
     public PushSubscription() {}
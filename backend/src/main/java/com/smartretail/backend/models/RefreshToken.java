@@ -15,15 +15,18 @@ public class RefreshToken {
     @Id
     private String id;
     private String userId;
+    // Plain token; only on records written before tokenHash, which age out via the TTL index
     private String token;
+    private String tokenHash; // SHA-256 hex of the token
     private Date expiryDate;
+    private Date revokedAt;
 
     // Constructors
     public RefreshToken() {}
 
-    public RefreshToken(String userId, String token, Date expiryDate) {
+    public RefreshToken(String userId, String tokenHash, Date expiryDate) {
         this.userId = userId;
-        this.token = token;
+        this.tokenHash = tokenHash;
         this.expiryDate = expiryDate;
     }
 
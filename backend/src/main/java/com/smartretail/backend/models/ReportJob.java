@@ -0,0 +1,49 @@
+package com.smartretail.backend.models;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+@Setter
+@Getter
+@Document(collection = "report_jobs")
+public class ReportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    @Id
+    private String id;
+    private String jobKey;          // hash of the report parameters, shared by duplicate requests
+    private Status status;
+    private String startDate;
+    private String endDate;
+    private int lowStockThreshold;
+    private int expiryDays;
+    private String locale;
+    private Set<String> requestedBy = new LinkedHashSet<>();
+    private String resultFileId;    // GridFS id of the rendered PDF
+    private long resultSize;
+    private String error;
+    private Date createdAt;
+    private Date startedAt;
+    private Date completedAt;
+
+    public ReportJob() {}
+
+    public ReportJob(String jobKey, String startDate, String endDate, int lowStockThreshold,
+                     int expiryDays, String locale) {
+        this.jobKey = jobKey;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.lowStockThreshold = lowStockThreshold;
+        this.expiryDays = expiryDays;
+        this.locale = locale;
+        this.status = Status.QUEUED;
+        this.createdAt = new Date();
+    }
+}
@@ -11,6 +11,7 @@ import java.util.Optional;
 public interface ProductRepository extends MongoRepository<Product, String> {
     Optional<Product> findByProductId(String productId);
     boolean existsByProductId(String productId);
+    Optional<Product> findByBarcodes(String barcode);
     List<Product> findByExpiryDateBefore(Date threshold);
     @Query("{ $expr: { $lt: ['$quantity', '$reorderLevel'] } }")
     List<Product> findLowStockProducts();
@@ -3,8 +3,13 @@ package com.smartretail.backend.repository;
 import com.smartretail.backend.models.PushSubscription;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface PushSubscriptionRepository extends MongoRepository<PushSubscription, String> {
-    Optional<PushSubscription> findByUserId(String userId);
-}
\ No newline at end of file
+    // One per browser/device a user has subscribed from
+    List<PushSubscription> findByUserId(String userId);
+    List<PushSubscription> findByUserIdIn(Collection<String> userIds);
+    List<PushSubscription> findByEndpoint(String endpoint);
+    long deleteByEndpointAndUserId(String endpoint, String userId);
+}
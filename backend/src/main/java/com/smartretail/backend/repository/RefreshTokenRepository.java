@@ -6,6 +6,7 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends MongoRepository<RefreshToken, String> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
     Optional<RefreshToken> findByToken(String token);
     void deleteByUserId(String userId);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.smartretail.backend.repository;
+
+import com.smartretail.backend.models.ReportJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Date;
+import java.util.Optional;
+
+public interface ReportJobRepository extends MongoRepository<ReportJob, String> {
+    Optional<ReportJob> findFirstByJobKeyAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+            String jobKey, ReportJob.Status status, Date completedAfter);
+
+    void deleteByCreatedAtBefore(Date cutoff);
+}
@@ -2,9 +2,11 @@ package com.smartretail.backend.repository;
 
 import com.smartretail.backend.models.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    List<User> findByRole(String role);
 }
\ No newline at end of file
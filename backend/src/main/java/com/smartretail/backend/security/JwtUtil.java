@@ -12,10 +12,13 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    public static final String REFRESH_TYPE = "refresh";
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -43,6 +46,8 @@ public class JwtUtil {
     public String generateRefreshToken(String email) {
         return Jwts.builder()
                 .setSubject(email)
+                .setId(UUID.randomUUID().toString()) // unique even when issued in the same second
+                .claim("typ", REFRESH_TYPE)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expiration * 2)) // 2x expiry
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
@@ -0,0 +1,106 @@
+package com.smartretail.backend.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stateless receipt download tokens: {@code kid.exp.sig}, where {@code sig} is a truncated
+ * HMAC-SHA256 of {@code billId|exp} under the key named {@code kid}. Any node holding the
+ * keys verifies one without a database read.
+ * <p>
+ * Keys come from {@code pdf.token.keys} as {@code kid:base64Secret} pairs; the first signs,
+ * all of them verify, so a new key is rolled out by prepending it and the old one removed
+ * once its tokens have expired. Without configured keys one is derived from the JWT secret.
+ * Expiry is rounded up to a bucket, so the same bill gets the same URL for a while and
+ * edge caches can reuse the response.
+ */
+@Component
+public class PdfAccessTokens {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final Map<String, SecretKeySpec> keys = new LinkedHashMap<>();
+    private final String signingKid;
+    private final long ttlSeconds;
+    private final long bucketSeconds;
+
+    public PdfAccessTokens(@Value("${pdf.token.keys:}") String configuredKeys,
+                           @Value("${pdf.token.ttl-seconds:3600}") long ttlSeconds,
+                           @Value("${pdf.token.bucket-seconds:300}") long bucketSeconds,
+                           @Value("${jwt.secret}") String jwtSecret) {
+        for (String entry : configuredKeys.split(",")) {
+            if (entry.isBlank()) continue;
+            int colon = entry.indexOf(':');
+            if (colon <= 0 || entry.indexOf('.') >= 0) {
+                throw new IllegalArgumentException("pdf.token.keys entries must be kid:base64Secret without dots");
+            }
+            keys.put(entry.substring(0, colon).trim(),
+                    new SecretKeySpec(Base64.getDecoder().decode(entry.substring(colon + 1).trim()), ALGORITHM));
+        }
+        if (keys.isEmpty()) {
+            keys.put("j0", new SecretKeySpec(hmac(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM),
+                    "pdf-access-token"), ALGORITHM));
+        }
+        this.signingKid = keys.keySet().iterator().next();
+        this.ttlSeconds = ttlSeconds;
+        this.bucketSeconds = Math.max(1, bucketSeconds);
+    }
+
+    public String issue(String billId) {
+        long earliest = System.currentTimeMillis() / 1000 + ttlSeconds;
+        long exp = (earliest + bucketSeconds - 1) / bucketSeconds * bucketSeconds;
+        return signingKid + "." + Long.toString(exp, 36) + "." + sign(keys.get(signingKid), billId, exp);
+    }
+
+    /** Signature compared in constant time; unknown keys, bad encodings and expired tokens fail. */
+    public boolean verify(String billId, String token) {
+        if (billId == null || token == null) return false;
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) return false;
+        SecretKeySpec key = keys.get(parts[0]);
+        if (key == null) return false;
+        try {
+            long exp = Long.parseLong(parts[1], 36);
+            if (System.currentTimeMillis() / 1000 > exp) return false;
+            // Compared as text so every signature has exactly one valid spelling
+            byte[] expected = sign(key, billId, exp).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(expected, parts[2].getBytes(StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /** Seconds until {@code token} expires, for cache lifetimes; call only after {@link #verify}. */
+    public static long secondsLeft(String token) {
+        long exp = Long.parseLong(token.split("\\.")[1], 36);
+        return Math.max(0, exp - System.currentTimeMillis() / 1000);
+    }
+
+    private static String sign(SecretKeySpec key, String billId, long exp) {
+        byte[] mac = hmac(key, billId + "|" + exp);
+        byte[] truncated = new byte[SIGNATURE_BYTES];
+        System.arraycopy(mac, 0, truncated, 0, SIGNATURE_BYTES);
+        return B64.encodeToString(truncated);
+    }
+
+    private static byte[] hmac(SecretKeySpec key, String data) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.smartretail.backend.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -7,6 +9,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 // --- NEW IMPORTS ---
 import org.springframework.context.i18n.LocaleContextHolder;
+import java.time.Duration;
 import java.util.Locale;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpEntity;
@@ -17,31 +20,46 @@ import org.springframework.http.ResponseEntity;
 @Service
 public class AnalyticsService {
     private final RestTemplate restTemplate;
+    private final MeterRegistry meterRegistry;
+    private final RequestCoalescer coalescer;
 
     @Value("${flask.base.url:http://localhost:5001}")
     private String flaskBaseUrl;
 
-    public AnalyticsService(RestTemplate restTemplate) {
+    @Value("${analytics.coalesce.result-ttl-seconds:60}")
+    private long resultTtlSeconds;
+
+    public AnalyticsService(RestTemplate restTemplate, MeterRegistry meterRegistry, RequestCoalescer coalescer) {
         this.restTemplate = restTemplate;
+        this.meterRegistry = meterRegistry;
+        this.coalescer = coalescer;
     }
 
     // --- MODIFIED METHOD ---
     public Object getReport(String startDate, String endDate) {
         String url = flaskBaseUrl + "/analytics/report";
-        return getFromFlask(url, startDate, endDate);
+        return getFromFlask(url, "report", startDate, endDate);
     }
 
     // --- MODIFIED METHOD ---
     public Object getTextReport(String startDate, String endDate) {
         String url = flaskBaseUrl + "/analytics/report/text";
-        return getFromFlask(url, startDate, endDate);
+        return getFromFlask(url, "report_text", startDate, endDate);
     }
 
     // --- NEW HELPER METHOD ---
-    private Object getFromFlask(String url, String startDate, String endDate) {
+    private Object getFromFlask(String url, String endpoint, String startDate, String endDate) {
         // 1. Get the locale from the current request
         Locale locale = LocaleContextHolder.getLocale();
 
+        // Identical concurrent calls (same range and language) share one Flask round trip
+        return coalescer.execute("flask." + endpoint, Duration.ofSeconds(resultTtlSeconds),
+                () -> callFlask(url, endpoint, startDate, endDate, locale),
+                startDate, endDate, locale);
+    }
+
+    private Object callFlask(String url, String endpoint, String startDate, String endDate, Locale locale) {
+
         // 2. Build the URL with query params
         UriComponentsBuilder builder = UriComponentsBuilder.fromHttpUrl(url);
         if (startDate != null) builder.queryParam("startDate", startDate);
@@ -55,13 +73,25 @@ public class AnalyticsService {
         HttpEntity<String> entity = new HttpEntity<>(headers);
 
         // 5. Use restTemplate.exchange to send the request with headers
-        ResponseEntity<Object> response = restTemplate.exchange(
-                builder.toUriString(),
-                HttpMethod.GET,
-                entity,
-                Object.class
-        );
-
-        return response.getBody();
+        // Timed per logical endpoint (not per URL) to keep the tag cardinality fixed
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            ResponseEntity<Object> response = restTemplate.exchange(
+                    builder.toUriString(),
+                    HttpMethod.GET,
+                    entity,
+                    Object.class
+            );
+            return response.getBody();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("flask.requests")
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
     }
 }
\ No newline at end of file
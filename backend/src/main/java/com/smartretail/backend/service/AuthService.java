@@ -10,6 +10,9 @@ public interface AuthService {
     LoginResponse login(LoginRequest request);
     User getUserByEmail(String email);
     String refreshToken(String refreshToken);
+    void logout(String refreshToken);
+    // Revokes every refresh token of the token's owner; returns how many
+    long logoutAll(String refreshToken);
 
     // --- ADD THIS NEW METHOD ---
     LoginResponse processOAuth2Login(String email, String name);
@@ -3,40 +3,79 @@ package com.smartretail.backend.service;
 import com.smartretail.backend.dto.LoginRequest;
 import com.smartretail.backend.dto.LoginResponse;
 import com.smartretail.backend.dto.SignupRequest;
+import com.smartretail.backend.exception.ServiceBusyException;
 import com.smartretail.backend.models.RefreshToken;
 import com.smartretail.backend.models.User;
-import com.smartretail.backend.repository.RefreshTokenRepository;
 import com.smartretail.backend.repository.UserRepository;
 import com.smartretail.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 // --- IMPORT THE INTERFACE ---
 import org.springframework.security.crypto.password.PasswordEncoder; 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.Map;
 import java.util.Optional;
 
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
-    private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenStore refreshTokenStore;
     private final JwtUtil jwtUtil;
     // --- USE THE INTERFACE ---
     private final PasswordEncoder passwordEncoder; 
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
+    private static final int RETRY_AFTER_SECONDS = 2;
+    private static final int MAX_RECENT_LOGINS = 1000;
+
+    // BCrypt never runs on request threads; see AsyncExecutorConfig.passwordHashExecutor
+    private final AsyncTaskExecutor hashExecutor;
+    private final MeterRegistry meterRegistry;
+    private final long verifyTimeoutMs;
+    private final long reuseWindowMs;
+    // Recently verified logins by salted credential digest; only this process knows the salt
+    private final Map<String, RecentLogin> recentLogins = new ConcurrentHashMap<>();
+    private final byte[] credentialSalt = new byte[32];
 
     // --- UPDATE THE CONSTRUCTOR ---
     public AuthServiceImpl(UserRepository userRepository,
-                           RefreshTokenRepository refreshTokenRepository,
+                           RefreshTokenStore refreshTokenStore,
                            JwtUtil jwtUtil,
-                           PasswordEncoder passwordEncoder) { // <-- INJECT IT HERE
+                           PasswordEncoder passwordEncoder, // <-- INJECT IT HERE
+                           @Qualifier("passwordHashExecutor") AsyncTaskExecutor hashExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${login.verify.timeout-ms:5000}") long verifyTimeoutMs,
+                           @Value("${login.reuse-window-seconds:30}") long reuseWindowSeconds) {
         this.userRepository = userRepository;
-        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenStore = refreshTokenStore;
         this.jwtUtil = jwtUtil;
         this.passwordEncoder = passwordEncoder; // <-- ASSIGN THE INJECTED BEAN
+        this.hashExecutor = hashExecutor;
+        this.meterRegistry = meterRegistry;
+        this.verifyTimeoutMs = verifyTimeoutMs;
+        this.reuseWindowMs = reuseWindowSeconds * 1000;
+        new SecureRandom().nextBytes(credentialSalt);
     }
 
     @Override
@@ -57,21 +96,101 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found: " + request.getEmail()));
 
-        // This check will now work
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // Double-submits and tabs re-logging in at shift change skip BCrypt entirely,
+        // unless the password was changed since they were verified
+        String credentialKey = credentialKey(request.getEmail(), request.getPassword());
+        RecentLogin recent = recentLogins.get(credentialKey);
+        if (recent != null && recent.expiresAt() > System.currentTimeMillis()
+                && recent.passwordHash().equals(user.getPassword())
+                && !refreshTokenStore.isRevoked(recent.response().getRefreshToken())) {
+            count("reused");
+            return recent.response();
+        }
+
+        if (!verifyPassword(request.getPassword(), user)) {
+            count("invalid");
             throw new RuntimeException("Invalid password");
         }
+        count("verified");
 
         String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole());
         String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
 
-        refreshTokenRepository.save(
-                new RefreshToken(user.getId(), refreshToken,
-                        new Date(System.currentTimeMillis() + jwtUtil.getExpiration() * 2))
-        );
+        refreshTokenStore.save(user.getId(), refreshToken,
+                new Date(System.currentTimeMillis() + jwtUtil.getExpiration() * 2));
 
-        return new LoginResponse(accessToken, refreshToken);
+        LoginResponse response = new LoginResponse(accessToken, refreshToken);
+        remember(credentialKey, user.getPassword(), response);
+        return response;
+    }
+
+    /**
+     * Checks the password on the hashing pool, waiting at most {@code login.verify.timeout-ms}.
+     * A hash with an outdated cost factor is re-encoded while the plain password is at hand.
+     *
+     * @throws ServiceBusyException when the pool's queue is full or the check times out
+     */
+    private boolean verifyPassword(String rawPassword, User user) {
+        if (user.getPassword() == null) return false; // OAuth-only account
+        Future<Boolean> check;
+        try {
+            check = hashExecutor.submit(() -> {
+                if (!passwordEncoder.matches(rawPassword, user.getPassword())) return false;
+                if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+                    user.setPassword(passwordEncoder.encode(rawPassword));
+                    userRepository.save(user);
+                    logger.info("[AUTH] Upgraded password hash for {}", user.getEmail());
+                }
+                return true;
+            });
+        } catch (TaskRejectedException e) {
+            count("rejected");
+            logger.warn("[AUTH] Login queue full, rejected {}", user.getEmail());
+            throw new ServiceBusyException("Too many logins in progress, please retry", RETRY_AFTER_SECONDS);
+        }
+        try {
+            return check.get(verifyTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            check.cancel(true);
+            count("timeout");
+            throw new ServiceBusyException("Login is taking too long, please retry", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Login interrupted, please retry", RETRY_AFTER_SECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Login failed: " + e.getCause().getMessage(), e.getCause());
+        }
     }
+
+    private void remember(String credentialKey, String passwordHash, LoginResponse response) {
+        if (reuseWindowMs <= 0) return;
+        long now = System.currentTimeMillis();
+        if (recentLogins.size() >= MAX_RECENT_LOGINS) {
+            recentLogins.values().removeIf(r -> r.expiresAt() <= now);
+            if (recentLogins.size() >= MAX_RECENT_LOGINS) recentLogins.clear();
+        }
+        recentLogins.put(credentialKey, new RecentLogin(response, passwordHash, now + reuseWindowMs));
+    }
+
+    // SHA-256 is fine here: the key never leaves memory and the salt dies with the process
+    private String credentialKey(String email, String password) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(credentialSalt);
+            digest.update(String.valueOf(email).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(String.valueOf(password).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("auth.logins", "result", result).increment();
+    }
+
+    private record RecentLogin(LoginResponse response, String passwordHash, long expiresAt) {}
     
     @Transactional
     @Override
@@ -106,12 +225,10 @@ public class AuthServiceImpl implements AuthService {
         String accessToken = jwtUtil.generateToken(user.getEmail(), user.getRole());
         String refreshToken = jwtUtil.generateRefreshToken(user.getEmail());
 
-        // Save refresh token
-        refreshTokenRepository.deleteByUserId(user.getId());
-        refreshTokenRepository.save(
-            new RefreshToken(user.getId(), refreshToken,
-                    new Date(System.currentTimeMillis() + jwtUtil.getExpiration() * 2))
-        );
+        // Save refresh token; sessions elsewhere are signed out
+        refreshTokenStore.revokeAll(user.getId());
+        refreshTokenStore.save(user.getId(), refreshToken,
+                new Date(System.currentTimeMillis() + jwtUtil.getExpiration() * 2));
 
         return new LoginResponse(accessToken, refreshToken);
     }
@@ -124,17 +241,50 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public String refreshToken(String refreshToken) {
-        RefreshToken storedToken = refreshTokenRepository.findByToken(refreshToken)
-                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+        User user = verifiedUser(refreshToken);
+        return jwtUtil.generateToken(user.getEmail(), user.getRole());
+    }
+
+    @Override
+    public void logout(String refreshToken) {
+        verifiedUser(refreshToken);
+        refreshTokenStore.revoke(refreshToken);
+    }
 
-        if (storedToken.getExpiryDate().before(new Date())) {
-            refreshTokenRepository.deleteById(storedToken.getId());
+    @Override
+    public long logoutAll(String refreshToken) {
+        User user = verifiedUser(refreshToken);
+        long revoked = refreshTokenStore.revokeAll(user.getId());
+        logger.info("[AUTH] Revoked {} refresh tokens of {}", revoked, user.getEmail());
+        return revoked;
+    }
+
+    /**
+     * Signature and expiry come from the JWT itself; revocation from the in-memory filter,
+     * so a typical refresh reads only the user. Untyped tokens predate the filter and are
+     * still checked against their stored record.
+     */
+    private User verifiedUser(String refreshToken) {
+        Claims claims;
+        try {
+            claims = jwtUtil.validateToken(refreshToken);
+        } catch (ExpiredJwtException e) {
             throw new RuntimeException("Refresh token expired");
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid refresh token");
         }
 
-        User user = userRepository.findById(storedToken.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found: " + storedToken.getUserId()));
+        if (JwtUtil.REFRESH_TYPE.equals(claims.get("typ"))) {
+            if (refreshTokenStore.isRevoked(refreshToken)) {
+                throw new RuntimeException("Refresh token revoked");
+            }
+        } else {
+            RefreshToken stored = refreshTokenStore.find(refreshToken)
+                    .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
+            if (stored.getRevokedAt() != null) throw new RuntimeException("Refresh token revoked");
+        }
 
-        return jwtUtil.generateToken(user.getEmail(), user.getRole());
+        return userRepository.findByEmail(claims.getSubject())
+                .orElseThrow(() -> new RuntimeException("User not found: " + claims.getSubject()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,305 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Product;
+import com.smartretail.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Barcode to productId lookup for scanning tills. GTIN-8/12/13/14 codes are stored as
+ * zero-padded GTIN-14 and keyed in memory by their numeric value, so a scan is one
+ * probe in a primitive long table. Weighed items are registered by their 7-digit
+ * in-store prefix ("2x" + item code); scans of those carry a price or weight in the
+ * next five digits.
+ */
+@Component
+public class BarcodeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BarcodeIndex.class);
+
+    public enum Type { GTIN, WEIGHED_PRICE, WEIGHED_WEIGHT }
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> pricePrefixes;
+    private final Set<String> weightPrefixes;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private LongToStringMap codes = new LongToStringMap(1024);
+    // productId -> keys currently registered for it, to unindex on change
+    private final Map<String, Registered> byProduct = new HashMap<>();
+
+    public BarcodeIndex(ProductRepository productRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${barcode.weighed.price-prefixes:20,21,22}") List<String> pricePrefixes,
+                        @Value("${barcode.weighed.weight-prefixes:23,24,25,26,27,28,29}") List<String> weightPrefixes) {
+        this.productRepository = productRepository;
+        this.meterRegistry = meterRegistry;
+        this.pricePrefixes = Set.copyOf(pricePrefixes);
+        this.weightPrefixes = Set.copyOf(weightPrefixes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        Thread worker = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("[BARCODE] Initial index build failed: {}", e.getMessage(), e);
+            }
+        }, "barcode-index");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void rebuild() {
+        List<Product> products = productRepository.findAll();
+        lock.writeLock().lock();
+        try {
+            codes = new LongToStringMap(Math.max(1024, products.size() * 2));
+            byProduct.clear();
+            for (Product p : products) register(p);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("[BARCODE] Indexed {} barcodes", codes.size());
+    }
+
+    /* ------------------- MAINTENANCE ------------------- */
+    public void index(Product product) {
+        if (product == null || product.getProductId() == null) return;
+        lock.writeLock().lock();
+        try {
+            unregister(product.getProductId());
+            register(product);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            unregister(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void refresh(String productId) {
+        Optional<Product> product = productRepository.findByProductId(productId);
+        if (product.isPresent()) index(product.get());
+        else remove(productId);
+    }
+
+    public void removeByDocumentId(String documentId) {
+        lock.writeLock().lock();
+        try {
+            byProduct.entrySet().stream()
+                    .filter(e -> documentId.equals(e.getValue().documentId()))
+                    .map(Map.Entry::getKey).findFirst()
+                    .ifPresent(this::unregister);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* ------------------- LOOKUP ------------------- */
+    /**
+     * Decodes a scanned code and finds its product.
+     *
+     * @return empty if no product carries the code
+     * @throws IllegalArgumentException if the code is not a valid GTIN or weighed-item code
+     */
+    public Optional<Match> resolve(String scanned) {
+        Scan scan = decode(scanned);
+        if (scan == null) {
+            count("invalid");
+            throw new IllegalArgumentException(scanned);
+        }
+
+        String productId;
+        lock.readLock().lock();
+        try {
+            productId = codes.get(scan.key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (productId == null) {
+            // Covers the window before the startup build finishes; the unique index keeps this cheap
+            productId = productRepository.findByBarcodes(scan.canonical).map(Product::getProductId).orElse(null);
+        }
+        count(productId != null ? "hit" : "miss");
+        return Optional.ofNullable(productId).map(id -> new Match(id, scan.type, scan.embeddedValue));
+    }
+
+    /**
+     * Canonical stored form of a barcode: GTIN-14 for retail codes, the 7-digit prefix
+     * for weighed items. Returns null when the code is invalid.
+     */
+    public String canonical(String raw) {
+        if (raw == null) return null;
+        String digits = raw.replaceAll("[\\s-]", "");
+        if (!digits.matches("\\d+")) return null;
+        if (digits.length() == 7 && isWeighedPrefix(digits.substring(0, 2))) return digits;
+        if (!(digits.length() == 8 || digits.length() == 12 || digits.length() == 13 || digits.length() == 14)) return null;
+        if (!checkDigitValid(digits)) return null;
+        return "0".repeat(14 - digits.length()) + digits;
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    Scan decode(String raw) {
+        if (raw == null) return null;
+        String digits = raw.replaceAll("[\\s-]", "");
+        if (digits.length() == 13 && digits.matches("\\d+") && isWeighedPrefix(digits.substring(0, 2))) {
+            if (!checkDigitValid(digits)) return null;
+            String itemCode = digits.substring(0, 7);
+            int value = Integer.parseInt(digits.substring(7, 12));
+            Type type = pricePrefixes.contains(digits.substring(0, 2)) ? Type.WEIGHED_PRICE : Type.WEIGHED_WEIGHT;
+            return new Scan(itemCode, weighedKey(itemCode), type, value);
+        }
+        String canonical = canonical(digits);
+        if (canonical == null || canonical.length() != 14) return null;
+        return new Scan(canonical, Long.parseLong(canonical), Type.GTIN, null);
+    }
+
+    private boolean isWeighedPrefix(String prefix) {
+        return pricePrefixes.contains(prefix) || weightPrefixes.contains(prefix);
+    }
+
+    /** GS1 mod-10: weights 3,1,3,... from the digit left of the check digit. */
+    static boolean checkDigitValid(String digits) {
+        int sum = 0;
+        for (int i = digits.length() - 2, w = 3; i >= 0; i--, w = 4 - w) {
+            sum += (digits.charAt(i) - '0') * w;
+        }
+        return (10 - sum % 10) % 10 == digits.charAt(digits.length() - 1) - '0';
+    }
+
+    // Weighed item codes share the numeric range of short GTINs, so they live below zero
+    private static long weighedKey(String itemCode) {
+        return -Long.parseLong(itemCode) - 1;
+    }
+
+    private static long key(String canonical) {
+        return canonical.length() == 7 ? weighedKey(canonical) : Long.parseLong(canonical);
+    }
+
+    private void register(Product p) {
+        if (p.getBarcodes() == null || p.getBarcodes().isEmpty()) return;
+        long[] keys = new long[p.getBarcodes().size()];
+        int n = 0;
+        for (String code : p.getBarcodes()) {
+            String canonical = canonical(code);
+            if (canonical == null) continue;
+            keys[n++] = key(canonical);
+            codes.put(keys[n - 1], p.getProductId());
+        }
+        byProduct.put(p.getProductId(), new Registered(p.getId(), Arrays.copyOf(keys, n)));
+    }
+
+    private void unregister(String productId) {
+        Registered previous = byProduct.remove(productId);
+        if (previous == null) return;
+        for (long k : previous.keys()) {
+            if (productId.equals(codes.get(k))) codes.remove(k);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("barcode.scans", "result", result).increment();
+    }
+
+    public record Match(String productId, Type type, Integer embeddedValue) {}
+
+    record Scan(String canonical, long key, Type type, Integer embeddedValue) {}
+
+    private record Registered(String documentId, long[] keys) {}
+
+    /** Open-addressing long -> String table with linear probing; not thread-safe on its own. */
+    static final class LongToStringMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys;
+        private String[] values;
+        private int size;
+
+        LongToStringMap(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(16, expected * 2) - 1) << 1;
+            keys = new long[capacity];
+            values = new String[capacity];
+            Arrays.fill(keys, EMPTY);
+        }
+
+        String get(long key) {
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (keys[i] == EMPTY) return null;
+                if (keys[i] == key) return values[i];
+            }
+        }
+
+        void put(long key, String value) {
+            if ((size + 1) * 2 > keys.length) resize();
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != EMPTY && keys[i] != key) i = (i + 1) & mask;
+            if (keys[i] == EMPTY) size++;
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        void remove(long key) {
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) return;
+                i = (i + 1) & mask;
+            }
+            // Backward-shift deletion keeps probe chains intact without tombstones
+            int gap = i;
+            for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = slot(keys[j], mask);
+                boolean movable = gap <= j ? (home <= gap || home > j) : (home <= gap && home > j);
+                if (movable) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            keys[gap] = EMPTY;
+            values[gap] = null;
+            size--;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new String[oldKeys.length * 2];
+            Arrays.fill(keys, EMPTY);
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static int slot(long key, int mask) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import com.smartretail.backend.models.Product;
 import com.smartretail.backend.repository.BillRepository;
 import com.smartretail.backend.repository.CustomerRepository;
 import com.smartretail.backend.repository.ProductRepository;
+import com.smartretail.backend.security.PdfAccessTokens;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
@@ -14,6 +17,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class BillServiceImpl implements BillService {
@@ -24,26 +28,32 @@ public class BillServiceImpl implements BillService {
     private final ProductRepository productRepository;
     private final ProductService productService;
     private final NotificationService notificationService;
-    private final PdfService pdfService;
+    private final ReceiptPdfCache receiptPdfCache;
     private final MessageSource messageSource;
     private final AuditLogService auditLogService;
+    private final MeterRegistry meterRegistry;
+    private final PdfAccessTokens pdfAccessTokens;
 
     public BillServiceImpl(BillRepository billRepository,
                            CustomerRepository customerRepository,
                            ProductRepository productRepository,
                            ProductService productService,
                            NotificationService notificationService,
-                           PdfService pdfService,
+                           ReceiptPdfCache receiptPdfCache,
                            MessageSource messageSource,
-                           AuditLogService auditLogService) {
+                           AuditLogService auditLogService,
+                           MeterRegistry meterRegistry,
+                           PdfAccessTokens pdfAccessTokens) {
         this.billRepository = billRepository;
         this.customerRepository = customerRepository;
         this.productRepository = productRepository;
         this.productService = productService;
         this.notificationService = notificationService;
-        this.pdfService = pdfService;
+        this.receiptPdfCache = receiptPdfCache;
         this.messageSource = messageSource;
         this.auditLogService = auditLogService;
+        this.meterRegistry = meterRegistry;
+        this.pdfAccessTokens = pdfAccessTokens;
     }
 
     @Override
@@ -81,6 +91,9 @@ public class BillServiceImpl implements BillService {
         }
 
         // ✅ Recalculate totalAmount based on product prices from DB
+        long checkoutStart = System.nanoTime();
+        long resolveNanos = 0;
+        long stockNanos = 0;
         double total = 0.0;
         if (bill.getItems() == null || bill.getItems().isEmpty()) {
             logger.warn("[BILL SERVICE] Bill {} has no items!", bill.getBillId());
@@ -91,7 +104,9 @@ public class BillServiceImpl implements BillService {
                     continue;
                 }
 
+                long stageStart = System.nanoTime();
                 Product product = productService.getProductById(item.getProductId(), locale);
+                resolveNanos += System.nanoTime() - stageStart;
                 if (product == null) {
                     logger.error("[BILL SERVICE] Product not found for ID: {}", item.getProductId());
                     continue;
@@ -106,9 +121,13 @@ public class BillServiceImpl implements BillService {
                 logger.debug("[BILL SERVICE] {} × {} = {}", product.getName(), item.getQty(), itemTotal);
 
                 // ✅ Update stock after sale
+                stageStart = System.nanoTime();
                 productService.updateProductQuantity(item.getProductId(), item.getQty(), locale);
+                stockNanos += System.nanoTime() - stageStart;
             }
         }
+        recordStage("product_resolve", resolveNanos);
+        recordStage("stock_update", stockNanos);
 
         // ✅ Calculate total again using built-in method (redundancy check)
         double computedTotal = bill.calculateTotal();
@@ -117,15 +136,10 @@ public class BillServiceImpl implements BillService {
         bill.setTotalAmount(total);
         bill.setCreatedAt(new Date());
 
-        // ✅ Generate PDF access token using the new method
-        if (bill.getPdfAccessToken() == null || bill.getPdfAccessToken().trim().isEmpty()) {
-            bill.setPdfAccessToken(generatePdfAccessToken(bill.getBillId()));
-            logger.debug("[BILL SERVICE] Generated new PDF access token for {}", bill.getBillId());
-        }
-
         logger.debug("[BILL SERVICE] Final total for bill {} = ₹{}", bill.getBillId(), total);
 
         // ✅ Customer management
+        long customerStart = System.nanoTime();
         Customer customer = customerRepository.findByMobile(bill.getCustomer().getMobile())
                 .orElseGet(() -> {
                     return new Customer(
@@ -145,13 +159,21 @@ public class BillServiceImpl implements BillService {
         }
 
         customerRepository.save(customer);
+        recordStage("customer_update", System.nanoTime() - customerStart);
 
         // ✅ Save Bill
+        long saveStart = System.nanoTime();
         Bill savedBill = billRepository.save(bill);
 
         // ✅ Recalculate and persist totalAmount again
         savedBill.setTotalAmount(savedBill.calculateTotal());
         savedBill = billRepository.save(savedBill);
+        recordStage("save", System.nanoTime() - saveStart);
+
+        // Sync mode may overwrite an existing bill; online mode rejected duplicates above
+        if (isSyncMode) {
+            receiptPdfCache.invalidate(savedBill.getBillId());
+        }
 
         logger.info("[BILL SERVICE] Bill {} saved successfully with total ₹{}", savedBill.getBillId(), savedBill.getTotalAmount());
 
@@ -164,7 +186,11 @@ public class BillServiceImpl implements BillService {
         // ✅ Optional: Send PDF + Email
         try {
             if (bill.getCustomer().getEmail() != null && !bill.getCustomer().getEmail().isBlank()) {
-                byte[] pdfContent = pdfService.generateBillPdf(savedBill, locale);
+                long pdfStart = System.nanoTime();
+                byte[] pdfContent = receiptPdfCache.get(savedBill, locale).bytes();
+                recordStage("pdf", System.nanoTime() - pdfStart);
+
+                long emailStart = System.nanoTime();
                 notificationService.sendBillNotification(
                         bill.getCustomer().getEmail(),
                         savedBill.getBillId(),
@@ -172,15 +198,32 @@ public class BillServiceImpl implements BillService {
                         pdfContent,
                         locale
                 );
+                recordStage("email", System.nanoTime() - emailStart);
                 logger.info("[BILL SERVICE] Email sent for bill {}", savedBill.getBillId());
             }
         } catch (Exception e) {
+            meterRegistry.counter("checkout.email.failures").increment();
             logger.error("[BILL SERVICE] Failed to send email for bill {}: {}", savedBill.getBillId(), e.getMessage());
         }
 
+        Timer.builder("checkout.bill")
+                .tag("mode", isSyncMode ? "sync" : "online")
+                .register(meterRegistry)
+                .record(System.nanoTime() - checkoutStart, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("checkout.items", "mode", isSyncMode ? "sync" : "online")
+                .increment(savedBill.getItems() != null ? savedBill.getItems().size() : 0);
+
         return savedBill;
     }
 
+    // Per-stage checkout latency, exported as checkout_stage_seconds{stage=...}
+    private void recordStage(String stage, long nanos) {
+        Timer.builder("checkout.stage")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
     @Override
     public Bill getBillById(String billId, Locale locale) {
         return billRepository.findByBillId(billId)
@@ -199,34 +242,15 @@ public class BillServiceImpl implements BillService {
 
     @Override
     public boolean validatePdfAccessToken(String billId, String token) {
-        try {
-            // Token format: billId|randomUuid|exp (e.g. "B123|uuid|1734000000")
-            String[] parts = token.split("\\|");
-            if (parts.length != 3) return false;
-            if (!parts[0].equals(billId)) return false;
-
-            long exp = Long.parseLong(parts[2]);
-            if (System.currentTimeMillis() > exp * 1000) {
-                logger.warn("[BILL SERVICE] PDF token expired for bill: {}", billId);
-                return false;
-            }
-
-            // Optional: You could add signature verification here if needed
-            return true;
-        } catch (Exception e) {
-            logger.error("[BILL SERVICE] Invalid PDF token format for bill {}: {}", billId, e.getMessage());
-            return false;
-        }
+        boolean valid = pdfAccessTokens.verify(billId, token);
+        if (!valid) logger.warn("[BILL SERVICE] Rejected PDF token for bill {}", billId);
+        return valid;
     }
 
-    /**
-     * Generate a short-lived PDF access token
-     * Format: billId|randomUuid|expirationTimestamp
-     */
+    /** Short-lived signed download token; see {@link PdfAccessTokens}. Nothing is stored. */
+    @Override
     public String generatePdfAccessToken(String billId) {
-        String uuid = UUID.randomUUID().toString();
-        long exp = System.currentTimeMillis() / 1000 + 3600; // 1 hour expiration
-        return billId + "|" + uuid + "|" + exp;
+        return pdfAccessTokens.issue(billId);
     }
 
     @Override
@@ -237,7 +261,7 @@ public class BillServiceImpl implements BillService {
     @Override
     public void resendBillEmail(Bill bill, Locale locale) {
         try {
-            byte[] pdfContent = pdfService.generateBillPdf(bill, locale);
+            byte[] pdfContent = receiptPdfCache.get(bill, locale).bytes();
             notificationService.sendBillNotification(
                     bill.getCustomer().getEmail(),
                     bill.getBillId(),
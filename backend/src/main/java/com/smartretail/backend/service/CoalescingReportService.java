@@ -0,0 +1,64 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.dto.FullReportResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Front for {@link ReportServiceImpl} that lets simultaneous dashboard loads share
+ * one aggregation per distinct report request. Shared results are read-only: report maps come
+ * back unmodifiable, and each caller gets its own {@link FullReportResponse}.
+ */
+@Service
+@Primary
+public class CoalescingReportService implements ReportService {
+
+    private final ReportService delegate;
+    private final RequestCoalescer coalescer;
+    private final Duration resultTtl;
+
+    public CoalescingReportService(@Qualifier("reportServiceImpl") ReportService delegate,
+                                   RequestCoalescer coalescer,
+                                   @Value("${reports.coalesce.result-ttl-seconds:30}") long resultTtlSeconds) {
+        this.delegate = delegate;
+        this.coalescer = coalescer;
+        this.resultTtl = Duration.ofSeconds(resultTtlSeconds);
+    }
+
+    @Override
+    public Map<String, Object> getSalesReport(Date startDate, Date endDate, Locale locale) {
+        return coalescer.execute("report.sales", resultTtl,
+                () -> Collections.unmodifiableMap(delegate.getSalesReport(startDate, endDate, locale)),
+                startDate, endDate, locale);
+    }
+
+    @Override
+    public Map<String, Object> getInventoryReport(int lowStockThreshold, int expiryDays, Locale locale) {
+        return coalescer.execute("report.inventory", resultTtl,
+                () -> Collections.unmodifiableMap(delegate.getInventoryReport(lowStockThreshold, expiryDays, locale)),
+                lowStockThreshold, expiryDays, locale);
+    }
+
+    @Override
+    public FullReportResponse getFullReportData(String startDate, String endDate, int lowStockThreshold, int expiryDays, Locale locale) {
+        FullReportResponse shared = coalescer.execute("report.full", resultTtl,
+                () -> delegate.getFullReportData(startDate, endDate, lowStockThreshold, expiryDays, locale),
+                startDate, endDate, lowStockThreshold, expiryDays, locale);
+        return new FullReportResponse(readOnly(shared.getSalesReport()), readOnly(shared.getTextSummary()),
+                shared.getInventoryReport() == null ? null : Collections.unmodifiableMap(shared.getInventoryReport()));
+    }
+
+    /** Flask's JSON arrives as maps; anything else it returns is immutable already. */
+    @SuppressWarnings("unchecked")
+    private static Object readOnly(Object report) {
+        return report instanceof Map<?, ?> map ? Collections.unmodifiableMap((Map<Object, Object>) map) : report;
+    }
+}
@@ -0,0 +1,216 @@
+package com.smartretail.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.opencsv.CSVWriter;
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.models.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Bulk exports that stream straight from a Mongo cursor to the response, one document
+ * at a time, so memory stays flat however many rows are exported.
+ * An {@link Export} is validated when it is built, before any byte is written.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+    private static final TypeReference<Map<String, Object>> MAP = new TypeReference<>() {};
+
+    static final List<String> BILL_COLUMNS = List.of("billId", "createdAt", "addedBy", "customer", "items", "totalAmount");
+    static final List<String> PRODUCT_COLUMNS = List.of("productId", "name", "category", "price", "quantity",
+            "minQuantity", "reorderLevel", "expiryDate", "barcodes", "supplierEmail", "lastUpdated");
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public static Format parse(String value) {
+            for (Format f : values()) {
+                if (f.extension.equalsIgnoreCase(value) || f.name().equalsIgnoreCase(value)) return f;
+            }
+            throw new IllegalArgumentException("Unsupported export format '" + value + "'; expected ndjson or csv");
+        }
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    public ExportService(MongoTemplate mongoTemplate,
+                         ObjectMapper objectMapper,
+                         MeterRegistry meterRegistry,
+                         @Value("${export.cursor-batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /* ------------------- EXPORTS ------------------- */
+    /** Bills created between {@code from} and {@code to} (inclusive days), oldest first. */
+    public Export bills(Format format, Date from, Date to, String fields) {
+        List<Criteria> filters = new ArrayList<>();
+        ListingService.range(filters, "createdAt", from, to);
+        return prepare(Bill.class, "bills", filters, "createdAt", BILL_COLUMNS, fields, format, from, to);
+    }
+
+    /** Products, optionally limited to one category and to those updated in a date range. */
+    public Export products(Format format, String category, Date from, Date to, String fields) {
+        List<Criteria> filters = new ArrayList<>();
+        if (category != null && !category.isBlank()) filters.add(Criteria.where("category").is(category));
+        ListingService.range(filters, "lastUpdated", from, to);
+        return prepare(Product.class, "products", filters, "productId", PRODUCT_COLUMNS, fields, format, from, to);
+    }
+
+    private <T> Export prepare(Class<T> type, String name, List<Criteria> filters, String sortField,
+                               List<String> defaults, String requested, Format format, Date from, Date to) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        String idField = entity.getRequiredIdProperty().getName();
+        List<String> selected = ListingService.fields(entity, requested);
+        List<String> columns = selected == null ? defaults : withId(idField, selected);
+
+        Query query = filters.isEmpty() ? new Query() : new Query(new Criteria().andOperator(filters));
+        query.with(Sort.by(Sort.Direction.ASC, sortField, idField));
+        columns.forEach(c -> query.fields().include(c));
+        query.cursorBatchSize(batchSize);
+
+        return new Export(type, name, query, columns, format, filename(name, from, to, format));
+    }
+
+    /** A validated export, written once to the response stream. */
+    public final class Export {
+        private final Class<?> type;
+        private final String name;
+        private final Query query;
+        private final List<String> columns;
+        private final Format format;
+        private final String filename;
+
+        private Export(Class<?> type, String name, Query query, List<String> columns, Format format, String filename) {
+            this.type = type;
+            this.name = name;
+            this.query = query;
+            this.columns = columns;
+            this.format = format;
+            this.filename = filename;
+        }
+
+        public Format getFormat() {
+            return format;
+        }
+
+        public String getFilename() {
+            return filename;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+
+        /**
+         * Writes every matching document and flushes; does not close {@code out}.
+         *
+         * @return number of rows written
+         */
+        public long writeTo(OutputStream out) throws IOException {
+            long start = System.currentTimeMillis();
+            long rows = 0;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            CSVWriter csv = format == Format.CSV ? new CSVWriter(writer) : null;
+            if (csv != null) csv.writeNext(columns.toArray(String[]::new), false);
+
+            try (Stream<?> stream = mongoTemplate.stream(query, type)) {
+                Iterator<?> it = stream.iterator();
+                while (it.hasNext()) {
+                    Map<String, Object> row = objectMapper.convertValue(it.next(), MAP);
+                    if (csv != null) {
+                        csv.writeNext(cells(row), false);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(select(row)));
+                        writer.write('\n');
+                    }
+                    rows++;
+                }
+            } finally {
+                meterRegistry.counter("export.rows", "entity", name, "format", format.extension).increment(rows);
+            }
+            if (csv != null) csv.flush();
+            writer.flush();
+            logger.info("[EXPORT] Streamed {} {} as {} in {} ms", rows, name, format, System.currentTimeMillis() - start);
+            return rows;
+        }
+
+        private Map<String, Object> select(Map<String, Object> row) {
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (String c : columns) out.put(c, row.get(c));
+            return out;
+        }
+
+        private String[] cells(Map<String, Object> row) throws IOException {
+            String[] cells = new String[columns.size()];
+            for (int i = 0; i < cells.length; i++) {
+                Object v = row.get(columns.get(i));
+                // Nested customer / items go into one cell as JSON
+                cells[i] = v == null ? "" : v instanceof Map || v instanceof Collection
+                        ? objectMapper.writeValueAsString(v)
+                        : v instanceof String text ? neutralise(text) : v.toString();
+            }
+            return cells;
+        }
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    /**
+     * Excel and Sheets evaluate a cell starting with one of these as a formula, so a product or
+     * customer name like {@code =HYPERLINK(...)} would run when the export is opened. Text only:
+     * numbers such as a negative amount are left alone.
+     */
+    static String neutralise(String text) {
+        return !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0 ? "'" + text : text;
+    }
+
+    private static List<String> withId(String idField, List<String> fields) {
+        List<String> columns = new ArrayList<>();
+        columns.add(idField);
+        for (String f : fields) if (!f.equals(idField)) columns.add(f);
+        return columns;
+    }
+
+    private static String filename(String name, Date from, Date to, Format format) {
+        SimpleDateFormat day = new SimpleDateFormat("yyyyMMdd");
+        StringBuilder sb = new StringBuilder(name);
+        if (from != null) sb.append('-').append(day.format(from));
+        if (to != null) sb.append(from != null ? "_" : "-to-").append(day.format(to));
+        return sb.append('.').append(format.extension).toString();
+    }
+}
@@ -1,10 +1,37 @@
 package com.smartretail.backend.service;
 
+import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.util.Map;
+import java.util.Optional;
 
 public interface FileService {
-    String uploadImage(MultipartFile file, String fileName) throws IOException;
-    Map<String, Object> getImage(String imageId);
-}
\ No newline at end of file
+    /**
+     * Stores a product image and records {@code productId} as a reference to it. Content
+     * already stored is not stored twice: the existing file's id is returned instead.
+     */
+    String storeProductImage(MultipartFile file, String productId) throws IOException;
+
+    /** Drops a product's reference; unreferenced files are reclaimed later by the sweeper. */
+    void releaseProductImage(String imageId, String productId);
+
+    /** Empty when no such image exists (including malformed ids). */
+    default Optional<StoredImage> findImage(String imageId) {
+        return findImage(imageId, null);
+    }
+
+    /**
+     * The given rendition of an image, or the original when {@code size} is null. Until the
+     * rendition has been generated the original is returned with {@code exact == false}.
+     */
+    Optional<StoredImage> findImage(String imageId, ImageRenditionService.Size size);
+
+    /**
+     * An image ready to be written to a response. Reading {@code resource} streams from
+     * GridFS (a fresh download per read, so ranges work) unless the image was small enough to keep in memory.
+     *
+     * @param etag  quoted strong validator; file ids are never reused, so the served file's id serves
+     * @param exact false while a requested rendition is not ready and the original stands in
+     */
+    record StoredImage(String id, String contentType, long length, String etag, Resource resource, boolean exact) {}
+}
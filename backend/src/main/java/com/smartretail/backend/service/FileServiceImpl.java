@@ -1,11 +1,22 @@
 package com.smartretail.backend.service;
 
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.gridfs.GridFSBucket;
 import com.mongodb.client.gridfs.model.GridFSFile;
-import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
@@ -14,49 +25,250 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
 
+/**
+ * Product images in GridFS. Uploads are hashed while they stream in; identical content is
+ * kept once (unique {@code metadata.contentHash}) and shared through {@code metadata.productRefs}.
+ * Files whose last reference is released are reclaimed by {@link GridFsSweeper}.
+ */
 @Service
 public class FileServiceImpl implements FileService {
 
+    static final String KIND = "product-image";
+    static final String FILES = "fs.files";
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
     private final GridFsTemplate gridFsTemplate;
     private final GridFSBucket gridFSBucket;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ImageRenditionService renditionService;
+    private final long hotMaxBytes;
+    private final long hotMaxEntryBytes;
+
+    // Small, frequently served images (catalog thumbnails); access-ordered LRU guarded by "this"
+    private final LinkedHashMap<String, HotImage> hot = new LinkedHashMap<>(64, 0.75f, true);
+    private long hotBytes;
 
     @Autowired
-    public FileServiceImpl(GridFsTemplate gridFsTemplate, GridFSBucket gridFSBucket) {
+    public FileServiceImpl(GridFsTemplate gridFsTemplate,
+                           GridFSBucket gridFSBucket,
+                           MongoTemplate mongoTemplate,
+                           MeterRegistry meterRegistry,
+                           ImageRenditionService renditionService,
+                           @Value("${image.cache.max-bytes:16777216}") long hotMaxBytes,
+                           @Value("${image.cache.max-entry-bytes:262144}") long hotMaxEntryBytes) {
         this.gridFsTemplate = gridFsTemplate;
         this.gridFSBucket = gridFSBucket;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.renditionService = renditionService;
+        this.hotMaxBytes = hotMaxBytes;
+        this.hotMaxEntryBytes = Math.min(hotMaxEntryBytes, hotMaxBytes);
+        meterRegistry.gauge("cache.size", Tags.of("cache", "image"), this, FileServiceImpl::hotSize);
     }
 
+    /* ------------------- UPLOAD / REFERENCES ------------------- */
     @Override
-    public String uploadImage(MultipartFile file, String filename) throws IOException {
-        GridFSUploadOptions opts = new GridFSUploadOptions()
-                .metadata(new Document("filename", filename)
-                        .append("contentType", file.getContentType()));
+    public String storeProductImage(MultipartFile file, String productId) throws IOException {
+        String filename = "product_" + productId;
+        MessageDigest sha256 = sha256();
+        ObjectId id;
+        try (InputStream in = new DigestInputStream(file.getInputStream(), sha256)) {
+            id = gridFsTemplate.store(in, filename, file.getContentType(),
+                    new Document("filename", filename)
+                            .append("contentType", file.getContentType())
+                            .append("kind", KIND)
+                            .append("productRefs", List.of(productId)));
+        }
+        String hash = HexFormat.of().formatHex(sha256.digest());
 
-        ObjectId id = gridFsTemplate.store(file.getInputStream(), filename,
-                file.getContentType(), opts.getMetadata());
+        MongoCollection<Document> files = mongoTemplate.getCollection(FILES);
+        try {
+            // The unique index decides the race between two identical uploads
+            files.updateOne(Filters.eq("_id", id), Updates.set("metadata.contentHash", hash));
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() != ErrorCategory.DUPLICATE_KEY) throw e;
+            Document existing = files.findOneAndUpdate(Filters.eq("metadata.contentHash", hash),
+                    Updates.addToSet("metadata.productRefs", productId));
+            if (existing != null) {
+                gridFsTemplate.delete(Query.query(Criteria.where("_id").is(id)));
+                countUpload("deduplicated");
+                return existing.getObjectId("_id").toHexString();
+            }
+            // The twin was swept in between; keep this copy, unhashed, rather than fail the upload
+        }
+        countUpload("stored");
+        renditionService.submit(id.toHexString());
         return id.toHexString();
     }
 
     @Override
-    public Map<String, Object> getImage(String imageId) {
-        GridFSFile file = gridFsTemplate.findOne(
-                Query.query(Criteria.where("_id").is(new ObjectId(imageId))));
+    public void releaseProductImage(String imageId, String productId) {
+        if (imageId == null || !ObjectId.isValid(imageId)) return;
+        mongoTemplate.getCollection(FILES).updateOne(Filters.eq("_id", new ObjectId(imageId)),
+                Updates.pull("metadata.productRefs", productId));
+    }
+
+    @Override
+    public Optional<StoredImage> findImage(String imageId, ImageRenditionService.Size size) {
+        if (imageId == null || !ObjectId.isValid(imageId)) return Optional.empty();
+        String key = size == null ? imageId : imageId + ":" + size.key();
+
+        HotImage cached = fromHot(key);
+        if (cached != null) {
+            count("hit");
+            return Optional.of(new StoredImage(imageId, cached.contentType(), cached.bytes().length,
+                    etag(cached.fileId()), new ByteArrayResource(cached.bytes()), true));
+        }
+
+        count("miss");
+        GridFSFile original = findFile(new ObjectId(imageId));
+        if (original == null || !isPublicImage(original)) return Optional.empty();
+
+        GridFSFile served = original;
+        boolean exact = true;
+        if (size != null && isRendition(original)) {
+            // Asked for by its own id; renditions are never scaled again
+            exact = false;
+        } else if (size != null) {
+            ObjectId renditionId = ImageRenditionService.renditionsOf(original).get(size.key());
+            GridFSFile rendition = renditionId == null ? null
+                    : renditionId.equals(original.getObjectId()) ? original : findFile(renditionId);
+            if (rendition != null) {
+                served = rendition;
+            } else {
+                // Not generated yet (or uploaded before renditions existed): serve the original meanwhile
+                renditionService.submit(imageId);
+                exact = false;
+            }
+        }
+
+        String contentType = contentType(served);
+        String fileId = served.getObjectId().toHexString();
+        if (served.getLength() <= hotMaxEntryBytes) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) served.getLength());
+            gridFSBucket.downloadToStream(served.getObjectId(), out);
+            byte[] bytes = out.toByteArray();
+            if (exact) putHot(key, new HotImage(bytes, contentType, fileId));
+            return Optional.of(new StoredImage(imageId, contentType, bytes.length, etag(fileId),
+                    new ByteArrayResource(bytes), exact));
+        }
+        return Optional.of(new StoredImage(imageId, contentType, served.getLength(), etag(fileId),
+                new GridFsStreamResource(gridFSBucket, served), exact));
+    }
+
+    private GridFSFile findFile(ObjectId id) {
+        return gridFsTemplate.findOne(Query.query(Criteria.where("_id").is(id)));
+    }
+
+    /* ------------------- HOT CACHE ------------------- */
+    private synchronized HotImage fromHot(String imageId) {
+        return hot.get(imageId);
+    }
+
+    private synchronized void putHot(String imageId, HotImage image) {
+        HotImage previous = hot.put(imageId, image);
+        if (previous != null) hotBytes -= previous.bytes().length;
+        hotBytes += image.bytes().length;
+        Iterator<Map.Entry<String, HotImage>> it = hot.entrySet().iterator();
+        while (hotBytes > hotMaxBytes && it.hasNext()) {
+            hotBytes -= it.next().getValue().bytes().length;
+            it.remove();
+        }
+    }
+
+    private synchronized int hotSize() {
+        return hot.size();
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    /**
+     * Whether the public image endpoints may serve this file: product images, their renditions,
+     * and untagged legacy uploads named {@code product_*}. Receipt and report PDFs share the
+     * bucket and never match. Used by the servlet and the reactive image paths alike.
+     */
+    static boolean isPublicImage(GridFSFile file) {
+        Document metadata = file.getMetadata();
+        if (metadata == null) return false;
+        String kind = metadata.getString("kind");
+        if (kind == null) return file.getFilename() != null && file.getFilename().startsWith("product_");
+        return KIND.equals(kind) || ImageRenditionService.KIND.equals(kind);
+    }
+
+    static boolean isRendition(GridFSFile file) {
+        return ImageRenditionService.KIND.equals(file.getMetadata().getString("kind"));
+    }
+
+    private static String contentType(GridFSFile file) {
+        String type = file.getMetadata().getString("contentType");
+        if (type == null) type = file.getMetadata().getString("_contentType");
+        return type != null ? type : DEFAULT_CONTENT_TYPE;
+    }
+
+    private static String etag(String fileId) {
+        return "\"" + fileId + "\"";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void countUpload(String result) {
+        meterRegistry.counter("image.uploads", "result", result).increment();
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("cache.gets", "cache", "image", "result", result).increment();
+    }
+
+    private record HotImage(byte[] bytes, String contentType, String fileId) {}
+
+    /**
+     * Streams a GridFS file chunk by chunk. Unlike GridFsResource it opens a new download
+     * stream on every read, which multi-range responses need; skip() seeks by chunk.
+     */
+    private static final class GridFsStreamResource extends AbstractResource {
+        private final GridFSBucket bucket;
+        private final GridFSFile file;
+
+        GridFsStreamResource(GridFSBucket bucket, GridFSFile file) {
+            this.bucket = bucket;
+            this.file = file;
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return bucket.openDownloadStream(file.getObjectId());
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getLength();
+        }
 
-        if (file == null || file.getMetadata() == null) {
-            throw new RuntimeException("Image not found: " + imageId);
+        @Override
+        public String getFilename() {
+            return file.getFilename();
         }
 
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            gridFSBucket.downloadToStream(file.getObjectId(), out);
-            Map<String, Object> result = new HashMap<>();
-            result.put("bytes", out.toByteArray());
-            result.put("contentType", file.getMetadata().getString("contentType"));
-            return result;
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to download image", e);
+        @Override
+        public String getDescription() {
+            return "GridFS file [" + file.getObjectId().toHexString() + "]";
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,167 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Updates;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Nightly reclaim of GridFS space held by product images nobody points at any more:
+ * originals whose {@code metadata.productRefs} is empty, renditions of originals that are
+ * gone, and chunks left behind by interrupted uploads or deletes. Anything younger than
+ * the grace period is left alone so in-flight uploads are never touched.
+ */
+@Service
+public class GridFsSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(GridFsSweeper.class);
+    private static final String FILES = "fs.files";
+    private static final String CHUNKS = "fs.chunks";
+    private static final int BATCH = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final long graceMillis;
+
+    public GridFsSweeper(MongoTemplate mongoTemplate,
+                         @Value("${gridfs.sweep.grace-hours:24}") long graceHours) {
+        this.mongoTemplate = mongoTemplate;
+        this.graceMillis = graceHours * 3_600_000L;
+    }
+
+    @Scheduled(cron = "${gridfs.sweep.cron:0 45 3 * * ?}")
+    public void sweep() {
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - graceMillis);
+            int adopted = adoptLegacyImages();
+            int originals = sweepUnreferencedOriginals(cutoff);
+            int renditions = sweepOrphanRenditions(cutoff);
+            long chunks = sweepOrphanChunks(cutoff);
+            logger.info("[GRIDFS SWEEP] adopted {} legacy images, removed {} originals, {} renditions, {} orphan chunks",
+                    adopted, originals, renditions, chunks);
+        } catch (Exception e) {
+            logger.error("[GRIDFS SWEEP] Sweep failed: {}", e.getMessage());
+        }
+    }
+
+    /* ------------------- STEPS ------------------- */
+    /**
+     * Images uploaded before reference counting carry no {@code kind}; give them one, with
+     * refs rebuilt from the products that use them, so the sweep can judge them.
+     */
+    int adoptLegacyImages() {
+        MongoCollection<Document> files = mongoTemplate.getCollection(FILES);
+        MongoCollection<Document> products = mongoTemplate.getCollection("products");
+        int adopted = 0;
+        Bson legacy = Filters.and(Filters.exists("metadata.kind", false), Filters.regex("filename", "^product_"));
+        for (Document f : files.find(legacy).projection(Projections.include("_id"))) {
+            ObjectId id = f.getObjectId("_id");
+            List<String> refs = new ArrayList<>();
+            products.find(Filters.eq("imageId", id.toHexString()))
+                    .projection(Projections.include("productId"))
+                    .forEach(p -> refs.add(p.getString("productId")));
+            files.updateOne(Filters.eq("_id", id), Updates.combine(
+                    Updates.set("metadata.kind", FileServiceImpl.KIND),
+                    Updates.set("metadata.productRefs", refs)));
+            adopted++;
+        }
+        return adopted;
+    }
+
+    int sweepUnreferencedOriginals(Date cutoff) {
+        MongoCollection<Document> files = mongoTemplate.getCollection(FILES);
+        Bson unreferenced = Filters.and(
+                Filters.eq("metadata.kind", FileServiceImpl.KIND),
+                Filters.size("metadata.productRefs", 0),
+                Filters.lt("uploadDate", cutoff));
+        int removed = 0;
+        for (Document f : files.find(unreferenced).projection(Projections.include("_id"))) {
+            ObjectId id = f.getObjectId("_id");
+            // Re-checked in the delete itself: a dedup hit may have re-referenced it meanwhile
+            if (files.deleteOne(Filters.and(Filters.eq("_id", id), unreferenced)).getDeletedCount() == 0) continue;
+            mongoTemplate.getCollection(CHUNKS).deleteMany(Filters.eq("files_id", id));
+            deleteFiles(files.find(Filters.eq("metadata.originalId", id)).projection(Projections.include("_id")));
+            removed++;
+        }
+        return removed;
+    }
+
+    int sweepOrphanRenditions(Date cutoff) {
+        MongoCollection<Document> files = mongoTemplate.getCollection(FILES);
+        Map<ObjectId, ObjectId> byOriginal = new HashMap<>();
+        List<ObjectId> orphans = new ArrayList<>();
+        Bson renditions = Filters.and(Filters.eq("metadata.kind", ImageRenditionService.KIND), Filters.lt("uploadDate", cutoff));
+        for (Document r : files.find(renditions).projection(Projections.include("_id", "metadata.originalId"))) {
+            byOriginal.put(r.getObjectId("_id"), r.get("metadata", Document.class).getObjectId("originalId"));
+            if (byOriginal.size() >= BATCH) orphans.addAll(missingOriginals(files, byOriginal));
+        }
+        orphans.addAll(missingOriginals(files, byOriginal));
+        for (ObjectId id : orphans) {
+            files.deleteOne(Filters.eq("_id", id));
+            mongoTemplate.getCollection(CHUNKS).deleteMany(Filters.eq("files_id", id));
+        }
+        return orphans.size();
+    }
+
+    /**
+     * Chunks whose file document is gone. Only ids minted before the cutoff are considered:
+     * a driver upload writes its chunks first and the file document last.
+     */
+    long sweepOrphanChunks(Date cutoff) {
+        MongoCollection<Document> files = mongoTemplate.getCollection(FILES);
+        MongoCollection<Document> chunks = mongoTemplate.getCollection(CHUNKS);
+        List<ObjectId> batch = new ArrayList<>(BATCH);
+        long removed = 0;
+        for (ObjectId id : chunks.distinct("files_id", Filters.lt("files_id", new ObjectId(cutoff)), ObjectId.class)) {
+            batch.add(id);
+            if (batch.size() >= BATCH) {
+                removed += deleteOrphanChunks(files, chunks, batch);
+                batch.clear();
+            }
+        }
+        return removed + deleteOrphanChunks(files, chunks, batch);
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    private List<ObjectId> missingOriginals(MongoCollection<Document> files, Map<ObjectId, ObjectId> byOriginal) {
+        if (byOriginal.isEmpty()) return List.of();
+        Set<ObjectId> present = new HashSet<>();
+        files.find(Filters.in("_id", new HashSet<>(byOriginal.values())))
+                .projection(Projections.include("_id"))
+                .forEach(d -> present.add(d.getObjectId("_id")));
+        List<ObjectId> orphans = new ArrayList<>();
+        byOriginal.forEach((rendition, original) -> {
+            if (!present.contains(original)) orphans.add(rendition);
+        });
+        byOriginal.clear();
+        return orphans;
+    }
+
+    private static long deleteOrphanChunks(MongoCollection<Document> files, MongoCollection<Document> chunks,
+                                           List<ObjectId> fileIds) {
+        if (fileIds.isEmpty()) return 0;
+        Set<ObjectId> orphaned = new HashSet<>(fileIds);
+        files.find(Filters.in("_id", fileIds)).projection(Projections.include("_id"))
+                .forEach(d -> orphaned.remove(d.getObjectId("_id")));
+        if (orphaned.isEmpty()) return 0;
+        return chunks.deleteMany(Filters.in("files_id", orphaned)).getDeletedCount();
+    }
+
+    private void deleteFiles(Iterable<Document> docs) {
+        for (Document d : docs) {
+            ObjectId id = d.getObjectId("_id");
+            mongoTemplate.getCollection(FILES).deleteOne(Filters.eq("_id", id));
+            mongoTemplate.getCollection(CHUNKS).deleteMany(Filters.eq("files_id", id));
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-size renditions of product images, generated with ImageIO on a background
+ * worker after upload and stored in GridFS next to the original. The original's
+ * {@code metadata.renditions} maps each size to the file to serve; a size whose
+ * original is already small enough maps to the original itself.
+ */
+@Service
+public class ImageRenditionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageRenditionService.class);
+    static final String KIND = "image-rendition";
+    private static final String FILES = "fs.files";
+    private static final float JPEG_QUALITY = 0.82f;
+
+    public enum Size {
+        THUMB(160), CARD(480), FULL(1280);
+
+        private final int maxEdge;
+
+        Size(int maxEdge) {
+            this.maxEdge = maxEdge;
+        }
+
+        public int getMaxEdge() {
+            return maxEdge;
+        }
+
+        public String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /** Null or "original" means the uploaded file. */
+        public static Size parse(String value) {
+            if (value == null || value.isBlank() || "original".equalsIgnoreCase(value)) return null;
+            for (Size s : values()) {
+                if (s.key().equalsIgnoreCase(value.trim())) return s;
+            }
+            throw new IllegalArgumentException("Unknown image size '" + value + "'; expected thumb, card, full or original");
+        }
+    }
+
+    private final GridFsTemplate gridFsTemplate;
+    private final GridFSBucket gridFSBucket;
+    private final MongoTemplate mongoTemplate;
+    private final TaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public ImageRenditionService(GridFsTemplate gridFsTemplate,
+                                 GridFSBucket gridFSBucket,
+                                 MongoTemplate mongoTemplate,
+                                 @Qualifier("imageRenditionExecutor") TaskExecutor executor,
+                                 MeterRegistry meterRegistry) {
+        this.gridFsTemplate = gridFsTemplate;
+        this.gridFSBucket = gridFSBucket;
+        this.mongoTemplate = mongoTemplate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Queues rendition generation for an original; no-op if it is already queued.
+     * Also used to backfill images uploaded before renditions existed.
+     */
+    public void submit(String originalId) {
+        if (!pending.add(originalId)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(originalId);
+                } finally {
+                    pending.remove(originalId);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            // The next request for a rendition resubmits it
+            pending.remove(originalId);
+            count("rejected");
+            logger.warn("[IMAGE] Rendition queue full, skipped {}", originalId);
+        }
+    }
+
+    /* ------------------- GENERATION ------------------- */
+    void generate(String originalId) {
+        GridFSFile original = gridFsTemplate.findOne(Query.query(Criteria.where("_id").is(new ObjectId(originalId))));
+        if (original == null || original.getMetadata() == null) return;
+        if (original.getMetadata().get("renditions") != null) return;
+
+        long start = System.currentTimeMillis();
+        Document renditions = new Document();
+        BufferedImage source;
+        try {
+            source = decode(gridFSBucket.openDownloadStream(original.getObjectId()), Size.FULL.maxEdge);
+            if (source == null) {
+                throw new IOException("no ImageIO reader for " + original.getMetadata().getString("contentType"));
+            }
+        } catch (MongoException e) {
+            count("failed");
+            logger.warn("[IMAGE] Could not read {} for renditions: {}", originalId, e.getMessage());
+            return;
+        } catch (Exception e) {
+            // Undecodable upload: every size falls back to the original for good
+            for (Size size : Size.values()) renditions.append(size.key(), original.getObjectId());
+            setRenditions(original.getObjectId(), renditions);
+            count("undecodable");
+            logger.warn("[IMAGE] Cannot decode {}, serving original for all sizes: {}", originalId, e.getMessage());
+            return;
+        }
+
+        List<ObjectId> stored = new ArrayList<>();
+        try {
+            for (Size size : Size.values()) {
+                if (Math.max(source.getWidth(), source.getHeight()) <= size.maxEdge && fitsAsIs(original, size)) {
+                    renditions.append(size.key(), original.getObjectId());
+                    continue;
+                }
+                Encoded encoded = encode(scale(source, size.maxEdge));
+                ObjectId id = gridFsTemplate.store(new ByteArrayInputStream(encoded.bytes()),
+                        original.getFilename() + "_" + size.key(), encoded.contentType(),
+                        new Document("kind", KIND)
+                                .append("originalId", original.getObjectId())
+                                .append("size", size.key())
+                                .append("contentType", encoded.contentType()));
+                stored.add(id);
+                renditions.append(size.key(), id);
+            }
+            if (!setRenditions(original.getObjectId(), renditions)) {
+                // Another node linked its renditions first; ours would never be referenced
+                discard(originalId, stored);
+                count("raced");
+                return;
+            }
+            count("generated");
+            logger.info("[IMAGE] Renditions for {} ready in {} ms", originalId, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Left unset so the next request for a size retries; files stored so far are not linked
+            discard(originalId, stored);
+            count("failed");
+            logger.warn("[IMAGE] Renditions for {} failed: {}", originalId, e.getMessage());
+        }
+    }
+
+    /** Links the renditions unless another node already did; returns whether this call linked them. */
+    private boolean setRenditions(ObjectId originalId, Document renditions) {
+        Bson update = Updates.set("metadata.renditions", renditions);
+        return mongoTemplate.getCollection(FILES).updateOne(
+                Filters.and(Filters.eq("_id", originalId), Filters.exists("metadata.renditions", false)),
+                update).getModifiedCount() > 0;
+    }
+
+    private void discard(String originalId, List<ObjectId> stored) {
+        if (stored.isEmpty()) return;
+        try {
+            gridFsTemplate.delete(Query.query(Criteria.where("_id").in(stored)));
+        } catch (Exception e) {
+            logger.warn("[IMAGE] Could not remove {} unlinked renditions of {}: {}", stored.size(), originalId, e.getMessage());
+        }
+    }
+
+    // Small in pixels but not in bytes (e.g. an uncompressed BMP) is still re-encoded
+    private static boolean fitsAsIs(GridFSFile original, Size size) {
+        return original.getLength() <= (long) size.maxEdge * size.maxEdge;
+    }
+
+    /* ------------------- CODECS ------------------- */
+    /**
+     * Decodes with source subsampling so a huge upload never materialises at full resolution;
+     * the decoded image's longer edge stays under roughly {@code 2 * maxEdge}.
+     */
+    static BufferedImage decode(InputStream in, int maxEdge) throws IOException {
+        try (in; ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, (longest + maxEdge * 2 - 1) / (maxEdge * 2));
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Scales down by repeated halving, then one bilinear step, to avoid aliasing. */
+    static BufferedImage scale(BufferedImage source, int maxEdge) {
+        boolean alpha = source.getColorModel().hasAlpha();
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int targetW = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetH = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetW, w / 2);
+            h = Math.max(targetH, h / 2);
+            BufferedImage next = new BufferedImage(w, h, type);
+            Graphics2D g = next.createGraphics();
+            try {
+                if (!alpha) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, w, h);
+                }
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != targetW || h != targetH);
+        return current;
+    }
+
+    /** JPEG for opaque images, PNG when transparency must survive. */
+    static Encoded encode(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 * 1024);
+        if (image.getColorModel().hasAlpha()) {
+            ImageIO.write(image, "png", out);
+            return new Encoded(out.toByteArray(), "image/png");
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return new Encoded(out.toByteArray(), "image/jpeg");
+    }
+
+    record Encoded(byte[] bytes, String contentType) {}
+
+    private void count(String result) {
+        meterRegistry.counter("image.renditions", "result", result).increment();
+    }
+
+    /** Rendition ids by size key, read from an original's metadata; empty until generated. */
+    static Map<String, ObjectId> renditionsOf(GridFSFile original) {
+        Document r = original.getMetadata() != null ? original.getMetadata().get("renditions", Document.class) : null;
+        if (r == null) return Map.of();
+        Map<String, ObjectId> ids = new HashMap<>();
+        r.forEach((k, v) -> {
+            if (v instanceof ObjectId id) ids.put(k, id);
+        });
+        return ids;
+    }
+}
@@ -0,0 +1,171 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.config.MongoIndexCatalog;
+import com.smartretail.backend.config.MongoIndexCatalog.IndexSpec;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Applies {@link MongoIndexCatalog} at startup on a background thread and
+ * verifies the live indexes against it (missing, option drift, unused).
+ */
+@Service
+public class IndexManagementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexManagementService.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoIndexCatalog catalog;
+
+    @Value("${mongo.indexes.apply-on-startup:true}")
+    private boolean applyOnStartup;
+
+    private volatile Map<String, Object> lastReport = Map.of("status", "NOT_RUN");
+
+    public IndexManagementService(MongoTemplate mongoTemplate, MongoIndexCatalog catalog) {
+        this.mongoTemplate = mongoTemplate;
+        this.catalog = catalog;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!applyOnStartup) {
+            logger.info("[INDEX] Startup index application disabled");
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                applyCatalog();
+                verify();
+            } catch (Exception e) {
+                logger.error("[INDEX] Startup index run failed: {}", e.getMessage(), e);
+            }
+        }, "index-catalog");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /** Creates every catalog index that is not present yet. Existing indexes are left untouched. */
+    public List<String> applyCatalog() {
+        List<String> created = new ArrayList<>();
+        for (IndexSpec spec : catalog.getEntries()) {
+            IndexOperations ops = mongoTemplate.indexOps(spec.getCollection());
+            if (findMatching(spec, ops.getIndexInfo()) != null) {
+                continue;
+            }
+            try {
+                ops.createIndex(spec.toIndex());
+                created.add(spec.toString());
+                logger.info("[INDEX] Created {}", spec);
+            } catch (Exception e) {
+                // e.g. duplicate data blocking a unique index – reported by verify()
+                logger.error("[INDEX] Failed to create {}: {}", spec, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    /** Compares live indexes with the catalog and caches the result for the admin endpoint. */
+    public Map<String, Object> verify() {
+        List<String> missing = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        List<String> unused = new ArrayList<>();
+        List<String> uncatalogued = new ArrayList<>();
+
+        for (String collection : catalog.getCollections()) {
+            List<IndexInfo> live = mongoTemplate.indexOps(collection).getIndexInfo();
+            Set<String> matchedNames = new HashSet<>();
+
+            for (IndexSpec spec : catalog.getEntries()) {
+                if (!spec.getCollection().equals(collection)) continue;
+                IndexInfo info = findMatching(spec, live);
+                if (info == null) {
+                    missing.add(spec.toString());
+                    continue;
+                }
+                matchedNames.add(info.getName());
+                if (info.isUnique() != spec.isUnique() || info.isSparse() != spec.isSparse()
+                        || !Objects.equals(info.getExpireAfter().orElse(null), spec.getExpireAfter())) {
+                    mismatched.add(spec + " (live: " + info.getName() + ")");
+                }
+            }
+
+            for (IndexInfo info : live) {
+                if (!"_id_".equals(info.getName()) && !matchedNames.contains(info.getName())) {
+                    uncatalogued.add(collection + "." + info.getName());
+                }
+            }
+
+            unused.addAll(findUnused(collection));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("status", missing.isEmpty() && mismatched.isEmpty() ? "OK" : "DRIFT");
+        report.put("checkedAt", new Date());
+        report.put("catalogSize", catalog.getEntries().size());
+        report.put("missing", missing);
+        report.put("mismatched", mismatched);
+        report.put("uncatalogued", uncatalogued);
+        report.put("unused", unused);
+        lastReport = report;
+
+        if (!missing.isEmpty() || !mismatched.isEmpty()) {
+            logger.warn("[INDEX] Index drift: missing={}, mismatched={}", missing, mismatched);
+        }
+        if (!unused.isEmpty() || !uncatalogued.isEmpty()) {
+            logger.info("[INDEX] Unused={}, uncatalogued={}", unused, uncatalogued);
+        }
+        logger.info("[INDEX] Verification complete: {}", report.get("status"));
+        return report;
+    }
+
+    public Map<String, Object> getLastReport() {
+        return lastReport;
+    }
+
+    private IndexInfo findMatching(IndexSpec spec, List<IndexInfo> live) {
+        List<Map.Entry<String, Sort.Direction>> wanted = new ArrayList<>(spec.getKeys().entrySet());
+        for (IndexInfo info : live) {
+            List<IndexField> fields = info.getIndexFields();
+            if (fields.size() != wanted.size()) continue;
+            boolean same = true;
+            for (int i = 0; i < fields.size() && same; i++) {
+                same = fields.get(i).getKey().equals(wanted.get(i).getKey())
+                        && wanted.get(i).getValue() == fields.get(i).getDirection();
+            }
+            if (same) return info;
+        }
+        return null;
+    }
+
+    /** Indexes with zero accesses since the server last started ($indexStats). */
+    private List<String> findUnused(String collection) {
+        List<String> unused = new ArrayList<>();
+        try {
+            for (Document stat : mongoTemplate.getCollection(collection)
+                    .aggregate(List.of(new Document("$indexStats", new Document())))) {
+                String name = stat.getString("name");
+                Document accesses = stat.get("accesses", Document.class);
+                Number ops = accesses != null ? accesses.get("ops", Number.class) : null;
+                if (!"_id_".equals(name) && ops != null && ops.longValue() == 0) {
+                    unused.add(collection + "." + name);
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("[INDEX] $indexStats unavailable for {}: {}", collection, e.getMessage());
+        }
+        return unused;
+    }
+}
@@ -0,0 +1,242 @@
+package com.smartretail.backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartretail.backend.dto.CursorPage;
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.models.Customer;
+import com.smartretail.backend.models.Notification;
+import com.smartretail.backend.models.Payment;
+import com.smartretail.backend.models.Product;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Keyset-paginated listings for the collection endpoints. Every sort ends with the
+ * document id, so pages are stable while documents are inserted, and the cursor
+ * carries the last (sort value, id) pair instead of an offset. Page size is capped
+ * by {@code listing.max-limit}, which bounds both the response and the heap used.
+ */
+@Service
+public class ListingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ListingService.class);
+    private static final long DAY_MS = 24L * 60 * 60 * 1000;
+
+    // First entry is the default; a leading '-' sorts descending
+    static final List<String> PRODUCT_SORTS = List.of("productId", "name", "-lastUpdated");
+    static final List<String> CUSTOMER_SORTS = List.of("-createdAt", "name", "-lastPurchaseDate");
+    static final List<String> BILL_SORTS = List.of("-createdAt", "-totalAmount");
+    static final List<String> PAYMENT_SORTS = List.of("-createdAt");
+    static final List<String> NOTIFICATION_SORTS = List.of("-sentAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public ListingService(MongoTemplate mongoTemplate,
+                          ObjectMapper objectMapper,
+                          @Value("${listing.default-limit:200}") int defaultLimit,
+                          @Value("${listing.max-limit:1000}") int maxLimit) {
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.maxLimit = Math.max(1, maxLimit);
+        this.defaultLimit = Math.min(Math.max(1, defaultLimit), this.maxLimit);
+    }
+
+    /** Paging options shared by every listing; all nullable. */
+    public record ListParams(String cursor, Integer limit, String sort, String fields) {}
+
+    /* ------------------- LISTINGS ------------------- */
+    public CursorPage<Object> listProducts(String category, String namePrefix, boolean lowStock, ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        if (hasText(category)) filters.add(Criteria.where("category").is(category));
+        if (hasText(namePrefix)) filters.add(prefix("name", namePrefix));
+        if (lowStock) {
+            // Same rule as ProductRepository.findLowStockProducts
+            filters.add(Criteria.expr(ComparisonOperators.valueOf("quantity").lessThan("reorderLevel")));
+        }
+        return page(Product.class, filters, PRODUCT_SORTS, params);
+    }
+
+    public CursorPage<Object> listCustomers(String mobile, String email, String namePrefix, Date purchasedSince,
+                                            ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        if (hasText(mobile)) filters.add(Criteria.where("mobile").is(mobile));
+        if (hasText(email)) filters.add(Criteria.where("email").is(email));
+        if (hasText(namePrefix)) filters.add(prefix("name", namePrefix));
+        if (purchasedSince != null) filters.add(Criteria.where("lastPurchaseDate").gte(purchasedSince));
+        return page(Customer.class, filters, CUSTOMER_SORTS, params);
+    }
+
+    public CursorPage<Object> listBills(Date from, Date to, String customerMobile, String addedBy, ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        range(filters, "createdAt", from, to);
+        if (hasText(customerMobile)) filters.add(Criteria.where("customer.mobile").is(customerMobile));
+        if (hasText(addedBy)) filters.add(Criteria.where("addedBy").is(addedBy));
+        return page(Bill.class, filters, BILL_SORTS, params);
+    }
+
+    public CursorPage<Object> listPayments(String billId, String status, String paymentMode, Date from, Date to,
+                                           ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        if (hasText(billId)) filters.add(Criteria.where("billId").is(billId));
+        if (hasText(status)) filters.add(Criteria.where("status").is(status));
+        if (hasText(paymentMode)) filters.add(Criteria.where("paymentMode").is(paymentMode));
+        range(filters, "createdAt", from, to);
+        return page(Payment.class, filters, PAYMENT_SORTS, params);
+    }
+
+    public CursorPage<Object> listNotifications(String to, Date from, Date until, ListParams params) {
+        List<Criteria> filters = new ArrayList<>();
+        if (hasText(to)) filters.add(Criteria.where("to").is(to));
+        range(filters, "sentAt", from, until);
+        return page(Notification.class, filters, NOTIFICATION_SORTS, params);
+    }
+
+    /* ------------------- PAGING ------------------- */
+    private <T> CursorPage<Object> page(Class<T> type, List<Criteria> filters, List<String> sorts, ListParams params) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(type);
+        String idField = entity.getRequiredIdProperty().getName();
+
+        String sortKey = hasText(params.sort()) ? params.sort().trim() : sorts.get(0);
+        if (!sorts.contains(sortKey)) {
+            throw new IllegalArgumentException("Unsupported sort '" + sortKey + "'; expected one of " + sorts);
+        }
+        boolean desc = sortKey.startsWith("-");
+        String sortField = desc ? sortKey.substring(1) : sortKey;
+        Sort.Direction direction = desc ? Sort.Direction.DESC : Sort.Direction.ASC;
+        int limit = params.limit() == null ? defaultLimit : Math.max(1, Math.min(params.limit(), maxLimit));
+        List<String> fields = fields(entity, params.fields());
+
+        List<Criteria> criteria = new ArrayList<>(filters);
+        if (hasText(params.cursor())) {
+            Cursor cursor = decode(params.cursor(), sortKey);
+            criteria.add(after(sortField, idField, desc, cursor.value(), cursor.id()));
+        }
+
+        Query query = criteria.isEmpty() ? new Query() : new Query(new Criteria().andOperator(criteria));
+        query.with(Sort.by(direction, sortField).and(Sort.by(direction, idField)));
+        // One extra row tells whether another page exists
+        query.limit(limit + 1);
+        if (fields != null) {
+            fields.forEach(f -> query.fields().include(f));
+            query.fields().include(sortField).include(idField);
+        }
+
+        List<T> rows = mongoTemplate.find(query, type);
+        String next = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            PersistentPropertyAccessor<T> last = entity.getPropertyAccessor(rows.get(limit - 1));
+            next = encode(sortKey, last.getProperty(entity.getRequiredPersistentProperty(sortField)),
+                    last.getProperty(entity.getRequiredIdProperty()));
+        }
+        logger.debug("[LISTING] {} rows from {} (sort={}, more={})", rows.size(), type.getSimpleName(), sortKey, next != null);
+
+        List<Object> items = new ArrayList<>(rows.size());
+        for (T row : rows) items.add(fields == null ? row : project(row, fields, idField));
+        return new CursorPage<>(items, next, limit);
+    }
+
+    /**
+     * Documents strictly after (value, id) in the listing order. Mongo sorts null below every
+     * value, so nulls come first ascending and last descending.
+     */
+    static Criteria after(String field, String idField, boolean desc, Object value, Object id) {
+        Criteria sameValue = new Criteria().andOperator(
+                Criteria.where(field).is(value),
+                desc ? Criteria.where(idField).lt(id) : Criteria.where(idField).gt(id));
+        Criteria beyond;
+        if (value == null) {
+            beyond = desc ? null : Criteria.where(field).ne(null);
+        } else {
+            beyond = desc
+                    ? new Criteria().orOperator(Criteria.where(field).lt(value), Criteria.where(field).is(null))
+                    : Criteria.where(field).gt(value);
+        }
+        return beyond == null ? sameValue : new Criteria().orOperator(beyond, sameValue);
+    }
+
+    /* ------------------- CURSORS ------------------- */
+    static String encode(String sortKey, Object value, Object id) {
+        Document doc = new Document("s", sortKey).append("v", value).append("i", id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(doc.toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String cursor, String sortKey) {
+        Document doc;
+        try {
+            doc = Document.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!sortKey.equals(doc.getString("s")) || !doc.containsKey("i")) {
+            // A cursor only continues the ordering it was issued for
+            throw new IllegalArgumentException("Cursor does not match sort '" + sortKey + "'");
+        }
+        return new Cursor(doc.get("v"), doc.get("i"));
+    }
+
+    record Cursor(Object value, Object id) {}
+
+    /* ------------------- PROJECTION ------------------- */
+    static List<String> fields(MongoPersistentEntity<?> entity, String requested) {
+        if (!hasText(requested)) return null;
+        Set<String> known = new LinkedHashSet<>();
+        for (MongoPersistentProperty property : entity) known.add(property.getName());
+
+        List<String> fields = new ArrayList<>();
+        for (String f : requested.split(",")) {
+            String name = f.trim();
+            if (name.isEmpty() || fields.contains(name)) continue;
+            if (!known.contains(name)) {
+                throw new IllegalArgumentException("Unknown field '" + name + "'; expected any of " + known);
+            }
+            fields.add(name);
+        }
+        return fields.isEmpty() ? null : fields;
+    }
+
+    private Map<String, Object> project(Object row, List<String> fields, String idField) {
+        Map<String, Object> full = objectMapper.convertValue(row, new TypeReference<Map<String, Object>>() {});
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put(idField, full.get(idField));
+        for (String f : fields) out.put(f, full.get(f));
+        return out;
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    private static Criteria prefix(String field, String prefix) {
+        return Criteria.where(field).regex("^" + Pattern.quote(prefix.trim()), "i");
+    }
+
+    /** {@code to} is a calendar day and inclusive. */
+    static void range(List<Criteria> filters, String field, Date from, Date to) {
+        if (from == null && to == null) return;
+        Criteria c = Criteria.where(field);
+        if (from != null) c = c.gte(from);
+        if (to != null) c = c.lt(new Date(to.getTime() + DAY_MS));
+        filters.add(c);
+    }
+
+    private static boolean hasText(String s) {
+        return s != null && !s.isBlank();
+    }
+}
@@ -0,0 +1,238 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mongo driver listener that keeps per collection/operation latency histograms
+ * and a bounded ring buffer of slow commands with redacted filter shapes.
+ * Replaces running org.springframework.data.mongodb at DEBUG in production.
+ */
+@Service
+public class MongoCommandStatsService implements CommandListener {
+
+    private static final long[] BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+    private static final Set<String> IGNORED_COMMANDS = Set.of(
+            "hello", "ismaster", "isMaster", "ping", "buildInfo", "saslStart", "saslContinue",
+            "endSessions", "killCursors", "getLastError");
+    private static final String APP_PACKAGE = "com.smartretail.backend";
+
+    private final long slowThresholdMs;
+    private final SlowCommand[] slowBuffer;
+    private final AtomicLong slowWriteIndex = new AtomicLong();
+    private final Map<Integer, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public MongoCommandStatsService(@Value("${mongo.slow-query.threshold-ms:100}") long slowThresholdMs,
+                                    @Value("${mongo.slow-query.capacity:200}") int capacity) {
+        this.slowThresholdMs = slowThresholdMs;
+        this.slowBuffer = new SlowCommand[Math.max(1, capacity)];
+    }
+
+    /* ------------------- LISTENER ------------------- */
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (IGNORED_COMMANDS.contains(event.getCommandName())) return;
+        // The command document is only valid during this callback, so capture what we need now
+        BsonDocument command = event.getCommand();
+        pending.put(event.getRequestId(), new Pending(collectionOf(command, event.getCommandName()), filterShape(command, event.getCommandName())));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), event.getDatabaseName(),
+                event.getElapsedTime(TimeUnit.MICROSECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(event.getRequestId(), event.getCommandName(), event.getDatabaseName(),
+                event.getElapsedTime(TimeUnit.MICROSECONDS), true);
+    }
+
+    private void complete(int requestId, String commandName, String database, long elapsedMicros, boolean failed) {
+        Pending p = pending.remove(requestId);
+        if (p == null) return;
+
+        String key = p.collection + ":" + commandName;
+        histograms.computeIfAbsent(key, k -> new Histogram()).record(elapsedMicros, failed);
+
+        long elapsedMs = elapsedMicros / 1000;
+        if (elapsedMs >= slowThresholdMs) {
+            // Sync driver completes on the calling thread, so the stack still shows who issued the query
+            SlowCommand slow = new SlowCommand(new Date(), database, p.collection, commandName,
+                    elapsedMs, failed, p.shape, findCaller());
+            int slot = (int) (slowWriteIndex.getAndIncrement() % slowBuffer.length);
+            slowBuffer[slot] = slow;
+        }
+    }
+
+    /* ------------------- QUERIES ------------------- */
+    public List<Map<String, Object>> getSlowCommands() {
+        List<SlowCommand> copy = new ArrayList<>();
+        for (SlowCommand c : slowBuffer) {
+            if (c != null) copy.add(c);
+        }
+        copy.sort(Comparator.comparingLong(SlowCommand::elapsedMs).reversed());
+        List<Map<String, Object>> result = new ArrayList<>(copy.size());
+        for (SlowCommand c : copy) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("at", c.at());
+            m.put("database", c.database());
+            m.put("collection", c.collection());
+            m.put("command", c.command());
+            m.put("elapsedMs", c.elapsedMs());
+            m.put("failed", c.failed());
+            m.put("filterShape", c.shape());
+            m.put("caller", c.caller());
+            result.add(m);
+        }
+        return result;
+    }
+
+    public Map<String, Object> getHistograms() {
+        Map<String, Object> result = new TreeMap<>();
+        histograms.forEach((key, h) -> result.put(key, h.snapshot()));
+        return result;
+    }
+
+    public void reset() {
+        histograms.clear();
+        Arrays.fill(slowBuffer, null);
+    }
+
+    public long getSlowThresholdMs() {
+        return slowThresholdMs;
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    static String collectionOf(BsonDocument command, String commandName) {
+        if ("getMore".equals(commandName) && command.isString("collection")) {
+            return command.getString("collection").getValue();
+        }
+        if (command.isEmpty()) return "?";
+        BsonValue first = command.get(command.getFirstKey());
+        return first != null && first.isString() ? first.asString().getValue() : "?";
+    }
+
+    static String filterShape(BsonDocument command, String commandName) {
+        BsonValue filter = switch (commandName) {
+            case "find" -> command.get("filter");
+            case "aggregate" -> command.get("pipeline");
+            case "count", "distinct", "findAndModify" -> command.get("query");
+            case "update" -> firstStatementQuery(command, "updates");
+            case "delete" -> firstStatementQuery(command, "deletes");
+            default -> null;
+        };
+        if (filter == null) return null;
+        String shape = toJson(redact(filter));
+        if ("find".equals(commandName) && command.isDocument("sort")) {
+            shape += " sort=" + command.getDocument("sort").toJson();
+        }
+        return shape;
+    }
+
+    private static BsonValue firstStatementQuery(BsonDocument command, String field) {
+        if (!command.isArray(field) || command.getArray(field).isEmpty()) return null;
+        BsonValue first = command.getArray(field).get(0);
+        return first.isDocument() ? first.asDocument().get("q") : null;
+    }
+
+    /** Keeps keys and operators, replaces every literal with "?". */
+    static BsonValue redact(BsonValue value) {
+        if (value.isDocument()) {
+            BsonDocument out = new BsonDocument();
+            for (Map.Entry<String, BsonValue> e : value.asDocument().entrySet()) {
+                out.put(e.getKey(), redact(e.getValue()));
+            }
+            return out;
+        }
+        if (value.isArray()) {
+            BsonArray in = value.asArray();
+            boolean hasDocuments = in.stream().anyMatch(BsonValue::isDocument);
+            if (!hasDocuments) return new BsonString("[?]");
+            BsonArray out = new BsonArray();
+            for (BsonValue v : in) out.add(redact(v));
+            return out;
+        }
+        return new BsonString("?");
+    }
+
+    private static String toJson(BsonValue value) {
+        if (value.isDocument()) return value.asDocument().toJson();
+        if (value.isArray()) {
+            StringJoiner joiner = new StringJoiner(", ", "[", "]");
+            value.asArray().forEach(v -> joiner.add(toJson(v)));
+            return joiner.toString();
+        }
+        return value.isString() ? value.asString().getValue() : value.toString();
+    }
+
+    private static String findCaller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(f -> f.getClassName().startsWith(APP_PACKAGE)
+                        && !f.getClassName().equals(MongoCommandStatsService.class.getName()))
+                .findFirst()
+                .map(f -> f.getClassName().substring(APP_PACKAGE.length() + 1) + "." + f.getMethodName() + ":" + f.getLineNumber())
+                .orElse(Thread.currentThread().getName()));
+    }
+
+    private record Pending(String collection, String shape) {}
+
+    private record SlowCommand(Date at, String database, String collection, String command,
+                               long elapsedMs, boolean failed, String shape, String caller) {}
+
+    private static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[BUCKETS_MS.length + 1];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+        private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+
+        Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        void record(long micros, boolean failed) {
+            long ms = micros / 1000;
+            int i = 0;
+            while (i < BUCKETS_MS.length && ms > BUCKETS_MS[i]) i++;
+            buckets[i].increment();
+            count.increment();
+            totalMicros.add(micros);
+            maxMicros.accumulate(micros);
+            if (failed) failures.increment();
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.sum();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", n);
+            m.put("failures", failures.sum());
+            m.put("meanMs", n == 0 ? 0.0 : Math.round(totalMicros.sum() / (double) n / 10.0) / 100.0);
+            m.put("maxMs", maxMicros.get() / 1000.0);
+            Map<String, Long> b = new LinkedHashMap<>();
+            for (int i = 0; i < BUCKETS_MS.length; i++) {
+                b.put("le_" + BUCKETS_MS[i], buckets[i].sum());
+            }
+            b.put("le_inf", buckets[BUCKETS_MS.length].sum());
+            m.put("bucketsMs", b);
+            return m;
+        }
+    }
+}
@@ -2,9 +2,12 @@ package com.smartretail.backend.service;
 
 import com.smartretail.backend.models.Notification;
 import com.smartretail.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.MessageSource;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -14,22 +17,35 @@ import jakarta.mail.internet.MimeMessage;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.Semaphore;
 
 @Service
 public class NotificationServiceImpl implements NotificationService {
     private final NotificationRepository notificationRepository;
     private final JavaMailSender mailSender;
     private final MessageSource messageSource;
+    private final MeterRegistry meterRegistry;
+    // Null unless sends can pin a virtual thread's carrier (see send)
+    private final Semaphore smtpPermits;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
     public NotificationServiceImpl(NotificationRepository notificationRepository,
                                    JavaMailSender mailSender,
-                                   MessageSource messageSource) {
+                                   MessageSource messageSource,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                   @Value("${mail.virtual.max-concurrent-sends:0}") int maxConcurrentSends) {
         this.notificationRepository = notificationRepository;
         this.mailSender = mailSender;
         this.messageSource = messageSource;
+        this.meterRegistry = meterRegistry;
+        // JavaMail's SMTPTransport does its socket I/O inside synchronized methods, which pins the
+        // carrier before JDK 24; capping concurrent sends leaves carriers free for everything else
+        boolean pins = virtualThreads && Runtime.version().feature() < 24;
+        int permits = maxConcurrentSends > 0 ? maxConcurrentSends : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.smtpPermits = pins ? new Semaphore(permits) : null;
     }
 
     @Override
@@ -67,7 +83,7 @@ public class NotificationServiceImpl implements NotificationService {
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(text, false);
-            mailSender.send(message);
+            send(message, "plain");
             System.out.println("[NOTIFICATION] Email sent to: " + to);
         } catch (MessagingException e) {
             System.err.println("[NOTIFICATION] Failed to send email to " + to + ": " + e.getMessage());
@@ -116,7 +132,7 @@ public class NotificationServiceImpl implements NotificationService {
                 System.out.println("[NOTIFICATION] PDF attachment added, size: " + pdfContent.length + " bytes");
             }
 
-            mailSender.send(message);
+            send(message, "bill");
             System.out.println("[NOTIFICATION] Bill notification sent successfully to: " + customerEmail + " for bill: " + billId);
 
         } catch (MessagingException e) {
@@ -135,4 +151,34 @@ public class NotificationServiceImpl implements NotificationService {
         );
         sendEmail(managerEmail, emailSubject, emailText);
     }
+
+    // SMTP round trip time, exported as mail_send_seconds{type,outcome}
+    private void send(MimeMessage message, String type) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            if (smtpPermits != null) {
+                smtpPermits.acquire();
+                try {
+                    mailSender.send(message);
+                } finally {
+                    smtpPermits.release();
+                }
+            } else {
+                mailSender.send(message);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "failure";
+            throw new MailSendException("Interrupted while waiting to send mail");
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("mail.send")
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
 }
@@ -1,8 +1,16 @@
 package com.smartretail.backend.service;
 
 import com.smartretail.backend.models.Bill;
+
+import java.io.OutputStream;
 import java.util.Locale;
 
 public interface PdfService {
+    /** Bump whenever the receipt layout or labels change; cached renditions are keyed by it. */
+    String getTemplateVersion();
+
     byte[] generateBillPdf(Bill bill, Locale locale);
-}
\ No newline at end of file
+
+    /** Renders straight into {@code out}; the stream is flushed but left open. */
+    void writeBillPdf(Bill bill, Locale locale, OutputStream out);
+}
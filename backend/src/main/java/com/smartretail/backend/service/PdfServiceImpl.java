@@ -1,5 +1,8 @@
 package com.smartretail.backend.service;
 
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
@@ -13,97 +16,109 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.service.ReceiptLabelSource.ReceiptLabels;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Locale;
 
-// --- NEW IMPORT ---
-import org.springframework.context.MessageSource;
-// --- END NEW IMPORT ---
-
 @Service
 public class PdfServiceImpl implements PdfService {
     private static final Logger logger = LoggerFactory.getLogger(PdfServiceImpl.class);
 
-    // --- NEW FIELD ---
-    private final MessageSource messageSource;
-
-    // --- MODIFIED CONSTRUCTOR ---
-    public PdfServiceImpl(MessageSource messageSource) {
-        this.messageSource = messageSource;
+    private static final String TEMPLATE_VERSION = "r2";
+    private static final float[] DETAILS_COLUMNS = {1, 2};
+    private static final float[] ITEMS_COLUMNS = {3, 1, 1, 1};
+
+    // Parsed font metrics are immutable and shared; only the per-document PdfFont wrapper is created per receipt
+    private final FontProgram regularProgram;
+    private final FontProgram boldProgram;
+    private final ReceiptLabelSource labelSource;
+    private final Timer renderTimer;
+
+    public PdfServiceImpl(ReceiptLabelSource labelSource, MeterRegistry meterRegistry) {
+        this.labelSource = labelSource;
+        this.renderTimer = Timer.builder("pdf.render").tag("type", "bill").register(meterRegistry);
+        try {
+            this.regularProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA);
+            this.boldProgram = FontProgramFactory.createFont(StandardFonts.HELVETICA_BOLD);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load receipt fonts", e);
+        }
     }
 
-    // --- Helper method for translation ---
-    private String t(String key, Locale locale) {
-        // Fallback to the key itself if not found, to avoid errors
-        return messageSource.getMessage(key, null, key, locale);
+    @Override
+    public String getTemplateVersion() {
+        return TEMPLATE_VERSION;
     }
 
     @Override
     public byte[] generateBillPdf(Bill bill, Locale locale) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(8 * 1024);
+        writeBillPdf(bill, locale, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    @Override
+    public void writeBillPdf(Bill bill, Locale locale, OutputStream out) {
         if (bill == null) {
             throw new IllegalArgumentException("Bill cannot be null");
         }
+        renderTimer.record(() -> renderBillPdf(bill, locale, out));
+    }
 
-       // ... (logging remains the same) [cite: 174]
-
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            PdfWriter writer = new PdfWriter(outputStream);
+    private void renderBillPdf(Bill bill, Locale locale, OutputStream out) {
+        ReceiptLabels labels = labelSource.forLocale(locale);
+        try {
+            PdfWriter writer = new PdfWriter(out);
+            // The caller owns the stream (servlet output or a buffer)
+            writer.setCloseStream(false);
             PdfDocument pdf = new PdfDocument(writer);
             Document document = new Document(pdf);
 
-            PdfFont font = PdfFontFactory.createFont("Helvetica");
-            PdfFont boldFont = PdfFontFactory.createFont("Helvetica-Bold");
-
-            // Header - MODIFIED
-            addHeader(document, boldFont, font, locale);
-
-            // Bill details - MODIFIED
-            addBillDetails(document, bill, boldFont, font, locale);
-
-            // Items table - MODIFIED
-            addItemsTable(document, bill, boldFont, font, locale);
+            PdfFont font = PdfFontFactory.createFont(regularProgram);
+            PdfFont boldFont = PdfFontFactory.createFont(boldProgram);
 
-            // Total - MODIFIED
-            addTotal(document, bill, boldFont, locale);
+            addHeader(document, boldFont, font, labels);
+            addBillDetails(document, bill, boldFont, font, labels);
+            addItemsTable(document, bill, boldFont, font, labels);
+            addTotal(document, bill, boldFont, labels);
 
             document.close();
-           // ... (logging remains the same) [cite: 175]
-            return outputStream.toByteArray();
-
         } catch (Exception e) {
-            // ... (error logging remains the same) [cite: 175]
+            logger.error("[PDF SERVICE] Failed to generate PDF for bill {}: {}", bill.getBillId(), e.getMessage());
             throw new RuntimeException("Failed to generate PDF", e);
         }
     }
 
-    // --- MODIFIED METHOD ---
-    private void addHeader(Document document, PdfFont boldFont, PdfFont font, Locale locale) {
+    private void addHeader(Document document, PdfFont boldFont, PdfFont font, ReceiptLabels labels) {
         document.add(new Paragraph("SmartRetail")
                 .setFont(boldFont).setFontSize(24).setTextAlignment(TextAlignment.CENTER));
-        document.add(new Paragraph(t("pdf.bill.receiptTitle", locale)) // "Official Receipt"
+        document.add(new Paragraph(labels.receiptTitle()) // "Official Receipt"
                 .setFont(font).setFontSize(14).setTextAlignment(TextAlignment.CENTER).setMarginBottom(20));
     }
 
-    // --- MODIFIED METHOD ---
-    private void addBillDetails(Document document, Bill bill, PdfFont boldFont, PdfFont font, Locale locale) {
-        Table detailsTable = new Table(new float[]{1, 2});
+    private void addBillDetails(Document document, Bill bill, PdfFont boldFont, PdfFont font, ReceiptLabels labels) {
+        Table detailsTable = new Table(DETAILS_COLUMNS);
         detailsTable.setWidth(UnitValue.createPercentValue(50));
 
-        detailsTable.addCell(createCell(boldFont, t("pdf.bill.billId", locale) + ":", false)); // "Bill ID:"
+        detailsTable.addCell(createCell(boldFont, labels.billId() + ":", false)); // "Bill ID:"
         detailsTable.addCell(createCell(font, bill.getBillId(), false));
 
         if (bill.getCustomer() != null) {
-            detailsTable.addCell(createCell(boldFont, t("pdf.bill.customer", locale) + ":", false)); // "Customer:"
+            detailsTable.addCell(createCell(boldFont, labels.customer() + ":", false)); // "Customer:"
             detailsTable.addCell(createCell(font,
                     bill.getCustomer().getName() != null ? bill.getCustomer().getName() : "N/A", false));
 
-            detailsTable.addCell(createCell(boldFont, t("pdf.bill.mobile", locale) + ":", false)); // "Mobile:"
+            detailsTable.addCell(createCell(boldFont, labels.mobile() + ":", false)); // "Mobile:"
             detailsTable.addCell(createCell(font,
                     bill.getCustomer().getMobile() != null ? bill.getCustomer().getMobile() : "N/A", false));
         }
@@ -111,18 +126,16 @@ public class PdfServiceImpl implements PdfService {
         document.add(detailsTable.setMarginBottom(20));
     }
 
-    // --- MODIFIED METHOD ---
-    private void addItemsTable(Document document, Bill bill, PdfFont boldFont, PdfFont font, Locale locale) {
-        Table itemsTable = new Table(new float[]{3, 1, 1, 1});
+    private void addItemsTable(Document document, Bill bill, PdfFont boldFont, PdfFont font, ReceiptLabels labels) {
+        Table itemsTable = new Table(ITEMS_COLUMNS);
         itemsTable.setWidth(UnitValue.createPercentValue(100));
 
         // Headers
-        itemsTable.addHeaderCell(createCell(boldFont, t("pdf.bill.product", locale), true)); // "Product"
-        itemsTable.addHeaderCell(createCell(boldFont, t("pdf.bill.qty", locale), true)); // "Qty"
-        itemsTable.addHeaderCell(createCell(boldFont, t("pdf.bill.price", locale), true)); // "Price"
-        itemsTable.addHeaderCell(createCell(boldFont, t("pdf.bill.subtotal", locale), true)); // "Subtotal"
+        itemsTable.addHeaderCell(createCell(boldFont, labels.product(), true)); // "Product"
+        itemsTable.addHeaderCell(createCell(boldFont, labels.qty(), true)); // "Qty"
+        itemsTable.addHeaderCell(createCell(boldFont, labels.price(), true)); // "Price"
+        itemsTable.addHeaderCell(createCell(boldFont, labels.subtotal(), true)); // "Subtotal"
 
-        // ... (items loop remains the same) [cite: 177, 178]
         if (bill.getItems() != null) {
             for (Bill.BillItem item : bill.getItems()) {
                 String productName = item.getProductName() != null ?
@@ -131,22 +144,25 @@ public class PdfServiceImpl implements PdfService {
                 double subtotal = item.getQty() * itemPrice;
                 itemsTable.addCell(createCell(font, productName, false));
                 itemsTable.addCell(createCell(font, String.valueOf(item.getQty()), false));
-                itemsTable.addCell(createCell(font, String.format("₹%.2f", itemPrice), false));
-                itemsTable.addCell(createCell(font, String.format("₹%.2f", subtotal), false));
+                itemsTable.addCell(createCell(font, formatAmount(itemPrice), false));
+                itemsTable.addCell(createCell(font, formatAmount(subtotal), false));
             }
         }
         document.add(itemsTable);
     }
 
-    // --- MODIFIED METHOD ---
-    private void addTotal(Document document, Bill bill, PdfFont boldFont, Locale locale) {
-        String totalText = String.format("%s: ₹%.2f", t("pdf.bill.total", locale), bill.getTotalAmount()); // "Total:"
+    private void addTotal(Document document, Bill bill, PdfFont boldFont, ReceiptLabels labels) {
+        String totalText = labels.total() + ": " + formatAmount(bill.getTotalAmount()); // "Total:"
         document.add(new Paragraph(totalText)
                 .setFont(boldFont).setFontSize(12)
                 .setTextAlignment(TextAlignment.RIGHT).setMarginTop(10));
     }
 
-   // ... (createCell method remains the same) [cite: 179]
+    // Same output as String.format("₹%.2f") without the Formatter allocation per cell
+    static String formatAmount(double amount) {
+        return "₹" + BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
     private Cell createCell(PdfFont font, String text, boolean isHeader) {
         Cell cell = new Cell().setFont(font).add(new Paragraph(text));
         if (isHeader) {
@@ -156,4 +172,4 @@ public class PdfServiceImpl implements PdfService {
         }
         return cell;
     }
-}
\ No newline at end of file
+}
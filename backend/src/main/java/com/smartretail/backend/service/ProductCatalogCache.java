@@ -0,0 +1,268 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache of products keyed by productId, kept current write-through
+ * by {@link ProductServiceImpl} and invalidated from other nodes by {@link ProductChangeFeed}.
+ * Callers always get copies; cached copies carry {@code stockAsOf} because stock changes
+ * are decided against the database, never against this cache.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+    private final long ttlMs;
+
+    private final Map<String, Entry> entries;
+    // A lock rather than a monitor: a virtual thread waiting on it unmounts instead of pinning its carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    // Bumped on every invalidation so a load racing with a change does not cache the old document
+    private final AtomicLong generation = new AtomicLong();
+    private volatile AllSnapshot allSnapshot;
+    private volatile Consumer<String> localChangeListener = productId -> {};
+
+    public ProductCatalogCache(MeterRegistry meterRegistry,
+                               @Value("${product.cache.max-entries:5000}") int maxEntries,
+                               @Value("${product.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.ttlMs = ttlSeconds * 1000L;
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ProductCatalogCache.this.maxEntries;
+            }
+        };
+        meterRegistry.gauge("cache.size", Tags.of("cache", "product"), this, ProductCatalogCache::size);
+    }
+
+    /* ------------------- READS ------------------- */
+    public Optional<Product> get(String productId, Function<String, Optional<Product>> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(productId);
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null && now - entry.loadedAt < ttlMs) {
+            count("hit");
+            return Optional.of(copy(entry.product, entry.loadedAt));
+        }
+
+        count("miss");
+        long gen = generation.get();
+        Optional<Product> loaded = loader.apply(productId);
+        loaded.ifPresent(p -> store(p, gen));
+        return loaded;
+    }
+
+    /** Cached copy only, never loads; for callers that read Mongo asynchronously themselves. */
+    public Optional<Product> getIfPresent(String productId) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(productId);
+        } finally {
+            lock.unlock();
+        }
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt < ttlMs) {
+            count("hit");
+            return Optional.of(copy(entry.product, entry.loadedAt));
+        }
+        count("miss");
+        return Optional.empty();
+    }
+
+    /** Whole catalog snapshot; patched by local writes, dropped on changes from other nodes. Not kept when the catalog exceeds the cache bound. */
+    public List<Product> getAll(Supplier<List<Product>> loader) {
+        AllSnapshot snapshot = allSnapshot;
+        long now = System.currentTimeMillis();
+        if (snapshot != null && now - snapshot.loadedAt < ttlMs) {
+            count("hit");
+            List<Product> copies = new ArrayList<>(snapshot.products.size());
+            for (Product p : snapshot.products) copies.add(copy(p, snapshot.loadedAt));
+            return copies;
+        }
+
+        count("miss");
+        long gen = generation.get();
+        List<Product> loaded = loader.get();
+        if (loaded.size() <= maxEntries) {
+            List<Product> frozen = new ArrayList<>(loaded.size());
+            for (Product p : loaded) frozen.add(copy(p, null));
+            lock.lock();
+            try {
+                if (generation.get() == gen) allSnapshot = new AllSnapshot(List.copyOf(frozen), now);
+            } finally {
+                lock.unlock();
+            }
+        }
+        return loaded;
+    }
+
+    /* ------------------- WRITES ------------------- */
+    /** Write-through after this node saved the product; the catalog snapshot is patched, not dropped. */
+    public void put(Product product) {
+        Product stored = copy(product, null);
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            entries.put(product.getProductId(), new Entry(stored, System.currentTimeMillis()));
+            patchSnapshot(product.getProductId(), stored);
+        } finally {
+            lock.unlock();
+        }
+        localChangeListener.accept(product.getProductId());
+    }
+
+    /** Removes a product this node deleted. */
+    public void evict(String productId) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            entries.remove(productId);
+            patchSnapshot(productId, null);
+        } finally {
+            lock.unlock();
+        }
+        localChangeListener.accept(productId);
+    }
+
+    /** Removes a product changed elsewhere; does not republish. */
+    public void invalidate(String productId) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            allSnapshot = null;
+            entries.remove(productId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change-stream event with the product's current document. Skipped when the cache already
+     * holds that version, which is the case for this node's own write-through.
+     */
+    public void invalidateIfChanged(String documentId, Product current) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(current.getProductId());
+            boolean entryCurrent = entry == null || sameVersion(entry.product, current);
+            AllSnapshot snapshot = allSnapshot;
+            boolean snapshotCurrent = snapshot == null || snapshot.products.stream()
+                    .anyMatch(p -> p.getProductId().equals(current.getProductId()) && sameVersion(p, current));
+            if (entryCurrent && snapshotCurrent) return;
+        } finally {
+            lock.unlock();
+        }
+        invalidateByDocumentId(documentId);
+    }
+
+    /** Change streams only carry the Mongo _id for deletes, so match on that too. */
+    public void invalidateByDocumentId(String documentId) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            allSnapshot = null;
+            entries.values().removeIf(e -> documentId.equals(e.product.getId()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void clear() {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            allSnapshot = null;
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Hook for the change feed to publish local writes when it cannot rely on change streams. */
+    void onLocalChange(Consumer<String> listener) {
+        this.localChangeListener = listener;
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    // Caller holds the lock. O(catalog) per write, which keeps getAll lock-free.
+    private void patchSnapshot(String productId, Product replacement) {
+        AllSnapshot snapshot = allSnapshot;
+        if (snapshot == null) return;
+        List<Product> patched = new ArrayList<>(snapshot.products.size() + 1);
+        boolean found = false;
+        for (Product p : snapshot.products) {
+            if (p.getProductId().equals(productId)) {
+                found = true;
+                if (replacement != null) patched.add(replacement);
+            } else {
+                patched.add(p);
+            }
+        }
+        if (!found && replacement != null) patched.add(replacement);
+        allSnapshot = patched.size() <= maxEntries ? new AllSnapshot(List.copyOf(patched), snapshot.loadedAt) : null;
+    }
+
+    // Every save stamps lastUpdated, so equal stamps and stock mean the same write
+    private static boolean sameVersion(Product cached, Product current) {
+        return Objects.equals(cached.getLastUpdated(), current.getLastUpdated())
+                && cached.getQuantity() == current.getQuantity();
+    }
+
+    private void store(Product product, long expectedGeneration) {
+        lock.lock();
+        try {
+            if (generation.get() != expectedGeneration) return;
+            entries.put(product.getProductId(), new Entry(copy(product, null), System.currentTimeMillis()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static Product copy(Product source, Long stockAsOf) {
+        Product p = new Product(source.getProductId(), source.getName(), source.getCategory(), source.getPrice(),
+                source.getQuantity(), source.getMinQuantity(), source.getReorderLevel(), source.getExpiryDate(),
+                source.getImageId(), source.getImageUrl(), source.getSupplierEmail(), source.getAddedBy());
+        p.setId(source.getId());
+        p.setCreatedAt(source.getCreatedAt());
+        p.setLastUpdated(source.getLastUpdated());
+        p.setBarcodes(source.getBarcodes() != null ? List.copyOf(source.getBarcodes()) : null);
+        p.setStockAsOf(stockAsOf != null ? new Date(stockAsOf) : null);
+        return p;
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("cache.gets", "cache", "product", "result", result).increment();
+    }
+
+    private record Entry(Product product, long loadedAt) {}
+
+    private record AllSnapshot(List<Product> products, long loadedAt) {}
+}
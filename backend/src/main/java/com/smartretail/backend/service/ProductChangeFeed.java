@@ -0,0 +1,244 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.CursorType;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.smartretail.backend.models.Product;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps {@link ProductCatalogCache} coherent across backend nodes. Uses a change stream on
+ * {@code products} when the deployment supports it (replica set / Atlas); on a standalone
+ * server it falls back to tailing a small capped collection that every node appends to.
+ */
+@Component
+public class ProductChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductChangeFeed.class);
+    private static final String PRODUCTS = "products";
+    static final String EVENTS = "product_changes";
+    // "The $changeStream stage is only supported on replica sets"
+    private static final int CHANGE_STREAM_UNSUPPORTED = 40573;
+
+    public enum Mode { OFF, CHANGE_STREAM, CAPPED }
+
+    private final MongoTemplate mongoTemplate;
+    private final ProductCatalogCache cache;
+    private final ProductSearchIndex searchIndex;
+    private final BarcodeIndex barcodeIndex;
+    private final String configuredMode;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile Mode mode = Mode.OFF;
+    private volatile boolean running;
+    private Thread worker;
+
+    public ProductChangeFeed(MongoTemplate mongoTemplate,
+                             ProductCatalogCache cache,
+                             ProductSearchIndex searchIndex,
+                             BarcodeIndex barcodeIndex,
+                             @Value("${product.cache.change-feed:auto}") String configuredMode) {
+        this.mongoTemplate = mongoTemplate;
+        this.cache = cache;
+        this.searchIndex = searchIndex;
+        this.barcodeIndex = barcodeIndex;
+        this.configuredMode = configuredMode;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if ("off".equalsIgnoreCase(configuredMode)) {
+            logger.info("[CATALOG FEED] Disabled; product cache relies on TTL only");
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "product-change-feed");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) worker.interrupt();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /* ------------------- WORKER ------------------- */
+    private void run() {
+        boolean tryChangeStream = !"capped".equalsIgnoreCase(configuredMode);
+        while (running) {
+            try {
+                if (tryChangeStream) {
+                    watchChangeStream();
+                } else {
+                    tailCappedCollection();
+                }
+            } catch (MongoCommandException e) {
+                if (tryChangeStream && e.getErrorCode() == CHANGE_STREAM_UNSUPPORTED) {
+                    logger.info("[CATALOG FEED] Change streams unavailable, falling back to capped collection {}", EVENTS);
+                    tryChangeStream = false;
+                    continue;
+                }
+                logger.warn("[CATALOG FEED] Feed failed: {}", e.getMessage());
+                backOff();
+            } catch (Exception e) {
+                if (!running) break;
+                logger.warn("[CATALOG FEED] Feed failed: {}", e.getMessage());
+                backOff();
+            }
+        }
+        mode = Mode.OFF;
+    }
+
+    private void watchChangeStream() {
+        MongoCollection<Document> products = mongoTemplate.getCollection(PRODUCTS);
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = products
+                .watch(List.of(Aggregates.match(Filters.in("operationType",
+                        "insert", "update", "replace", "delete", "drop", "invalidate"))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS)
+                .cursor()) {
+            // Anything cached before the stream opened may have missed events
+            cache.clear();
+            cache.onLocalChange(productId -> {});
+            mode = Mode.CHANGE_STREAM;
+            logger.info("[CATALOG FEED] Watching {} change stream", PRODUCTS);
+
+            while (running) {
+                ChangeStreamDocument<Document> event = cursor.tryNext();
+                if (event == null) continue;
+                String op = event.getOperationTypeString();
+                if ("drop".equals(op) || "invalidate".equals(op)) {
+                    cache.clear();
+                    searchIndex.rebuild();
+                    barcodeIndex.rebuild();
+                    return;
+                }
+                BsonDocument key = event.getDocumentKey();
+                if (key != null && key.containsKey("_id")) {
+                    String documentId = idString(key.get("_id"));
+                    if (event.getFullDocument() != null) {
+                        Product product = mongoTemplate.getConverter().read(Product.class, event.getFullDocument());
+                        // This node's own writes come back here too; the cache already holds them
+                        cache.invalidateIfChanged(documentId, product);
+                        // Skips the rebuild of its postings when only stock moved
+                        searchIndex.index(product);
+                        barcodeIndex.index(product);
+                    } else {
+                        cache.invalidateByDocumentId(documentId);
+                        if ("delete".equals(op)) {
+                            searchIndex.removeByDocumentId(documentId);
+                            barcodeIndex.removeByDocumentId(documentId);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void tailCappedCollection() {
+        ensureEventsCollection();
+        MongoCollection<Document> events = mongoTemplate.getCollection(EVENTS);
+        cache.onLocalChange(this::publish);
+        mode = Mode.CAPPED;
+
+        Document last = events.find().sort(Sorts.descending("$natural")).limit(1).first();
+        ObjectId lastSeen = last != null ? last.getObjectId("_id") : new ObjectId();
+        cache.clear();
+        logger.info("[CATALOG FEED] Tailing capped collection {}", EVENTS);
+
+        while (running) {
+            try (MongoCursor<Document> cursor = events.find(Filters.gt("_id", lastSeen))
+                    .cursorType(CursorType.TailableAwait)
+                    .maxAwaitTime(1, TimeUnit.SECONDS)
+                    .cursor()) {
+                while (running) {
+                    Document event = cursor.tryNext();
+                    if (event == null) {
+                        // A tailable cursor dies when it has nothing to point at yet; reopen it
+                        if (cursor.getServerCursor() == null) break;
+                        continue;
+                    }
+                    lastSeen = event.getObjectId("_id");
+                    if (!nodeId.equals(event.getString("node"))) {
+                        cache.invalidate(event.getString("productId"));
+                        searchIndex.refresh(event.getString("productId"));
+                        barcodeIndex.refresh(event.getString("productId"));
+                    }
+                }
+            }
+            sleepQuietly(500);
+        }
+    }
+
+    private void publish(String productId) {
+        try {
+            mongoTemplate.getCollection(EVENTS).insertOne(new Document("productId", productId)
+                    .append("node", nodeId)
+                    .append("at", new Date()));
+        } catch (Exception e) {
+            // Other nodes fall back to their TTL for this product
+            logger.warn("[CATALOG FEED] Failed to publish change for {}: {}", productId, e.getMessage());
+        }
+    }
+
+    private void ensureEventsCollection() {
+        if (mongoTemplate.collectionExists(EVENTS)) return;
+        try {
+            mongoTemplate.createCollection(EVENTS, CollectionOptions.empty().capped().size(1024 * 1024).maxDocuments(10_000));
+        } catch (Exception e) {
+            // Another node created it first
+            logger.debug("[CATALOG FEED] Create {} skipped: {}", EVENTS, e.getMessage());
+        }
+    }
+
+    private static String idString(BsonValue id) {
+        if (id.isObjectId()) return id.asObjectId().getValue().toHexString();
+        if (id.isString()) return id.asString().getValue();
+        return id.toString();
+    }
+
+    private void backOff() {
+        mode = Mode.OFF;
+        // Without a feed the cache could serve changes made elsewhere until TTL; start clean
+        cache.clear();
+        sleepQuietly(5_000);
+    }
+
+    private void sleepQuietly(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
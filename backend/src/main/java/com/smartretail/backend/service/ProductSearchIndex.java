@@ -0,0 +1,324 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Product;
+import com.smartretail.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search over product name, category and productId for till lookups.
+ * Matches exact words, prefixes and near spellings (trigram similarity) on the
+ * transliterated phonetic keys from {@link SearchText}, so Hindi, Marathi and
+ * Telugu names are found from Latin input and vice versa.
+ * Kept current by {@link ProductServiceImpl} and {@link ProductChangeFeed}; rebuilt
+ * at startup and periodically as a safety net.
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final double EXACT = 10, PREFIX = 6, FUZZY = 5, CATEGORY_WEIGHT = 0.5;
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final int MAX_PREFIX_TERMS = 200;
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+    // Non-null while a rebuild is loading; products changed meanwhile are re-read after the swap
+    private volatile Set<String> touchedDuringRebuild;
+
+    public ProductSearchIndex(ProductRepository productRepository, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("search.index.size", this, ProductSearchIndex::size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        Thread worker = new Thread(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("[SEARCH] Initial index build failed: {}", e.getMessage(), e);
+            }
+        }, "product-search-index");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Scheduled(fixedDelayString = "${product.search.rebuild-interval-ms:1800000}",
+            initialDelayString = "${product.search.rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        Set<String> touched = ConcurrentHashMap.newKeySet();
+        touchedDuringRebuild = touched;
+        Index fresh = new Index();
+        try {
+            for (Product p : productRepository.findAll()) {
+                fresh.add(Doc.of(p));
+            }
+            lock.writeLock().lock();
+            try {
+                index = fresh;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            touchedDuringRebuild = null;
+        }
+        touched.forEach(this::refresh);
+        logger.info("[SEARCH] Indexed {} products in {} ms", fresh.docs.size(), System.currentTimeMillis() - start);
+    }
+
+    /* ------------------- MAINTENANCE ------------------- */
+    public void index(Product product) {
+        if (product == null || product.getProductId() == null) return;
+        Doc doc = Doc.of(product);
+        lock.writeLock().lock();
+        try {
+            Doc current = index.docs.get(doc.productId());
+            if (!doc.equals(current)) index.add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        markTouched(product.getProductId());
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        markTouched(productId);
+    }
+
+    /** Re-reads one product after a change made by another node. */
+    public void refresh(String productId) {
+        Optional<Product> product = productRepository.findByProductId(productId);
+        if (product.isPresent()) index(product.get());
+        else remove(productId);
+    }
+
+    /** Deletes seen on the change stream only carry the Mongo _id. */
+    public void removeByDocumentId(String documentId) {
+        String productId;
+        lock.readLock().lock();
+        try {
+            productId = index.docs.values().stream()
+                    .filter(d -> documentId.equals(d.documentId()))
+                    .map(Doc::productId).findFirst().orElse(null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (productId != null) remove(productId);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ------------------- SEARCH ------------------- */
+    public List<Map<String, Object>> search(String query, int limit) {
+        if (query == null || query.isBlank()) return List.of();
+        long start = System.nanoTime();
+        List<String> keys = SearchText.keys(query);
+        String rawId = query.trim().toLowerCase(Locale.ROOT);
+
+        List<Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(rawId, keys);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int matchedAll = keys.size();
+        boolean anyComplete = hits.stream().anyMatch(h -> h.matched >= matchedAll);
+        List<Map<String, Object>> results = hits.stream()
+                .filter(h -> !anyComplete || h.matched >= matchedAll)
+                .sorted(Comparator.comparingInt((Hit h) -> h.matched).reversed()
+                        .thenComparing(Comparator.comparingDouble((Hit h) -> h.score).reversed())
+                        .thenComparing(h -> h.doc.name() == null ? "" : h.doc.name()))
+                .limit(Math.max(1, limit))
+                .map(Hit::toMap)
+                .toList();
+
+        Timer.builder("product.search").register(meterRegistry).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return results;
+    }
+
+    private void markTouched(String productId) {
+        Set<String> touched = touchedDuringRebuild;
+        if (touched != null) touched.add(productId);
+    }
+
+    /* ------------------- STRUCTURES ------------------- */
+    private record Doc(String productId, String documentId, String name, String category, double price,
+                       String imageUrl, Set<String> nameKeys, Set<String> categoryKeys) {
+
+        static Doc of(Product p) {
+            return new Doc(p.getProductId(), p.getId(), p.getName(), p.getCategory(), p.getPrice(), p.getImageUrl(),
+                    new LinkedHashSet<>(SearchText.keys(p.getName())),
+                    new LinkedHashSet<>(SearchText.keys(p.getCategory())));
+        }
+
+        Set<String> keys() {
+            Set<String> all = new HashSet<>(nameKeys);
+            all.addAll(categoryKeys);
+            return all;
+        }
+
+        double weight(String key) {
+            return nameKeys.contains(key) ? 1.0 : CATEGORY_WEIGHT;
+        }
+    }
+
+    private static final class Hit {
+        final Doc doc;
+        int matched;
+        double score;
+
+        Hit(Doc doc) {
+            this.doc = doc;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("productId", doc.productId());
+            m.put("name", doc.name());
+            m.put("category", doc.category());
+            m.put("price", doc.price());
+            m.put("imageUrl", doc.imageUrl());
+            m.put("score", Math.round(score * 100) / 100.0);
+            return m;
+        }
+    }
+
+    /** Guarded by the outer lock: readers share, writers are exclusive. */
+    private static final class Index {
+        final Map<String, Doc> docs = new HashMap<>();
+        final NavigableMap<String, Set<String>> keyDocs = new TreeMap<>();
+        final Map<String, Set<String>> gramKeys = new HashMap<>();
+        final NavigableMap<String, String> ids = new TreeMap<>();
+
+        void add(Doc doc) {
+            remove(doc.productId());
+            docs.put(doc.productId(), doc);
+            ids.put(doc.productId().toLowerCase(Locale.ROOT), doc.productId());
+            for (String key : doc.keys()) {
+                keyDocs.computeIfAbsent(key, k -> {
+                    for (String gram : SearchText.trigrams(k)) {
+                        gramKeys.computeIfAbsent(gram, g -> new HashSet<>()).add(k);
+                    }
+                    return new HashSet<>();
+                }).add(doc.productId());
+            }
+        }
+
+        void remove(String productId) {
+            Doc doc = docs.remove(productId);
+            if (doc == null) return;
+            ids.remove(productId.toLowerCase(Locale.ROOT));
+            for (String key : doc.keys()) {
+                Set<String> owners = keyDocs.get(key);
+                if (owners == null) continue;
+                owners.remove(productId);
+                if (!owners.isEmpty()) continue;
+                keyDocs.remove(key);
+                for (String gram : SearchText.trigrams(key)) {
+                    Set<String> keys = gramKeys.get(gram);
+                    if (keys != null && keys.remove(key) && keys.isEmpty()) gramKeys.remove(gram);
+                }
+            }
+        }
+
+        List<Hit> search(String rawId, List<String> queryKeys) {
+            Map<String, Hit> hits = new HashMap<>();
+
+            // productId: exact scan wins outright, prefixes (typed SKUs) rank high
+            List<String> idHits = new ArrayList<>();
+            String exact = ids.get(rawId);
+            if (exact != null) {
+                hit(hits, exact).score += 100;
+                idHits.add(exact);
+            }
+            ids.subMap(rawId, false, rawId + Character.MAX_VALUE, false).values().stream().limit(20)
+                    .forEach(id -> {
+                        hit(hits, id).score += 20;
+                        idHits.add(id);
+                    });
+
+            for (String q : queryKeys) {
+                Map<String, Double> best = new HashMap<>();
+
+                Set<String> exactOwners = keyDocs.get(q);
+                if (exactOwners != null) {
+                    for (String id : exactOwners) best.merge(id, EXACT * docs.get(id).weight(q), Math::max);
+                }
+
+                int seen = 0;
+                for (Map.Entry<String, Set<String>> e : keyDocs.subMap(q, false, q + Character.MAX_VALUE, false).entrySet()) {
+                    if (++seen > MAX_PREFIX_TERMS) break;
+                    // Shorter completions rank above long ones for the same prefix
+                    double closeness = (double) q.length() / e.getKey().length();
+                    for (String id : e.getValue()) {
+                        best.merge(id, PREFIX * (0.5 + 0.5 * closeness) * docs.get(id).weight(e.getKey()), Math::max);
+                    }
+                }
+
+                if (q.length() >= 3) {
+                    List<String> grams = SearchText.trigrams(q);
+                    Map<String, Integer> shared = new HashMap<>();
+                    for (String gram : grams) {
+                        Set<String> keys = gramKeys.get(gram);
+                        if (keys == null) continue;
+                        for (String key : keys) shared.merge(key, 1, Integer::sum);
+                    }
+                    for (Map.Entry<String, Integer> e : shared.entrySet()) {
+                        String key = e.getKey();
+                        double dice = 2.0 * e.getValue() / (grams.size() + key.length());
+                        if (dice < MIN_SIMILARITY || key.equals(q)) continue;
+                        for (String id : keyDocs.get(key)) {
+                            best.merge(id, FUZZY * dice * docs.get(id).weight(key), Math::max);
+                        }
+                    }
+                }
+
+                best.forEach((id, score) -> {
+                    Hit h = hit(hits, id);
+                    h.matched++;
+                    h.score += score;
+                });
+            }
+            // A productId match answers the whole query
+            for (String id : idHits) hits.get(id).matched = queryKeys.size();
+            return new ArrayList<>(hits.values());
+        }
+
+        private Hit hit(Map<String, Hit> hits, String productId) {
+            return hits.computeIfAbsent(productId, id -> new Hit(docs.get(id)));
+        }
+    }
+}
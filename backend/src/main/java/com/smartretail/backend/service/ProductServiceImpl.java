@@ -29,18 +29,27 @@ public class ProductServiceImpl implements ProductService {
     private final FileService fileService;
     private final MessageSource messageSource;
     private final AuditLogService auditLogService;
+    private final ProductCatalogCache catalogCache;
+    private final ProductSearchIndex searchIndex;
+    private final BarcodeIndex barcodeIndex;
 
     @Autowired
     public ProductServiceImpl(ProductRepository productRepository,
                               NotificationService notificationService,
                               FileService fileService,
                               MessageSource messageSource,
-                              AuditLogService auditLogService) {
+                              AuditLogService auditLogService,
+                              ProductCatalogCache catalogCache,
+                              ProductSearchIndex searchIndex,
+                              BarcodeIndex barcodeIndex) {
         this.productRepository = productRepository;
         this.notificationService = notificationService;
         this.fileService = fileService;
         this.messageSource = messageSource;
         this.auditLogService = auditLogService;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.barcodeIndex = barcodeIndex;
     }
 
     private String currentUser() {
@@ -72,9 +81,11 @@ public class ProductServiceImpl implements ProductService {
             throw new DuplicateResourceException("product.exists", product.getProductId());
         }
 
+        product.setBarcodes(normalizeBarcodes(product.getProductId(), product.getBarcodes(), locale));
+
         String imageId = null;
         if (imageFile != null && !imageFile.isEmpty()) {
-            imageId = fileService.uploadImage(imageFile, "product_" + product.getProductId());
+            imageId = fileService.storeProductImage(imageFile, product.getProductId());
             product.setImageId(imageId);
             product.setImageUrl("/api/products/image/" + imageId);
         }
@@ -82,6 +93,9 @@ public class ProductServiceImpl implements ProductService {
         product.setCreatedAt(new Date());
         product.setLastUpdated(new Date());
         Product saved = productRepository.save(product);
+        catalogCache.put(saved);
+        searchIndex.index(saved);
+        barcodeIndex.index(saved);
 
         audit("PRODUCT_CREATED", saved.getProductId(), Map.of(
                 "name", saved.getName(),
@@ -109,7 +123,8 @@ public class ProductServiceImpl implements ProductService {
     /* ------------------- READ ------------------- */
     @Override
     public Product getProductById(String productId, Locale locale) {
-        return productRepository.findByProductId(productId)
+        // Served from the catalog cache; stock decisions re-read the DB (see updateProductQuantity)
+        return catalogCache.get(productId, productRepository::findByProductId)
                 .map(p -> {
                     audit("PRODUCT_ACCESSED", productId, Map.of("name", p.getName()));
                     return p;
@@ -124,7 +139,7 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public List<Product> getAllProducts() {
         audit("PRODUCTS_BULK_ACCESSED", "ALL", Map.of("action", "FETCH_ALL"));
-        return productRepository.findAll();
+        return catalogCache.getAll(productRepository::findAll);
     }
 
     /* ------------------- UPDATE (multipart) ------------------- */
@@ -164,23 +179,30 @@ public class ProductServiceImpl implements ProductService {
         updateIfChanged(existing::getExpiryDate, existing::setExpiryDate, patch.getExpiryDate(), "expiryDate", oldVals, newVals);
         updateIfChanged(existing::getSupplierEmail, existing::setSupplierEmail, patch.getSupplierEmail(), "supplierEmail", oldVals, newVals);
         updateIfChanged(existing::getAddedBy, existing::setAddedBy, patch.getAddedBy(), "addedBy", oldVals, newVals);
+        updateBarcodes(existing, patch, locale, oldVals, newVals);
 
         // Don't update imageUrl from JSON patch, only from imageFile
         // updateIfChanged(existing::getImageUrl, existing::setImageUrl, patch.getImageUrl(), "imageUrl", oldVals, newVals);
 
         // ----- image -----
         if (imageFile != null && !imageFile.isEmpty()) {
-            String newId = fileService.uploadImage(imageFile, "product_" + productId);
+            String newId = fileService.storeProductImage(imageFile, productId);
             String newUrl = "/api/products/image/" + newId; // Use the correct URL structure
-            oldVals.put("imageId", existing.getImageId());
+            String oldId = existing.getImageId();
+            oldVals.put("imageId", oldId);
             newVals.put("imageId", newId);
             newVals.put("imageUrl", newUrl);
             existing.setImageId(newId);
             existing.setImageUrl(newUrl); // Set the URL
+            // Same picture re-uploaded dedupes to the same id and keeps its reference
+            if (oldId != null && !oldId.equals(newId)) fileService.releaseProductImage(oldId, productId);
         }
 
         existing.setLastUpdated(new Date());
         Product updated = productRepository.save(existing);
+        catalogCache.put(updated);
+        searchIndex.index(updated);
+        barcodeIndex.index(updated);
 
         boolean lowStock = sendLowStockIfNeeded(updated);
         audit("PRODUCT_UPDATED", productId, Map.of(
@@ -226,10 +248,14 @@ public class ProductServiceImpl implements ProductService {
         updateIfChanged(existing::getExpiryDate, existing::setExpiryDate, patch.getExpiryDate(), "expiryDate", oldVals, newVals);
         updateIfChanged(existing::getSupplierEmail, existing::setSupplierEmail, patch.getSupplierEmail(), "supplierEmail", oldVals, newVals);
         updateIfChanged(existing::getAddedBy, existing::setAddedBy, patch.getAddedBy(), "addedBy", oldVals, newVals);
+        updateBarcodes(existing, patch, locale, oldVals, newVals);
         updateIfChanged(existing::getImageUrl, existing::setImageUrl, patch.getImageUrl(), "imageUrl", oldVals, newVals);
 
         existing.setLastUpdated(new Date());
         Product updated = productRepository.save(existing);
+        catalogCache.put(updated);
+        searchIndex.index(updated);
+        barcodeIndex.index(updated);
 
         boolean lowStock = !isSyncMode && sendLowStockIfNeeded(updated);
         audit("PRODUCT_UPDATED", productId, Map.of(
@@ -247,7 +273,8 @@ public class ProductServiceImpl implements ProductService {
                 && existing.getPrice() == incoming.getPrice()
                 && Objects.equals(existing.getCategory(), incoming.getCategory())
                 && existing.getMinQuantity() == incoming.getMinQuantity()
-                && existing.getReorderLevel() == incoming.getReorderLevel();
+                && existing.getReorderLevel() == incoming.getReorderLevel()
+                && incoming.getBarcodes() == null;
     }
 
     private boolean sendLowStockIfNeeded(Product p) {
@@ -278,6 +305,10 @@ public class ProductServiceImpl implements ProductService {
                 "minQuantity", p.getMinQuantity()));
 
         productRepository.deleteByProductId(productId);
+        fileService.releaseProductImage(p.getImageId(), productId);
+        catalogCache.evict(productId);
+        searchIndex.remove(productId);
+        barcodeIndex.remove(productId);
     }
 
     /* ------------------- LOW STOCK / EXPIRY ------------------- */
@@ -316,6 +347,7 @@ public class ProductServiceImpl implements ProductService {
         p.setQuantity(oldQty + restockQty);
         p.setLastUpdated(new Date());
         Product saved = productRepository.save(p);
+        catalogCache.put(saved);
 
         boolean low = sendLowStockIfNeeded(saved);
         audit("PRODUCT_RESTOCKED", productId, Map.of(
@@ -352,6 +384,7 @@ public class ProductServiceImpl implements ProductService {
         p.setQuantity(newQty);
         p.setLastUpdated(new Date());
         Product saved = productRepository.save(p);
+        catalogCache.put(saved);
 
         boolean low = sendLowStockIfNeeded(saved);
         audit("PRODUCT_QUANTITY_UPDATED", productId, Map.of(
@@ -363,6 +396,41 @@ public class ProductServiceImpl implements ProductService {
         return saved;
     }
 
+    /* ------------------- BARCODES ------------------- */
+    /** Validates and canonicalises barcodes; an empty list becomes null so the unique index ignores the product. */
+    private List<String> normalizeBarcodes(String productId, List<String> raw, Locale locale) {
+        if (raw == null) return null;
+        Set<String> codes = new LinkedHashSet<>();
+        for (String code : raw) {
+            if (code == null || code.isBlank()) continue;
+            String canonical = barcodeIndex.canonical(code);
+            if (canonical == null) {
+                throw new IllegalArgumentException(
+                        messageSource.getMessage("product.barcode.invalid", new Object[]{code}, locale));
+            }
+            productRepository.findByBarcodes(canonical)
+                    .filter(other -> !other.getProductId().equals(productId))
+                    .ifPresent(other -> {
+                        audit("PRODUCT_BARCODE_REJECTED", productId, Map.of(
+                                "barcode", canonical, "assignedTo", other.getProductId()));
+                        throw new DuplicateResourceException("product.barcode.exists", canonical);
+                    });
+            codes.add(canonical);
+        }
+        return codes.isEmpty() ? null : new ArrayList<>(codes);
+    }
+
+    private void updateBarcodes(Product existing, Product patch, Locale locale,
+                                Map<String, Object> oldMap, Map<String, Object> newMap) {
+        if (patch.getBarcodes() == null) return;
+        List<String> codes = normalizeBarcodes(existing.getProductId(), patch.getBarcodes(), locale);
+        if (!Objects.equals(codes, existing.getBarcodes())) {
+            oldMap.put("barcodes", existing.getBarcodes());
+            newMap.put("barcodes", codes);
+            existing.setBarcodes(codes);
+        }
+    }
+
     /* ------------------- FIELD PATCH HELPER ------------------- */
     private <T> void updateIfChanged(Supplier<T> getter, Consumer<T> setter,
                                      T incoming, String field,
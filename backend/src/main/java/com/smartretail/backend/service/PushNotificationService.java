@@ -1,76 +1,253 @@
 package com.smartretail.backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.smartretail.backend.models.PushSubscription;
+import com.smartretail.backend.models.User;
 import com.smartretail.backend.repository.PushSubscriptionRepository;
+import com.smartretail.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.Getter;
+import nl.martijndwars.webpush.Encoding;
 import nl.martijndwars.webpush.Notification;
 import nl.martijndwars.webpush.PushService;
 import nl.martijndwars.webpush.Subscription;
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.util.EntityUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.security.GeneralSecurityException;
 import java.security.Security;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Web push to every device a user has subscribed from. Payloads are encrypted by the
+ * web-push library but delivered by one shared JDK {@link HttpClient}, so connections to
+ * the push services (FCM, Mozilla, Apple) are kept alive and reused across sends.
+ * Deliveries run on the bounded "pushExecutor"; callers never wait on the network.
+ */
 @Service
 public class PushNotificationService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PushNotificationService.class);
+    // Managed by HttpClient itself; copying them from the prepared request is rejected
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("content-length", "host", "connection", "expect", "upgrade");
+
     private final PushSubscriptionRepository subscriptionRepository;
-    private final PushService pushService;
+    private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient httpClient;
+    private final String vapidPrivateKey;
+    private final Duration requestTimeout;
+    // Built on first send: registering BouncyCastle and parsing the keys is slow for startup
+    private volatile PushService pushService;
 
     @Getter
     private final String vapidPublicKey;
-    private final String vapidPrivateKey;
+
+    @Autowired
     public PushNotificationService(
             PushSubscriptionRepository subscriptionRepository,
+            UserRepository userRepository,
+            MongoTemplate mongoTemplate,
+            ObjectMapper objectMapper,
+            @Qualifier("pushExecutor") TaskExecutor executor,
+            MeterRegistry meterRegistry,
             @Value("${vapid.public.key}") String vapidPublicKey,
-            @Value("${vapid.private.key}") String vapidPrivateKey
-    ) throws GeneralSecurityException {
+            @Value("${vapid.private.key}") String vapidPrivateKey,
+            @Value("${push.request-timeout-ms:10000}") long requestTimeoutMs
+    ) {
+        this(subscriptionRepository, userRepository, mongoTemplate, objectMapper, executor, meterRegistry,
+                HttpClient.newBuilder().connectTimeout(Duration.ofMillis(requestTimeoutMs)).build(),
+                vapidPublicKey, vapidPrivateKey, requestTimeoutMs);
+    }
+
+    PushNotificationService(PushSubscriptionRepository subscriptionRepository,
+                            UserRepository userRepository,
+                            MongoTemplate mongoTemplate,
+                            ObjectMapper objectMapper,
+                            TaskExecutor executor,
+                            MeterRegistry meterRegistry,
+                            HttpClient httpClient,
+                            String vapidPublicKey,
+                            String vapidPrivateKey,
+                            long requestTimeoutMs) {
         this.subscriptionRepository = subscriptionRepository;
+        this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.httpClient = httpClient;
         this.vapidPublicKey = vapidPublicKey;
         this.vapidPrivateKey = vapidPrivateKey;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
 
-        Security.addProvider(new BouncyCastleProvider());
+    /* ------------------- SUBSCRIPTIONS ------------------- */
+    /** Adds a device for the user; re-subscribing the same endpoint refreshes it instead of duplicating it. */
+    public void saveSubscription(String userId, PushSubscription subscription) {
+        if (subscription.getEndpoint() == null || subscription.getP256dh() == null || subscription.getAuth() == null) {
+            throw new IllegalArgumentException("Subscription needs endpoint, p256dh and auth");
+        }
+        List<PushSubscription> existing = subscriptionRepository.findByEndpoint(subscription.getEndpoint());
+        PushSubscription target = existing.isEmpty() ? subscription : existing.get(0);
+        if (existing.size() > 1) subscriptionRepository.deleteAll(existing.subList(1, existing.size()));
 
-        this.pushService = new PushService(vapidPublicKey, vapidPrivateKey);
+        target.setUserId(userId);
+        target.setP256dh(subscription.getP256dh());
+        target.setAuth(subscription.getAuth());
+        if (target.getCreatedAt() == null) target.setCreatedAt(new Date());
+        subscriptionRepository.save(target);
+        logger.info("[PUSH] Subscription saved for user {}", userId);
     }
 
-    public void saveSubscription(String userId, PushSubscription subscription) {
-        subscription.setUserId(userId);
-        subscriptionRepository.save(subscription);
-        System.out.println("[PUSH] Subscription saved for user: " + userId);
+    public boolean removeSubscription(String userId, String endpoint) {
+        return subscriptionRepository.deleteByEndpointAndUserId(endpoint, userId) > 0;
+    }
+
+    /* ------------------- SENDING ------------------- */
+    /**
+     * Queues the notification for every device of {@code userId}.
+     *
+     * @return number of deliveries queued
+     */
+    public int sendPushNotification(String userId, String title, String message) {
+        return fanOut(subscriptionRepository.findByUserId(userId), title, message);
     }
 
-    public void sendPushNotification(String userId, String title, String message) {
-        Optional<PushSubscription> subscriptionOpt = subscriptionRepository.findByUserId(userId);
-        if (subscriptionOpt.isPresent()) {
-            PushSubscription subscriptionEntity = subscriptionOpt.get();
+    /**
+     * Store-wide alert to all subscribed devices, or only to users holding {@code role}.
+     *
+     * @return number of deliveries queued
+     */
+    public int broadcast(String title, String message, String role) {
+        List<PushSubscription> targets;
+        if (role == null || role.isBlank()) {
+            targets = subscriptionRepository.findAll();
+        } else {
+            Set<String> users = userRepository.findByRole(role.trim().toUpperCase(Locale.ROOT)).stream()
+                    .map(User::getEmail)
+                    .collect(Collectors.toSet());
+            targets = users.isEmpty() ? List.of() : subscriptionRepository.findByUserIdIn(users);
+        }
+        int queued = fanOut(targets, title, message);
+        logger.info("[PUSH] Broadcast '{}' to {} devices (role {})", title, queued, role == null ? "any" : role);
+        return queued;
+    }
 
+    private int fanOut(List<PushSubscription> subscriptions, String title, String message) {
+        if (subscriptions.isEmpty()) return 0;
+        String payload = payload(title, message);
+        int queued = 0;
+        for (PushSubscription sub : subscriptions) {
             try {
-                // Convert your entity to web-push library's Subscription object
-                Subscription subscription = new Subscription(
-                        subscriptionEntity.getEndpoint(),
-                        new Subscription.Keys(
-                                subscriptionEntity.getP256dh(),
-                                subscriptionEntity.getAuth()
-                        )
-                );
-
-                // Create notification payload (you can use JSON for more complex messages)
-                String payload = "{\"title\":\"" + title + "\",\"body\":\"" + message + "\"}";
-
-                // Create and send notification
-                Notification notification = new Notification(subscription, payload);
-                pushService.send(notification);
-
-                System.out.println("[PUSH] Notification sent to user: " + userId);
-            } catch (Exception e) {
-                System.err.println("[PUSH] Failed to send notification to user: " + userId + ", error: " + e.getMessage());
-                e.printStackTrace();
+                executor.execute(() -> deliver(sub, payload));
+                queued++;
+            } catch (TaskRejectedException e) {
+                count("rejected");
+                logger.warn("[PUSH] Fan-out queue full, dropped delivery to {}", sub.getUserId());
             }
         }
+        return queued;
     }
 
-}
\ No newline at end of file
+    void deliver(PushSubscription sub, String payload) {
+        try {
+            // First: it registers BouncyCastle, which Notification needs to parse the subscription keys
+            PushService service = pushService();
+            Notification notification = new Notification(
+                    new Subscription(sub.getEndpoint(), new Subscription.Keys(sub.getP256dh(), sub.getAuth())), payload);
+            HttpResponse<Void> response = httpClient.send(toRequest(service.preparePost(notification, Encoding.AES128GCM)),
+                    HttpResponse.BodyHandlers.discarding());
+
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                count("sent");
+                // Only this field: sub is the pre-fan-out snapshot, and a re-subscribe may have changed its keys
+                mongoTemplate.updateFirst(query(where("_id").is(sub.getId())),
+                        new Update().set("lastSuccessAt", new Date()), PushSubscription.class);
+            } else if (status == 404 || status == 410) {
+                // The browser unsubscribed or the endpoint expired; it will never succeed again
+                subscriptionRepository.delete(sub);
+                count("expired");
+                logger.info("[PUSH] Removed expired subscription of {} ({})", sub.getUserId(), status);
+            } else {
+                count("failed");
+                logger.warn("[PUSH] Push service answered {} for {}", status, sub.getUserId());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            count("failed");
+            logger.warn("[PUSH] Delivery to {} failed: {}", sub.getUserId(), e.getMessage());
+        }
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    private PushService pushService() throws GeneralSecurityException {
+        PushService service = pushService;
+        if (service == null) {
+            synchronized (this) {
+                service = pushService;
+                if (service == null) {
+                    if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+                        Security.addProvider(new BouncyCastleProvider());
+                    }
+                    service = new PushService(vapidPublicKey, vapidPrivateKey);
+                    pushService = service;
+                }
+            }
+        }
+        return service;
+    }
+
+    private HttpRequest toRequest(HttpPost post) throws java.io.IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(post.getURI())
+                .timeout(requestTimeout)
+                .POST(post.getEntity() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(EntityUtils.toByteArray(post.getEntity())));
+        for (Header h : post.getAllHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(h.getName().toLowerCase(Locale.ROOT))) request.header(h.getName(), h.getValue());
+        }
+        return request.build();
+    }
+
+    private String payload(String title, String message) {
+        try {
+            Map<String, String> body = new LinkedHashMap<>();
+            body.put("title", title);
+            body.put("body", message);
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("push.deliveries", "result", result).increment();
+    }
+}
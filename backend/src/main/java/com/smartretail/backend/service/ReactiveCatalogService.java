@@ -0,0 +1,116 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.smartretail.backend.models.Product;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Catalog reads on the reactive Mongo driver for {@code /api/reactive/**}. Nothing here
+ * blocks: a cursor is drained only as fast as the client consumes it, and no thread waits
+ * on Mongo while a request is in flight.
+ */
+@Service
+public class ReactiveCatalogService {
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReactiveGridFsTemplate gridFsTemplate;
+    private final ProductCatalogCache cache;
+    private final ImageRenditionService renditionService;
+    private final int batchSize;
+    private final int maxImageBytes;
+
+    public ReactiveCatalogService(ReactiveMongoTemplate mongoTemplate,
+                                  ReactiveGridFsTemplate gridFsTemplate,
+                                  ProductCatalogCache cache,
+                                  ImageRenditionService renditionService,
+                                  @Value("${reactive.cursor-batch-size:200}") int batchSize,
+                                  @Value("${reactive.image.max-bytes:10485760}") int maxImageBytes) {
+        this.mongoTemplate = mongoTemplate;
+        this.gridFsTemplate = gridFsTemplate;
+        this.cache = cache;
+        this.renditionService = renditionService;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxImageBytes = maxImageBytes;
+    }
+
+    /* ------------------- PRODUCTS ------------------- */
+    /** Products in productId order; same filters as the servlet listing, without paging. */
+    public Flux<Product> streamProducts(String category, boolean lowStock) {
+        Query query = new Query().with(Sort.by("productId")).cursorBatchSize(batchSize);
+        if (category != null && !category.isBlank()) query.addCriteria(Criteria.where("category").is(category));
+        if (lowStock) {
+            // Same rule as ProductRepository.findLowStockProducts
+            query.addCriteria(Criteria.expr(ComparisonOperators.valueOf("quantity").lessThan("reorderLevel")));
+        }
+        return mongoTemplate.find(query, Product.class);
+    }
+
+    /** Served from {@link ProductCatalogCache} when present; a miss reads Mongo without filling it. */
+    public Mono<Product> findProduct(String productId) {
+        return Mono.defer(() -> cache.getIfPresent(productId)
+                .map(Mono::just)
+                .orElseGet(() -> mongoTemplate.findOne(Query.query(Criteria.where("productId").is(productId)), Product.class)));
+    }
+
+    /* ------------------- IMAGES ------------------- */
+    /**
+     * An image or its rendition, read from GridFS in chunks and joined, so the response gets a
+     * length and range support. Falls back to the original while the rendition is pending,
+     * like {@link FileService#findImage}.
+     */
+    public Mono<FileService.StoredImage> findImage(String imageId, ImageRenditionService.Size size) {
+        if (imageId == null || !ObjectId.isValid(imageId)) return Mono.empty();
+        return findFile(new ObjectId(imageId))
+                // Same allow-list as the servlet path: receipt and report PDFs share the bucket
+                .filter(FileServiceImpl::isPublicImage)
+                .flatMap(original -> {
+                    if (size == null) return Mono.just(new Served(original, true));
+                    if (FileServiceImpl.isRendition(original)) return Mono.just(new Served(original, false));
+                    ObjectId renditionId = ImageRenditionService.renditionsOf(original).get(size.key());
+                    Mono<GridFSFile> rendition = renditionId == null ? Mono.empty()
+                            : renditionId.equals(original.getObjectId()) ? Mono.just(original) : findFile(renditionId);
+                    return rendition.map(r -> new Served(r, true))
+                            .switchIfEmpty(Mono.fromSupplier(() -> {
+                                renditionService.submit(imageId);
+                                return new Served(original, false);
+                            }));
+                })
+                .flatMap(served -> gridFsTemplate.getResource(served.file())
+                        .flatMap(resource -> DataBufferUtils.join(resource.getDownloadStream(), maxImageBytes))
+                        .map(buffer -> {
+                            byte[] bytes = new byte[buffer.readableByteCount()];
+                            buffer.read(bytes);
+                            DataBufferUtils.release(buffer);
+                            String fileId = served.file().getObjectId().toHexString();
+                            return new FileService.StoredImage(imageId, contentType(served.file()), bytes.length,
+                                    "\"" + fileId + "\"", new ByteArrayResource(bytes),
+                                    served.exact());
+                        }));
+    }
+
+    private Mono<GridFSFile> findFile(ObjectId id) {
+        return gridFsTemplate.findOne(Query.query(Criteria.where("_id").is(id)));
+    }
+
+    private static String contentType(GridFSFile file) {
+        String type = file.getMetadata().getString("contentType");
+        if (type == null) type = file.getMetadata().getString("_contentType");
+        return type != null ? type : DEFAULT_CONTENT_TYPE;
+    }
+
+    private record Served(GridFSFile file, boolean exact) {}
+}
@@ -0,0 +1,219 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.dto.FullReportResponse;
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.models.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Non-blocking counterparts of {@link ReportServiceImpl} and {@link AnalyticsService} for
+ * {@code /api/reactive/**}: aggregations on the reactive Mongo driver and Flask calls through
+ * {@link WebClient}. Response shapes match the servlet endpoints, so dashboards can switch
+ * by changing the base path only.
+ */
+@Service
+public class ReactiveReportService {
+
+    private static final int SALES_REPORT_BILLS = 100;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final WebClient flask;
+    private final MessageSource messageSource;
+    private final MeterRegistry meterRegistry;
+    private final Duration flaskTimeout;
+    private final Duration resultTtl;
+    private final int maxCachedResults;
+    private final int batchSize;
+
+    // Identical Flask calls share one round trip, and its result for resultTtl (cf. RequestCoalescer)
+    private final Map<String, Mono<Object>> flaskCalls = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReactiveReportService(ReactiveMongoTemplate mongoTemplate,
+                                 WebClient.Builder webClientBuilder,
+                                 MessageSource messageSource,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${flask.base.url:http://localhost:5001}") String flaskBaseUrl,
+                                 @Value("${reactive.flask.timeout-ms:30000}") long flaskTimeoutMs,
+                                 @Value("${analytics.coalesce.result-ttl-seconds:60}") long resultTtlSeconds,
+                                 @Value("${coalesce.max-cached-results:500}") int maxCachedResults,
+                                 @Value("${reactive.cursor-batch-size:200}") int batchSize) {
+        this(mongoTemplate, webClientBuilder.baseUrl(flaskBaseUrl).build(), messageSource, meterRegistry,
+                flaskTimeoutMs, resultTtlSeconds, maxCachedResults, batchSize);
+    }
+
+    ReactiveReportService(ReactiveMongoTemplate mongoTemplate,
+                          WebClient flask,
+                          MessageSource messageSource,
+                          MeterRegistry meterRegistry,
+                          long flaskTimeoutMs,
+                          long resultTtlSeconds,
+                          int maxCachedResults,
+                          int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.flask = flask;
+        this.messageSource = messageSource;
+        this.meterRegistry = meterRegistry;
+        this.flaskTimeout = Duration.ofMillis(flaskTimeoutMs);
+        this.resultTtl = Duration.ofSeconds(resultTtlSeconds);
+        this.maxCachedResults = Math.max(1, maxCachedResults);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /* ------------------- SALES ------------------- */
+    /** Same shape as {@link ReportService#getSalesReport}; the totals come from one aggregation. */
+    public Mono<Map<String, Object>> salesReport(Date startDate, Date endDate, Locale locale) {
+        if (startDate.after(endDate)) {
+            return Mono.error(new IllegalArgumentException(
+                    messageSource.getMessage("report.date.range.invalid", new Object[]{startDate, endDate}, locale)));
+        }
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("createdAt").gte(startDate).lte(endDate)),
+                Aggregation.group()
+                        .count().as("billCount")
+                        .sum("totalAmount").as("totalSales"));
+
+        Mono<Map> totals = mongoTemplate.aggregate(aggregation, "bills", Map.class).next();
+        Mono<List<Bill>> bills = mongoTemplate.find(
+                inRange(startDate, endDate).limit(SALES_REPORT_BILLS), Bill.class).collectList();
+
+        return timed("sales", totals.zipWith(bills)
+                .map(t -> sales(t.getT1(), t.getT2()))
+                .defaultIfEmpty(sales(null, List.of())));
+    }
+
+    /** Every bill in the range, oldest first, read from the cursor as the client consumes it. */
+    public Flux<Bill> streamBills(Date startDate, Date endDate) {
+        return mongoTemplate.find(inRange(startDate, endDate).cursorBatchSize(batchSize), Bill.class);
+    }
+
+    private static Query inRange(Date startDate, Date endDate) {
+        return Query.query(Criteria.where("createdAt").gte(startDate).lte(endDate))
+                .with(Sort.by("createdAt"));
+    }
+
+    private static Map<String, Object> sales(Map<?, ?> totals, List<Bill> bills) {
+        Map<String, Object> result = new HashMap<>();
+        int billCount = totals != null && totals.get("billCount") instanceof Number n ? n.intValue() : 0;
+        double totalSales = totals != null && totals.get("totalSales") instanceof Number n ? n.doubleValue() : 0.0;
+        double average = billCount > 0 ? totalSales / billCount : 0.0;
+        result.put("totalSales", totalSales);
+        result.put("billCount", billCount);
+        result.put("averageBillAmount", Math.round(average * 100.0) / 100.0);
+        result.put("bills", billCount > 0 ? bills : List.of());
+        return result;
+    }
+
+    /* ------------------- INVENTORY ------------------- */
+    /**
+     * Same shape as {@link ReportService#getInventoryReport}, but low-stock and expiring
+     * products are selected by Mongo and the three reads run concurrently.
+     */
+    public Mono<Map<String, Object>> inventoryReport(int lowStockThreshold, int expiryDays, Locale locale) {
+        if (lowStockThreshold < 0) {
+            return Mono.error(new IllegalArgumentException(
+                    messageSource.getMessage("report.lowStockThreshold.invalid", null, locale)));
+        }
+        if (expiryDays < 0) {
+            return Mono.error(new IllegalArgumentException(
+                    messageSource.getMessage("report.expiryDays.invalid", null, locale)));
+        }
+        Date expiryDate = new Date(System.currentTimeMillis() + Duration.ofDays(expiryDays).toMillis());
+
+        Mono<Long> total = mongoTemplate.count(new Query(), Product.class);
+        Mono<List<Product>> lowStock = mongoTemplate.find(
+                Query.query(Criteria.where("quantity").lte(lowStockThreshold)), Product.class).collectList();
+        Mono<List<Product>> expiring = mongoTemplate.find(
+                Query.query(Criteria.where("expiryDate").ne(null).lte(expiryDate)), Product.class).collectList();
+
+        return timed("inventory", Mono.zip(total, lowStock, expiring).flatMap(t -> {
+            if (t.getT1() == 0) {
+                return Mono.<Map<String, Object>>error(new IllegalArgumentException(
+                        messageSource.getMessage("report.no.products.found", null, locale)));
+            }
+            Map<String, Object> result = new HashMap<>();
+            result.put("totalProducts", t.getT1().intValue());
+            result.put("lowStockProducts", t.getT2());
+            result.put("expiringProducts", t.getT3());
+            result.put("lowStockCount", t.getT2().size());
+            result.put("expiringCount", t.getT3().size());
+            return Mono.just(result);
+        }));
+    }
+
+    /* ------------------- FLASK ------------------- */
+    public Mono<Object> analyticsReport(String startDate, String endDate, Locale locale) {
+        return fromFlask("/analytics/report", "report", startDate, endDate, locale);
+    }
+
+    public Mono<Object> analyticsTextReport(String startDate, String endDate, Locale locale) {
+        return fromFlask("/analytics/report/text", "report_text", startDate, endDate, locale);
+    }
+
+    /** Flask's two reports and the inventory report, fetched at the same time rather than one after another. */
+    public Mono<FullReportResponse> fullReport(String startDate, String endDate, int lowStockThreshold,
+                                               int expiryDays, Locale locale) {
+        return timed("full", Mono.zip(
+                analyticsReport(startDate, endDate, locale),
+                analyticsTextReport(startDate, endDate, locale),
+                inventoryReport(lowStockThreshold, expiryDays, locale))
+                .map(t -> new FullReportResponse(t.getT1(), t.getT2(), t.getT3())));
+    }
+
+    private Mono<Object> fromFlask(String path, String endpoint, String startDate, String endDate, Locale locale) {
+        String key = String.join("|", endpoint, String.valueOf(startDate), String.valueOf(endDate), locale.toLanguageTag());
+        if (flaskCalls.size() >= maxCachedResults) flaskCalls.clear();
+        return flaskCalls.computeIfAbsent(key, k -> callFlask(path, endpoint, startDate, endDate, locale)
+                // Failures are not kept: the next subscriber retries
+                .cache(value -> resultTtl, error -> Duration.ZERO, () -> Duration.ZERO));
+    }
+
+    private Mono<Object> callFlask(String path, String endpoint, String startDate, String endDate, Locale locale) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return flask.get()
+                    .uri(uri -> uri.path(path)
+                            .queryParamIfPresent("startDate", Optional.ofNullable(startDate))
+                            .queryParamIfPresent("endDate", Optional.ofNullable(endDate))
+                            .build())
+                    .header(HttpHeaders.ACCEPT_LANGUAGE, locale.toLanguageTag())
+                    .retrieve()
+                    .bodyToMono(Object.class)
+                    .timeout(flaskTimeout)
+                    // Same meter as AnalyticsService, so both paths show up on one dashboard
+                    .doOnSuccess(v -> sample.stop(flaskTimer(endpoint, "success")))
+                    .doOnError(e -> sample.stop(flaskTimer(endpoint, "failure")));
+        });
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    private Timer flaskTimer(String endpoint, String outcome) {
+        return Timer.builder("flask.requests").tag("endpoint", endpoint).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    private <T> Mono<T> timed(String report, Mono<T> work) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return work.doFinally(signal -> sample.stop(
+                    Timer.builder("report.generate").tag("report", report).register(meterRegistry)));
+        });
+    }
+}
@@ -0,0 +1,54 @@
+package com.smartretail.backend.service;
+
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Receipt labels resolved once per locale. MessageSource lookups walk the
+ * bundle chain on every call, and a receipt needs nine of them.
+ */
+@Component
+public class ReceiptLabelSource {
+
+    private final MessageSource messageSource;
+    private final Map<Locale, ReceiptLabels> cache = new ConcurrentHashMap<>();
+
+    public ReceiptLabelSource(MessageSource messageSource) {
+        this.messageSource = messageSource;
+    }
+
+    public ReceiptLabels forLocale(Locale locale) {
+        Locale key = locale != null ? locale : Locale.ENGLISH;
+        return cache.computeIfAbsent(key, this::load);
+    }
+
+    /** Drops cached labels, e.g. after message bundles were reloaded. */
+    public void clear() {
+        cache.clear();
+    }
+
+    private ReceiptLabels load(Locale locale) {
+        return new ReceiptLabels(
+                t("pdf.bill.receiptTitle", locale),
+                t("pdf.bill.billId", locale),
+                t("pdf.bill.customer", locale),
+                t("pdf.bill.mobile", locale),
+                t("pdf.bill.product", locale),
+                t("pdf.bill.qty", locale),
+                t("pdf.bill.price", locale),
+                t("pdf.bill.subtotal", locale),
+                t("pdf.bill.total", locale));
+    }
+
+    // Fallback to the key itself if not found, to avoid errors
+    private String t(String key, Locale locale) {
+        return messageSource.getMessage(key, null, key, locale);
+    }
+
+    public record ReceiptLabels(String receiptTitle, String billId, String customer, String mobile,
+                                String product, String qty, String price, String subtotal, String total) {}
+}
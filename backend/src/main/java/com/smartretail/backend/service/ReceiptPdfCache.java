@@ -0,0 +1,230 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.smartretail.backend.models.Bill;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Rendered receipt PDFs keyed by (billId, locale, template version): a byte-bounded
+ * LRU in memory backed by GridFS. Each entry carries a fingerprint of the bill it
+ * was rendered from, so a changed bill is re-rendered even if invalidation was missed.
+ */
+@Service
+public class ReceiptPdfCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptPdfCache.class);
+    private static final String KIND = "receipt-pdf";
+    private static final String CONTENT_TYPE = "application/pdf";
+
+    private final PdfService pdfService;
+    private final GridFsTemplate gridFsTemplate;
+    private final GridFSBucket gridFSBucket;
+    private final MeterRegistry meterRegistry;
+    private final long maxBytes;
+    private final boolean gridFsEnabled;
+
+    // Access-ordered LRU, guarded by "this"
+    private final LinkedHashMap<String, CachedPdf> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    public ReceiptPdfCache(PdfService pdfService,
+                           GridFsTemplate gridFsTemplate,
+                           GridFSBucket gridFSBucket,
+                           MeterRegistry meterRegistry,
+                           @Value("${receipt.pdf.cache.max-bytes:33554432}") long maxBytes,
+                           @Value("${receipt.pdf.cache.gridfs-enabled:true}") boolean gridFsEnabled) {
+        this.pdfService = pdfService;
+        this.gridFsTemplate = gridFsTemplate;
+        this.gridFSBucket = gridFSBucket;
+        this.meterRegistry = meterRegistry;
+        this.maxBytes = maxBytes;
+        this.gridFsEnabled = gridFsEnabled;
+    }
+
+    /** Returns the cached receipt for this bill and locale, rendering and storing it on a miss. */
+    public CachedPdf get(Bill bill, Locale locale) {
+        String key = cacheKey(bill.getBillId(), locale);
+        String fingerprint = fingerprint(bill);
+
+        CachedPdf cached = fromMemory(key);
+        if (cached != null && cached.billFingerprint().equals(fingerprint)) {
+            count("hit");
+            return cached;
+        }
+
+        if (gridFsEnabled) {
+            cached = fromGridFs(key, fingerprint);
+            if (cached != null) {
+                count("gridfs_hit");
+                putInMemory(key, cached);
+                return cached;
+            }
+        }
+
+        count("miss");
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 * 1024);
+        pdfService.writeBillPdf(bill, locale, out);
+        byte[] bytes = out.toByteArray();
+        CachedPdf rendered = new CachedPdf(bytes, "\"" + sha256(bytes) + "\"", fingerprint);
+        putInMemory(key, rendered);
+        if (gridFsEnabled) {
+            store(key, bill.getBillId(), locale, rendered);
+        }
+        return rendered;
+    }
+
+    /** Drops every cached rendition of a bill (all locales, all template versions). */
+    public void invalidate(String billId) {
+        String prefix = billId + "|";
+        synchronized (this) {
+            Iterator<Map.Entry<String, CachedPdf>> it = memory.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, CachedPdf> e = it.next();
+                if (e.getKey().startsWith(prefix)) {
+                    memoryBytes -= e.getValue().bytes().length;
+                    it.remove();
+                }
+            }
+        }
+        if (gridFsEnabled) {
+            try {
+                gridFsTemplate.delete(Query.query(Criteria.where("metadata.kind").is(KIND)
+                        .and("metadata.billId").is(billId)));
+            } catch (Exception e) {
+                logger.warn("[RECEIPT CACHE] Failed to invalidate GridFS receipts for {}: {}", billId, e.getMessage());
+            }
+        }
+    }
+
+    /** Removes GridFS receipts rendered with an older template; they can never be hit again. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgeStaleTemplates() {
+        if (!gridFsEnabled) return;
+        Thread worker = new Thread(() -> {
+            try {
+                gridFsTemplate.delete(Query.query(Criteria.where("metadata.kind").is(KIND)
+                        .and("metadata.templateVersion").ne(pdfService.getTemplateVersion())));
+            } catch (Exception e) {
+                logger.warn("[RECEIPT CACHE] Stale template purge failed: {}", e.getMessage());
+            }
+        }, "receipt-cache-purge");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /* ------------------- MEMORY ------------------- */
+    private synchronized CachedPdf fromMemory(String key) {
+        return memory.get(key);
+    }
+
+    private synchronized void putInMemory(String key, CachedPdf pdf) {
+        if (pdf.bytes().length > maxBytes) return;
+        CachedPdf previous = memory.put(key, pdf);
+        if (previous != null) memoryBytes -= previous.bytes().length;
+        memoryBytes += pdf.bytes().length;
+        Iterator<Map.Entry<String, CachedPdf>> it = memory.entrySet().iterator();
+        while (memoryBytes > maxBytes && it.hasNext()) {
+            memoryBytes -= it.next().getValue().bytes().length;
+            it.remove();
+        }
+    }
+
+    /* ------------------- GRIDFS ------------------- */
+    private CachedPdf fromGridFs(String key, String fingerprint) {
+        try {
+            GridFSFile file = gridFsTemplate.findOne(Query.query(Criteria.where("metadata.cacheKey").is(key)));
+            if (file == null || file.getMetadata() == null) return null;
+            Document meta = file.getMetadata();
+            if (!fingerprint.equals(meta.getString("billFingerprint"))) {
+                gridFsTemplate.delete(Query.query(Criteria.where("_id").is(file.getObjectId())));
+                return null;
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) file.getLength());
+            gridFSBucket.downloadToStream(file.getObjectId(), out);
+            return new CachedPdf(out.toByteArray(), "\"" + meta.getString("sha256") + "\"", fingerprint);
+        } catch (Exception e) {
+            logger.warn("[RECEIPT CACHE] GridFS lookup failed for {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String key, String billId, Locale locale, CachedPdf pdf) {
+        try {
+            Document meta = new Document("kind", KIND)
+                    .append("cacheKey", key)
+                    .append("billId", billId)
+                    .append("locale", localeTag(locale))
+                    .append("templateVersion", pdfService.getTemplateVersion())
+                    .append("billFingerprint", pdf.billFingerprint())
+                    .append("sha256", pdf.etag().substring(1, pdf.etag().length() - 1))
+                    .append("contentType", CONTENT_TYPE);
+            // Replace rather than accumulate renditions for the same key
+            gridFsTemplate.delete(Query.query(Criteria.where("metadata.cacheKey").is(key)));
+            ObjectId id = gridFsTemplate.store(new ByteArrayInputStream(pdf.bytes()),
+                    "Bill_" + billId + ".pdf", CONTENT_TYPE, meta);
+            logger.debug("[RECEIPT CACHE] Stored {} as {}", key, id.toHexString());
+        } catch (Exception e) {
+            logger.warn("[RECEIPT CACHE] Failed to persist {} to GridFS: {}", key, e.getMessage());
+        }
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    private String cacheKey(String billId, Locale locale) {
+        return billId + "|" + localeTag(locale) + "|" + pdfService.getTemplateVersion();
+    }
+
+    private static String localeTag(Locale locale) {
+        return locale != null ? locale.toLanguageTag() : "en";
+    }
+
+    /** Hash of every bill field that appears on the receipt. */
+    static String fingerprint(Bill bill) {
+        StringBuilder sb = new StringBuilder(128)
+                .append(bill.getBillId()).append('|')
+                .append(bill.getTotalAmount()).append('|');
+        if (bill.getCustomer() != null) {
+            sb.append(bill.getCustomer().getName()).append('|').append(bill.getCustomer().getMobile()).append('|');
+        }
+        if (bill.getItems() != null) {
+            for (Bill.BillItem item : bill.getItems()) {
+                sb.append(item.getProductId()).append(',').append(item.getProductName()).append(',')
+                        .append(item.getQty()).append(',').append(item.getPrice()).append(';');
+            }
+        }
+        return sha256(sb.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16);
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("cache.gets", "cache", "receipt_pdf", "result", result).increment();
+    }
+
+    /** @param etag quoted strong validator (SHA-256 of the PDF bytes) */
+    public record CachedPdf(byte[] bytes, String etag, String billFingerprint) {}
+}
@@ -0,0 +1,194 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.service.ReceiptLabelSource.ReceiptLabels;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Fixed-width receipts for 80 mm thermal printers, as UTF-8 text or an ESC/POS
+ * byte stream. Uses the same labels as the PDF receipt but none of iText.
+ */
+@Service
+public class ReceiptTextRenderer {
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    // PC858 (Latin-1 + euro) is the most widely supported ESC/POS code page
+    private static final Charset ESC_POS_CHARSET = Charset.forName("IBM00858");
+    private static final int ESC_POS_CODE_PAGE = 19;
+    // 58 mm paper; below this the item name column has no room left next to the figures
+    static final int MIN_WIDTH = 32;
+
+    private final ReceiptLabelSource labelSource;
+    private final int width;
+    private final Timer textTimer;
+    private final Timer escPosTimer;
+
+    public ReceiptTextRenderer(ReceiptLabelSource labelSource,
+                               MeterRegistry meterRegistry,
+                               @Value("${receipt.text.width:48}") int width) {
+        if (width < MIN_WIDTH) {
+            throw new IllegalArgumentException("receipt.text.width must be at least " + MIN_WIDTH
+                    + " columns (58 mm paper), got " + width);
+        }
+        this.labelSource = labelSource;
+        this.width = width;
+        this.textTimer = Timer.builder("receipt.render").tag("type", "text").register(meterRegistry);
+        this.escPosTimer = Timer.builder("receipt.render").tag("type", "escpos").register(meterRegistry);
+    }
+
+    public byte[] renderText(Bill bill, Locale locale) {
+        return textTimer.record(() -> {
+            StringBuilder sb = new StringBuilder(width * 24);
+            for (Line line : layout(bill, labelSource.forLocale(locale), "₹")) {
+                String text = line.style == Style.TITLE || line.style == Style.CENTER ? center(line.text) : line.text;
+                sb.append(text).append('\n');
+            }
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    public byte[] renderEscPos(Bill bill, Locale locale) {
+        return escPosTimer.record(() -> {
+            ReceiptLabels labels = labelSource.forLocale(locale);
+            // Text-mode printers cannot draw Devanagari or Telugu; print English labels instead of '?'
+            if (!canEncode(labels)) {
+                labels = labelSource.forLocale(Locale.ENGLISH);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(width * 24 + 32);
+            out.write(ESC); out.write('@');                         // initialize
+            out.write(ESC); out.write('t'); out.write(ESC_POS_CODE_PAGE);
+            for (Line line : layout(bill, labels, "Rs.")) {
+                switch (line.style) {
+                    case TITLE -> {
+                        out.write(ESC); out.write('a'); out.write(1);   // center
+                        out.write(GS); out.write('!'); out.write(0x11); // double width + height
+                        writeLine(out, line.text);
+                        out.write(GS); out.write('!'); out.write(0);
+                        out.write(ESC); out.write('a'); out.write(0);
+                    }
+                    case CENTER -> {
+                        out.write(ESC); out.write('a'); out.write(1);
+                        writeLine(out, line.text);
+                        out.write(ESC); out.write('a'); out.write(0);
+                    }
+                    case BOLD -> {
+                        out.write(ESC); out.write('E'); out.write(1);
+                        writeLine(out, line.text);
+                        out.write(ESC); out.write('E'); out.write(0);
+                    }
+                    default -> writeLine(out, line.text);
+                }
+            }
+            out.write(ESC); out.write('d'); out.write(4);           // feed 4 lines
+            out.write(GS); out.write('V'); out.write(66); out.write(0); // partial cut
+            return out.toByteArray();
+        });
+    }
+
+    /* ------------------- LAYOUT ------------------- */
+    private List<Line> layout(Bill bill, ReceiptLabels labels, String currency) {
+        List<Line> lines = new ArrayList<>();
+        String rule = "-".repeat(width);
+
+        lines.add(new Line("SmartRetail", Style.TITLE));
+        lines.add(new Line(labels.receiptTitle(), Style.CENTER));
+        lines.add(new Line(rule, Style.NORMAL));
+        lines.add(new Line(labels.billId() + ": " + bill.getBillId(), Style.NORMAL));
+        if (bill.getCustomer() != null) {
+            lines.add(new Line(labels.customer() + ": " + orNa(bill.getCustomer().getName()), Style.NORMAL));
+            lines.add(new Line(labels.mobile() + ": " + orNa(bill.getCustomer().getMobile()), Style.NORMAL));
+        }
+        if (bill.getCreatedAt() != null) {
+            lines.add(new Line(new SimpleDateFormat("dd-MM-yyyy HH:mm").format(bill.getCreatedAt()), Style.NORMAL));
+        }
+        lines.add(new Line(rule, Style.NORMAL));
+
+        int qtyWidth = 4;
+        int priceWidth = 9;
+        int subtotalWidth = 10;
+        int nameWidth = width - qtyWidth - priceWidth - subtotalWidth - 3;
+        lines.add(new Line(row(labels.product(), labels.qty(), labels.price(), labels.subtotal(),
+                nameWidth, qtyWidth, priceWidth, subtotalWidth), Style.BOLD));
+
+        if (bill.getItems() != null) {
+            for (Bill.BillItem item : bill.getItems()) {
+                String name = item.getProductName() != null ? item.getProductName() : "Product " + item.getProductId();
+                // Long names wrap onto their own lines; the figures stay on the last one
+                while (name.length() > nameWidth) {
+                    lines.add(new Line(name.substring(0, nameWidth), Style.NORMAL));
+                    name = name.substring(nameWidth);
+                }
+                lines.add(new Line(row(name, String.valueOf(item.getQty()), amount(item.getPrice()),
+                        amount(item.getQty() * item.getPrice()), nameWidth, qtyWidth, priceWidth, subtotalWidth), Style.NORMAL));
+            }
+        }
+
+        lines.add(new Line(rule, Style.NORMAL));
+        lines.add(new Line(padLeft(labels.total() + ": " + currency + amount(bill.getTotalAmount()), width), Style.BOLD));
+        return lines;
+    }
+
+    private static String row(String name, String qty, String price, String subtotal,
+                              int nameWidth, int qtyWidth, int priceWidth, int subtotalWidth) {
+        return padRight(truncate(name, nameWidth), nameWidth) + " "
+                + padLeft(truncate(qty, qtyWidth), qtyWidth) + " "
+                + padLeft(truncate(price, priceWidth), priceWidth) + " "
+                + padLeft(truncate(subtotal, subtotalWidth), subtotalWidth);
+    }
+
+    private String center(String text) {
+        int pad = Math.max(0, (width - text.length()) / 2);
+        return " ".repeat(pad) + text;
+    }
+
+    private static String padRight(String s, int n) {
+        return s.length() >= n ? s : s + " ".repeat(n - s.length());
+    }
+
+    private static String padLeft(String s, int n) {
+        return s.length() >= n ? s : " ".repeat(n - s.length()) + s;
+    }
+
+    private static String truncate(String s, int n) {
+        return s.length() <= n ? s : s.substring(0, n);
+    }
+
+    private static String amount(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static String orNa(String value) {
+        return value != null ? value : "N/A";
+    }
+
+    private static boolean canEncode(ReceiptLabels labels) {
+        CharsetEncoder encoder = ESC_POS_CHARSET.newEncoder();
+        return encoder.canEncode(labels.receiptTitle() + labels.billId() + labels.customer() + labels.mobile()
+                + labels.product() + labels.qty() + labels.price() + labels.subtotal() + labels.total());
+    }
+
+    private static void writeLine(ByteArrayOutputStream out, String text) {
+        out.writeBytes(text.getBytes(ESC_POS_CHARSET));
+        out.write('\n');
+    }
+
+    private enum Style { TITLE, CENTER, BOLD, NORMAL }
+
+    private record Line(String text, Style style) {}
+}
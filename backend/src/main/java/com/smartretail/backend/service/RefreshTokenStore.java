@@ -0,0 +1,210 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.RefreshToken;
+import com.smartretail.backend.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Refresh tokens are stored only as a SHA-256 {@code tokenHash} (unique index) and expire
+ * through a TTL index on {@code expiryDate}. Revoked hashes are mirrored into an in-memory
+ * Bloom filter, so a refresh answers "not revoked" without Mongo and only a filter hit is
+ * confirmed against the collection. The filter is rebuilt periodically, which drops expired
+ * entries and picks up revocations made on other nodes.
+ */
+@Service
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private final RefreshTokenRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int expectedRevocations;
+
+    // Null until the first build; checks go straight to Mongo meanwhile
+    private volatile BloomFilter revoked;
+    // Non-null while a rebuild is loading; hashes revoked meanwhile are re-added after the swap
+    private volatile Set<String> revokedDuringRebuild;
+
+    public RefreshTokenStore(RefreshTokenRepository repository,
+                             MongoTemplate mongoTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${auth.revocation.expected-entries:100000}") int expectedRevocations) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.expectedRevocations = Math.max(1000, expectedRevocations);
+    }
+
+    /* ------------------- ISSUE / CHECK ------------------- */
+    public void save(String userId, String token, Date expiryDate) {
+        repository.save(new RefreshToken(userId, hash(token), expiryDate));
+    }
+
+    /** The stored record for a token, by hash; falls back to records written before hashing. */
+    public Optional<RefreshToken> find(String token) {
+        Optional<RefreshToken> stored = repository.findByTokenHash(hash(token));
+        return stored.isPresent() ? stored : repository.findByToken(token);
+    }
+
+    public boolean isRevoked(String token) {
+        String hash = hash(token);
+        BloomFilter filter = revoked;
+        if (filter != null && !filter.mightContain(hash)) {
+            count("clear");
+            return false;
+        }
+        boolean confirmed = repository.findByTokenHash(hash).map(t -> t.getRevokedAt() != null).orElse(false);
+        count(filter == null ? "unfiltered" : confirmed ? "revoked" : "false_positive");
+        return confirmed;
+    }
+
+    /* ------------------- REVOKE ------------------- */
+    public void revoke(String token) {
+        String hash = hash(token);
+        remember(hash);
+        mongoTemplate.updateFirst(Query.query(Criteria.where("tokenHash").is(hash).and("revokedAt").is(null)),
+                Update.update("revokedAt", new Date()), RefreshToken.class);
+    }
+
+    /**
+     * Revokes every live refresh token of a user (logout on all devices).
+     *
+     * @return number of tokens revoked
+     */
+    public long revokeAll(String userId) {
+        Query live = Query.query(Criteria.where("userId").is(userId).and("revokedAt").is(null)
+                .and("expiryDate").gt(new Date()));
+        live.fields().include("tokenHash");
+        // Into the filter before the write, so no check can slip between the two
+        List<Document> tokens = mongoTemplate.find(live, Document.class, "refresh_tokens");
+        tokens.forEach(t -> {
+            if (t.getString("tokenHash") != null) remember(t.getString("tokenHash"));
+        });
+        // Legacy records without a hash are revoked in Mongo only; their checks find them there
+        return mongoTemplate.updateMulti(Query.query(Criteria.where("userId").is(userId).and("revokedAt").is(null)),
+                Update.update("revokedAt", new Date()), RefreshToken.class).getModifiedCount();
+    }
+
+    private void remember(String hash) {
+        BloomFilter filter = revoked;
+        if (filter != null) filter.put(hash);
+        Set<String> pending = revokedDuringRebuild;
+        if (pending != null) pending.add(hash);
+    }
+
+    /* ------------------- FILTER ------------------- */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("[AUTH] Initial revocation filter build failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-ms:60000}",
+            initialDelayString = "${auth.revocation.refresh-ms:60000}")
+    public void rebuild() {
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        revokedDuringRebuild = pending;
+        try {
+            Query query = Query.query(Criteria.where("revokedAt").ne(null).and("expiryDate").gt(new Date())
+                    .and("tokenHash").ne(null));
+            query.fields().include("tokenHash");
+            BloomFilter fresh = new BloomFilter(expectedRevocations, 0.001);
+            int count = 0;
+            try (var stream = mongoTemplate.stream(query, Document.class, "refresh_tokens")) {
+                for (Document d : (Iterable<Document>) stream::iterator) {
+                    fresh.put(d.getString("tokenHash"));
+                    count++;
+                }
+            }
+            revoked = fresh;
+            pending.forEach(fresh::put);
+            logger.debug("[AUTH] Revocation filter rebuilt with {} entries", count);
+        } finally {
+            revokedDuringRebuild = null;
+        }
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("auth.revocation.checks", "result", result).increment();
+    }
+
+    /**
+     * Bloom filter over hex SHA-256 strings. The input is already a uniform hash, so the k
+     * probe positions come from its first 128 bits by double hashing.
+     */
+    static final class BloomFilter {
+        private final long[] bits;
+        private final int bitCount;
+        private final int hashes;
+
+        BloomFilter(int expectedEntries, double falsePositiveRate) {
+            long m = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * Math.log(2)));
+            this.bits = new long[(bitCount + 63) / 64];
+        }
+
+        void put(String hexHash) {
+            long h1 = Long.parseUnsignedLong(hexHash.substring(0, 16), 16);
+            long h2 = Long.parseUnsignedLong(hexHash.substring(16, 32), 16);
+            synchronized (this) {
+                for (int i = 0; i < hashes; i++) {
+                    int bit = index(h1, h2, i);
+                    bits[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+
+        boolean mightContain(String hexHash) {
+            long h1 = Long.parseUnsignedLong(hexHash.substring(0, 16), 16);
+            long h2 = Long.parseUnsignedLong(hexHash.substring(16, 32), 16);
+            synchronized (this) {
+                for (int i = 0; i < hashes; i++) {
+                    int bit = index(h1, h2, i);
+                    if ((bits[bit >>> 6] & (1L << bit)) == 0) return false;
+                }
+            }
+            return true;
+        }
+
+        private int index(long h1, long h2, int i) {
+            return (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.smartretail.backend.dto.FullReportResponse;
+import com.smartretail.backend.models.ReportJob;
+import com.smartretail.backend.repository.ReportJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs executive report PDFs on a bounded pool instead of request threads.
+ * Identical requests share one job (in flight or finished within the reuse window);
+ * results live in GridFS and requesters get a push notification when done.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+    private static final String KIND = "report-pdf";
+
+    private final ReportService reportService;
+    private final ReportPdfService reportPdfService;
+    private final ReportJobRepository jobRepository;
+    private final GridFsTemplate gridFsTemplate;
+    private final GridFSBucket gridFSBucket;
+    private final PushNotificationService pushNotificationService;
+    private final ThreadPoolTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final long reuseWindowMs;
+    private final int retentionDays;
+
+    // jobKey -> completion of the job currently queued or running for it
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService,
+                            ReportPdfService reportPdfService,
+                            ReportJobRepository jobRepository,
+                            GridFsTemplate gridFsTemplate,
+                            GridFSBucket gridFSBucket,
+                            PushNotificationService pushNotificationService,
+                            @Qualifier("reportJobExecutor") ThreadPoolTaskExecutor executor,
+                            MeterRegistry meterRegistry,
+                            @Value("${report.jobs.reuse-window-minutes:15}") long reuseWindowMinutes,
+                            @Value("${report.jobs.retention-days:7}") int retentionDays) {
+        this.reportService = reportService;
+        this.reportPdfService = reportPdfService;
+        this.jobRepository = jobRepository;
+        this.gridFsTemplate = gridFsTemplate;
+        this.gridFSBucket = gridFSBucket;
+        this.pushNotificationService = pushNotificationService;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.reuseWindowMs = reuseWindowMinutes * 60_000L;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * Returns the job producing this report, creating one only if no identical job is
+     * in flight or recently finished. The future completes when the job is DONE or FAILED.
+     *
+     * @throws TaskRejectedException when the job queue is full
+     */
+    public Submission submit(String startDate, String endDate, int lowStockThreshold, int expiryDays,
+                             Locale locale, String requestedBy) {
+        String jobKey = jobKey(startDate, endDate, lowStockThreshold, expiryDays, locale);
+
+        InFlight running = inFlight.get(jobKey);
+        if (running != null) {
+            running.addRequester(requestedBy);
+            count("deduplicated");
+            return new Submission(running.job, running.future);
+        }
+
+        Optional<ReportJob> recent = jobRepository.findFirstByJobKeyAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+                jobKey, ReportJob.Status.DONE, new Date(System.currentTimeMillis() - reuseWindowMs));
+        if (recent.isPresent()) {
+            count("reused");
+            return new Submission(recent.get(), CompletableFuture.completedFuture(recent.get()));
+        }
+
+        ReportJob job = new ReportJob(jobKey, startDate, endDate, lowStockThreshold, expiryDays, locale.toLanguageTag());
+        InFlight created = new InFlight(job);
+        InFlight existing = inFlight.putIfAbsent(jobKey, created);
+        if (existing != null) {
+            // Lost the race against an identical request
+            existing.addRequester(requestedBy);
+            count("deduplicated");
+            return new Submission(existing.job, existing.future);
+        }
+
+        created.addRequester(requestedBy);
+        job.getRequestedBy().addAll(created.requesters);
+        jobRepository.save(job);
+        try {
+            executor.execute(() -> run(created, locale));
+        } catch (TaskRejectedException e) {
+            inFlight.remove(jobKey, created);
+            job.setStatus(ReportJob.Status.FAILED);
+            job.setError("Report queue is full");
+            job.setCompletedAt(new Date());
+            jobRepository.save(job);
+            count("rejected");
+            throw e;
+        }
+        count("queued");
+        logger.info("[REPORT JOB] Queued job {} for {} to {} ({})", job.getId(), startDate, endDate, locale);
+        return new Submission(job, created.future);
+    }
+
+    public Optional<ReportJob> getJob(String jobId) {
+        InFlight running = inFlight.values().stream()
+                .filter(f -> jobId.equals(f.job.getId())).findFirst().orElse(null);
+        return running != null ? Optional.of(running.job) : jobRepository.findById(jobId);
+    }
+
+    /** PDF bytes of a finished job, or empty if the job is unknown, unfinished or its file expired. */
+    public Optional<byte[]> getResult(ReportJob job) {
+        if (job.getStatus() != ReportJob.Status.DONE || job.getResultFileId() == null) {
+            return Optional.empty();
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) job.getResultSize());
+            gridFSBucket.downloadToStream(new ObjectId(job.getResultFileId()), out);
+            return Optional.of(out.toByteArray());
+        } catch (Exception e) {
+            logger.warn("[REPORT JOB] Result for job {} unavailable: {}", job.getId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Nightly removal of old job records and their PDFs. */
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void purgeExpired() {
+        Date cutoff = new Date(System.currentTimeMillis() - retentionDays * 86_400_000L);
+        try {
+            gridFsTemplate.delete(Query.query(Criteria.where("metadata.kind").is(KIND).and("uploadDate").lt(cutoff)));
+            jobRepository.deleteByCreatedAtBefore(cutoff);
+            logger.info("[REPORT JOB] Purged report jobs older than {}", cutoff);
+        } catch (Exception e) {
+            logger.error("[REPORT JOB] Purge failed: {}", e.getMessage());
+        }
+    }
+
+    /* ------------------- WORKER ------------------- */
+    private void run(InFlight task, Locale locale) {
+        ReportJob job = task.job;
+        // AnalyticsService forwards the request locale to Flask via LocaleContextHolder
+        LocaleContextHolder.setLocale(locale);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            job.setStatus(ReportJob.Status.RUNNING);
+            job.setStartedAt(new Date());
+            jobRepository.save(job);
+
+            FullReportResponse data = reportService.getFullReportData(job.getStartDate(), job.getEndDate(),
+                    job.getLowStockThreshold(), job.getExpiryDays(), locale);
+            byte[] pdf = reportPdfService.generateFullReportPdf(data, job.getStartDate(), job.getEndDate(), locale);
+
+            Document meta = new Document("kind", KIND)
+                    .append("jobKey", job.getJobKey())
+                    .append("jobId", job.getId())
+                    .append("contentType", "application/pdf");
+            ObjectId fileId = gridFsTemplate.store(new ByteArrayInputStream(pdf), fileName(job), "application/pdf", meta);
+
+            job.setResultFileId(fileId.toHexString());
+            job.setResultSize(pdf.length);
+            job.setStatus(ReportJob.Status.DONE);
+            logger.info("[REPORT JOB] Job {} done ({} bytes)", job.getId(), pdf.length);
+        } catch (Exception e) {
+            outcome = "failure";
+            job.setStatus(ReportJob.Status.FAILED);
+            job.setError(e.getMessage());
+            logger.error("[REPORT JOB] Job {} failed: {}", job.getId(), e.getMessage(), e);
+        } finally {
+            LocaleContextHolder.resetLocaleContext();
+            job.setCompletedAt(new Date());
+            job.getRequestedBy().addAll(task.requesters);
+            try {
+                jobRepository.save(job);
+            } catch (Exception e) {
+                logger.error("[REPORT JOB] Failed to persist job {}: {}", job.getId(), e.getMessage());
+            }
+            // Remove before completing so a new request after completion sees the stored job
+            inFlight.remove(job.getJobKey(), task);
+            task.future.complete(job);
+            sample.stop(Timer.builder("report.job").tag("outcome", outcome).register(meterRegistry));
+            notifyRequesters(job, task.requesters);
+        }
+    }
+
+    private void notifyRequesters(ReportJob job, Set<String> requesters) {
+        boolean done = job.getStatus() == ReportJob.Status.DONE;
+        String title = done ? "Report ready" : "Report failed";
+        String message = done
+                ? "Report " + job.getStartDate() + " to " + job.getEndDate() + " is ready: /api/reports/jobs/" + job.getId() + "/pdf"
+                : "Report " + job.getStartDate() + " to " + job.getEndDate() + " could not be generated";
+        for (String user : requesters) {
+            try {
+                pushNotificationService.sendPushNotification(user, title, message);
+            } catch (Exception e) {
+                logger.warn("[REPORT JOB] Push to {} failed: {}", user, e.getMessage());
+            }
+        }
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    static String jobKey(String startDate, String endDate, int lowStockThreshold, int expiryDays, Locale locale) {
+        String raw = startDate + "|" + endDate + "|" + lowStockThreshold + "|" + expiryDays + "|" + locale.toLanguageTag();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String fileName(ReportJob job) {
+        return String.format("SmartRetail_Report_%s_to_%s.pdf", job.getStartDate(), job.getEndDate());
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("report.job.submissions", "result", result).increment();
+    }
+
+    private static final class InFlight {
+        final ReportJob job;
+        final CompletableFuture<ReportJob> future = new CompletableFuture<>();
+        final Set<String> requesters = ConcurrentHashMap.newKeySet();
+
+        InFlight(ReportJob job) {
+            this.job = job;
+        }
+
+        void addRequester(String user) {
+            if (user != null) requesters.add(user);
+        }
+    }
+
+    public record Submission(ReportJob job, CompletableFuture<ReportJob> completion) {}
+}
@@ -15,6 +15,8 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.smartretail.backend.dto.FullReportResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -37,10 +39,12 @@ public class ReportPdfServiceImpl implements ReportPdfService {
 
     // --- NEW FIELD ---
     private final MessageSource messageSource;
+    private final Timer renderTimer;
 
     // --- NEW CONSTRUCTOR ---
-    public ReportPdfServiceImpl(MessageSource messageSource) {
+    public ReportPdfServiceImpl(MessageSource messageSource, MeterRegistry meterRegistry) {
         this.messageSource = messageSource;
+        this.renderTimer = Timer.builder("pdf.render").tag("type", "report").register(meterRegistry);
     }
 
     // --- NEW HELPER METHOD ---
@@ -50,6 +54,10 @@ public class ReportPdfServiceImpl implements ReportPdfService {
 
     @Override
     public byte[] generateFullReportPdf(FullReportResponse reportData, String startDate, String endDate, Locale locale) {
+        return renderTimer.record(() -> renderFullReportPdf(reportData, startDate, endDate, locale));
+    }
+
+    private byte[] renderFullReportPdf(FullReportResponse reportData, String startDate, String endDate, Locale locale) {
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
             PdfWriter writer = new PdfWriter(outputStream);
             PdfDocument pdf = new PdfDocument(writer);
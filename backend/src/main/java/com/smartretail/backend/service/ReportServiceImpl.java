@@ -5,9 +5,12 @@ import com.smartretail.backend.models.Bill;
 import com.smartretail.backend.models.Product;
 import com.smartretail.backend.repository.BillRepository;
 import com.smartretail.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
@@ -25,19 +28,33 @@ public class ReportServiceImpl implements ReportService {
     private final MongoTemplate mongoTemplate;
     private final MessageSource messageSource;
     private final AnalyticsService analyticsService;
+    private final MeterRegistry meterRegistry;
+    // The coalescing front (@Primary), so a full report shares its inventory half with /reports/inventory
+    private final ReportService reports;
 
     public ReportServiceImpl(BillRepository billRepository, ProductRepository productRepository,
                              MongoTemplate mongoTemplate, MessageSource messageSource,
-                             AnalyticsService analyticsService) {
+                             AnalyticsService analyticsService, MeterRegistry meterRegistry,
+                             @Lazy ReportService reports) {
         this.billRepository = billRepository;
         this.productRepository = productRepository;
         this.mongoTemplate = mongoTemplate;
         this.messageSource = messageSource;
         this.analyticsService = analyticsService;
+        this.meterRegistry = meterRegistry;
+        this.reports = reports;
+    }
+
+    private Timer reportTimer(String report) {
+        return Timer.builder("report.generate").tag("report", report).register(meterRegistry);
     }
 
     @Override
     public Map<String, Object> getSalesReport(Date startDate, Date endDate, Locale locale) {
+        return reportTimer("sales").record(() -> buildSalesReport(startDate, endDate, locale));
+    }
+
+    private Map<String, Object> buildSalesReport(Date startDate, Date endDate, Locale locale) {
         logger.debug("[SERVICE] Generating sales report for range: {} to {}", startDate, endDate);
         if (startDate.after(endDate)) {
             logger.error("[SERVICE] Invalid date range: startDate={} is after endDate={}", startDate, endDate);
@@ -112,6 +129,10 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     public Map<String, Object> getInventoryReport(int lowStockThreshold, int expiryDays, Locale locale) {
+        return reportTimer("inventory").record(() -> buildInventoryReport(lowStockThreshold, expiryDays, locale));
+    }
+
+    private Map<String, Object> buildInventoryReport(int lowStockThreshold, int expiryDays, Locale locale) {
         logger.debug("[SERVICE] Generating inventory report: lowStockThreshold={}, expiryDays={}", lowStockThreshold, expiryDays);
         if (lowStockThreshold < 0) {
             logger.error("[SERVICE] Invalid low stock threshold: {}", lowStockThreshold);
@@ -159,6 +180,10 @@ public class ReportServiceImpl implements ReportService {
 
     @Override
     public FullReportResponse getFullReportData(String startDate, String endDate, int lowStockThreshold, int expiryDays, Locale locale) {
+        return reportTimer("full").record(() -> buildFullReportData(startDate, endDate, lowStockThreshold, expiryDays, locale));
+    }
+
+    private FullReportResponse buildFullReportData(String startDate, String endDate, int lowStockThreshold, int expiryDays, Locale locale) {
         logger.debug("Gathering full report data for: {} to {}", startDate, endDate);
 
         // 1. Get Sales Report from Flask
@@ -167,8 +192,8 @@ public class ReportServiceImpl implements ReportService {
         // 2. Get Text Summary from Flask
         Object textSummary = analyticsService.getTextReport(startDate, endDate);
 
-        // 3. Get Inventory Report from Spring (this same service)
-        Map<String, Object> inventoryReport = this.getInventoryReport(lowStockThreshold, expiryDays, locale);
+        // 3. Get Inventory Report from Spring (through the coalescing front, not this instance)
+        Map<String, Object> inventoryReport = reports.getInventoryReport(lowStockThreshold, expiryDays, locale);
 
         // 4. Combine into one response
         return FullReportResponse.builder()
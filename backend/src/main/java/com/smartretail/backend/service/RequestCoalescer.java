@@ -0,0 +1,114 @@
+package com.smartretail.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution for expensive read paths: concurrent calls with the same
+ * name and arguments share one computation, optionally followed by a short result cache.
+ * Failures are handed to every waiting caller but never cached.
+ */
+@Component
+public class RequestCoalescer {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxCachedResults;
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<Key, CachedResult> results = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(MeterRegistry meterRegistry,
+                            @Value("${coalesce.max-cached-results:500}") int maxCachedResults) {
+        this.meterRegistry = meterRegistry;
+        this.maxCachedResults = maxCachedResults;
+        meterRegistry.gauge("coalesce.inflight", inFlight, Map::size);
+    }
+
+    /**
+     * Runs {@code loader} unless an identical call is already running (then waits for its
+     * result) or finished less than {@code ttl} ago. Arguments must have value equality.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Duration ttl, Supplier<T> loader, Object... args) {
+        Key key = new Key(name, Arrays.asList(args));
+        boolean cacheable = ttl != null && !ttl.isZero() && !ttl.isNegative();
+
+        if (cacheable) {
+            CachedResult cached = results.get(key);
+            if (cached != null && cached.expiresAt > System.currentTimeMillis()) {
+                count(name, "cached");
+                return (T) cached.value;
+            }
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            count(name, "joined");
+            return (T) await(running);
+        }
+
+        count(name, "leader");
+        try {
+            T value = loader.get();
+            if (cacheable) {
+                // Stored before the in-flight entry goes away so the next caller sees it
+                cache(key, value, ttl);
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Drops cached results for one name, e.g. after data behind it changed. */
+    public void invalidate(String name) {
+        results.keySet().removeIf(k -> k.name.equals(name));
+    }
+
+    /* ------------------- HELPERS ------------------- */
+    private void cache(Key key, Object value, Duration ttl) {
+        if (results.size() >= maxCachedResults) {
+            long now = System.currentTimeMillis();
+            results.values().removeIf(r -> r.expiresAt <= now);
+            if (results.size() >= maxCachedResults) {
+                // Entries live for seconds, so dropping everything is cheaper than tracking recency
+                results.clear();
+            }
+        }
+        results.put(key, new CachedResult(value, System.currentTimeMillis() + ttl.toMillis()));
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Rethrow the leader's exception as-is so callers see the same error type
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            if (e.getCause() instanceof Error err) throw err;
+            throw e;
+        }
+    }
+
+    private void count(String name, String result) {
+        meterRegistry.counter("coalesce.requests", "name", name, "result", result).increment();
+    }
+
+    private record Key(String name, List<Object> args) {}
+
+    private record CachedResult(Object value, long expiresAt) {}
+}
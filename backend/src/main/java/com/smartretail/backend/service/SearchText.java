@@ -0,0 +1,149 @@
+package com.smartretail.backend.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Text normalisation shared by the product search index and its queries:
+ * Devanagari (Hindi, Marathi) and Telugu are transliterated to Latin, then every
+ * token is reduced to a loose phonetic key so "चावल", "chawal" and "chaaval" meet.
+ */
+final class SearchText {
+
+    private static final int DEVANAGARI = 0x0900;
+    private static final int TELUGU = 0x0C00;
+
+    // Both blocks follow the ISCII layout, so one table indexed by the offset in the block serves both
+    private static final String[] VOWELS = new String[0x80];
+    private static final String[] CONSONANTS = new String[0x80];
+    private static final String[] MATRAS = new String[0x80];
+    private static final int VIRAMA = 0x4D;
+
+    static {
+        String[] v = {"a", "aa", "i", "ii", "u", "uu", "ri", "li", "e", "e", "e", "ai", "o", "o", "o", "au"};
+        for (int i = 0; i < v.length; i++) VOWELS[0x05 + i] = v[i];
+
+        String[] c = {"k", "kh", "g", "gh", "n", "ch", "chh", "j", "jh", "n",
+                "t", "th", "d", "dh", "n", "t", "th", "d", "dh", "n", "n",
+                "p", "ph", "b", "bh", "m", "y", "r", "r", "l", "l", "l", "v", "sh", "sh", "s", "h"};
+        for (int i = 0; i < c.length; i++) CONSONANTS[0x15 + i] = c[i];
+
+        String[] m = {"aa", "i", "ii", "u", "uu", "ri", "rii", "e", "e", "e", "ai", "o", "o", "o", "au"};
+        for (int i = 0; i < m.length; i++) MATRAS[0x3E + i] = m[i];
+
+        // candrabindu, anusvara, visarga
+        VOWELS[0x01] = "n";
+        VOWELS[0x02] = "n";
+        VOWELS[0x03] = "h";
+    }
+
+    private SearchText() {
+    }
+
+    /** Distinct phonetic keys of the words in {@code text}, in order of appearance. */
+    static List<String> keys(String text) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (text == null) return new ArrayList<>();
+        for (String word : latin(text).split("[^a-z0-9]+")) {
+            if (word.isEmpty()) continue;
+            keys.add(fold(word));
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /** Lower-case ASCII form: Indic scripts transliterated, Latin diacritics stripped. */
+    static String latin(String text) {
+        String translit = transliterate(text);
+        String stripped = Normalizer.normalize(translit, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+        return stripped.toLowerCase(Locale.ROOT);
+    }
+
+    static String transliterate(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 8);
+        boolean pendingSchwa = false;
+        boolean devanagariSchwa = false;
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            int block = ch >= DEVANAGARI && ch < DEVANAGARI + 0x80 ? DEVANAGARI
+                    : ch >= TELUGU && ch < TELUGU + 0x80 ? TELUGU : -1;
+            if (block < 0) {
+                if (pendingSchwa && !(devanagariSchwa && !Character.isLetterOrDigit(ch))) out.append('a');
+                pendingSchwa = false;
+                out.append(ch);
+                continue;
+            }
+            int off = ch - block;
+            if (CONSONANTS[off] != null) {
+                if (pendingSchwa) out.append('a');
+                out.append(CONSONANTS[off]);
+                pendingSchwa = true;
+                devanagariSchwa = block == DEVANAGARI;
+            } else if (MATRAS[off] != null) {
+                out.append(MATRAS[off]);
+                pendingSchwa = false;
+            } else if (off == VIRAMA) {
+                pendingSchwa = false;
+            } else if (VOWELS[off] != null) {
+                if (pendingSchwa) out.append('a');
+                out.append(VOWELS[off]);
+                pendingSchwa = false;
+            } else if (off >= 0x66 && off <= 0x6F) {
+                if (pendingSchwa) out.append('a');
+                out.append((char) ('0' + off - 0x66));
+                pendingSchwa = false;
+            }
+            // nukta, avagraha, length marks: no Latin equivalent, skipped
+        }
+        // Hindi and Marathi drop the final inherent vowel (चावल = chaaval); Telugu keeps it
+        if (pendingSchwa && !devanagariSchwa) out.append('a');
+        return out.toString();
+    }
+
+    /**
+     * Loose phonetic key: aspirates and vowel length merged, common spelling swaps
+     * (w/v, z/j, q/k, c/k) unified, doubled letters collapsed.
+     */
+    static String fold(String word) {
+        StringBuilder s = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); i++) {
+            char ch = word.charAt(i);
+            char next = i + 1 < word.length() ? word.charAt(i + 1) : 0;
+            switch (ch) {
+                case 'w' -> s.append('v');
+                case 'z' -> s.append('j');
+                case 'q' -> s.append('k');
+                case 'x' -> s.append("ks");
+                case 'c' -> s.append(next == 'h' ? 'c' : 'k');
+                case 'h' -> {
+                    char prev = s.isEmpty() ? 0 : s.charAt(s.length() - 1);
+                    if ("kgcjtdpbs".indexOf(prev) < 0) s.append('h');
+                }
+                case 'e' -> s.append(next == 'e' ? 'i' : 'e');
+                case 'o' -> s.append(next == 'o' ? 'u' : 'o');
+                default -> s.append(ch);
+            }
+            if ((ch == 'e' && next == 'e') || (ch == 'o' && next == 'o')) i++;
+        }
+        StringBuilder collapsed = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            if (i > 0 && ch == s.charAt(i - 1) && Character.isLetter(ch)) continue;
+            collapsed.append(ch);
+        }
+        return collapsed.toString();
+    }
+
+    /** Padded trigrams used for typo-tolerant matching. */
+    static List<String> trigrams(String key) {
+        String padded = "$" + key + "$";
+        List<String> grams = new ArrayList<>(Math.max(1, padded.length() - 2));
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartretail.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In virtual-thread mode, streams the JFR {@code jdk.VirtualThreadPinned} event and exports
+ * each pinning as {@code threads.virtual.pinned{frame}}, where {@code frame} is the innermost
+ * application method on the stack. The first pinning at each frame is also logged with the
+ * full stack, so a monitor held across I/O shows up without running a profiler.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.smartretail.backend";
+    private static final int MAX_LOGGED_FRAMES = 500;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Set<String> loggedFrames = ConcurrentHashMap.newKeySet();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                       @Value("${threads.virtual.pinning-monitor.enabled:true}") boolean monitorEnabled,
+                                       @Value("${threads.virtual.pinning-monitor.threshold-ms:20}") long thresholdMs) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = virtualThreads && monitorEnabled;
+        this.threshold = Duration.ofMillis(thresholdMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        if (Runtime.version().feature() < 21) {
+            logger.warn("[VTHREADS] spring.threads.virtual.enabled is set but JDK {} has no virtual threads; running on platform threads",
+                    Runtime.version().feature());
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(EVENT, this::record);
+            stream.startAsync();
+            logger.info("[VTHREADS] Watching for carrier pinning longer than {} ms", threshold.toMillis());
+        } catch (Exception e) {
+            logger.warn("[VTHREADS] Pinning monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) stream.close();
+    }
+
+    /* ------------------- EVENTS ------------------- */
+    private void record(RecordedEvent event) {
+        RecordedStackTrace trace = event.getStackTrace();
+        List<RecordedFrame> frames = trace != null ? trace.getFrames() : List.of();
+        String frame = applicationFrame(frames);
+        Timer.builder("threads.virtual.pinned")
+                .tag("frame", frame)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (loggedFrames.size() < MAX_LOGGED_FRAMES && loggedFrames.add(frame)) {
+            StringBuilder stack = new StringBuilder();
+            for (RecordedFrame f : frames) {
+                stack.append("\n\tat ").append(describe(f)).append(':').append(f.getLineNumber());
+            }
+            logger.warn("[VTHREADS] Carrier pinned for {} ms at {}{}", event.getDuration().toMillis(), frame, stack);
+        }
+    }
+
+    // Innermost frame in our code; library frames (JavaMail, drivers) are reported only when none is ours
+    private static String applicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame f : frames) {
+            if (f.isJavaFrame() && f.getMethod().getType().getName().startsWith(APP_PACKAGE)) return describe(f);
+        }
+        return frames.isEmpty() ? "unknown" : describe(frames.get(0));
+    }
+
+    private static String describe(RecordedFrame f) {
+        String type = f.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + "." + f.getMethod().getName();
+    }
+}
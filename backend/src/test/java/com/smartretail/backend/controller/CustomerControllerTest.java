@@ -1,8 +1,10 @@
 package com.smartretail.backend.controller;
 
+import com.smartretail.backend.dto.CursorPage;
 import com.smartretail.backend.models.Bill;
 import com.smartretail.backend.models.Customer;
 import com.smartretail.backend.service.CustomerService;
+import com.smartretail.backend.service.ListingService;
 import com.smartretail.backend.service.ReminderService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -31,6 +33,9 @@ class CustomerControllerTest {
     @Mock
     private ReminderService reminderService;
 
+    @Mock
+    private ListingService listingService;
+
     @InjectMocks
     private CustomerController customerController;
 
@@ -79,13 +84,17 @@ class CustomerControllerTest {
     void testGetAllCustomers_Success() {
         Customer customer = new Customer();
         customer.setId("68d7eb12a2d18777fbd48685");
-        when(customerService.getAllCustomers()).thenReturn(Arrays.asList(customer));
+        when(listingService.listCustomers(isNull(), isNull(), isNull(), isNull(), any(ListingService.ListParams.class)))
+                .thenReturn(new CursorPage<>(List.of(customer), "next", 1));
 
-        ResponseEntity<List<Customer>> response = customerController.getAllCustomers("en");
+        ResponseEntity<List<Object>> response = customerController.getAllCustomers(
+                null, null, null, null, null, 1, null, null, "en");
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(1, response.getBody().size());
-        verify(customerService).getAllCustomers();
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        verify(listingService).listCustomers(isNull(), isNull(), isNull(), isNull(),
+                eq(new ListingService.ListParams(null, 1, null, null)));
     }
 
     @Test
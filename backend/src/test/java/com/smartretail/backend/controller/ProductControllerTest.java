@@ -1,12 +1,16 @@
 package com.smartretail.backend.controller;
 
 import com.smartretail.backend.models.Product;
+import com.smartretail.backend.service.FileService;
+import com.smartretail.backend.service.ImageRenditionService;
 import com.smartretail.backend.service.ProductService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
@@ -15,6 +19,7 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
 import java.util.Locale; // --- FIX: Import Locale ---
 import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -26,6 +31,9 @@ class ProductControllerTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private FileService fileService;
+
     @InjectMocks
     private ProductController productController;
 
@@ -106,4 +114,43 @@ class ProductControllerTest {
                 .createProduct(any(Product.class), isNull(), eq(new Locale("en")));
         // --- End Fix ---
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetImage_ImmutableCachingAndNotModified() {
+        String id = "68d7eb12a2d18777fbd48685";
+        FileService.StoredImage image = new FileService.StoredImage(id, "image/png", 3, "\"" + id + "\"",
+                new ByteArrayResource(new byte[]{1, 2, 3}), true);
+        when(fileService.findImage(id, null)).thenReturn(Optional.of(image));
+
+        ResponseEntity<Resource> ok = productController.getImage(id, null, null);
+        assertEquals(HttpStatus.OK, ok.getStatusCode());
+        assertEquals("\"" + id + "\"", ok.getHeaders().getETag());
+        assertTrue(ok.getHeaders().getCacheControl().contains("immutable"));
+        assertEquals("image/png", ok.getHeaders().getContentType().toString());
+
+        ResponseEntity<Resource> notModified = productController.getImage(id, null, "\"" + id + "\"");
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+    }
+
+    @Test
+    void testGetImage_MissingReturns404() {
+        when(fileService.findImage("nope", null)).thenReturn(Optional.empty());
+
+        assertEquals(HttpStatus.NOT_FOUND, productController.getImage("nope", null, null).getStatusCode());
+    }
+
+    @Test
+    void testGetImage_StandInOriginalIsNotCachedAsImmutable() {
+        String id = "68d7eb12a2d18777fbd48685";
+        FileService.StoredImage original = new FileService.StoredImage(id, "image/jpeg", 3, "\"" + id + "\"",
+                new ByteArrayResource(new byte[]{1, 2, 3}), false);
+        when(fileService.findImage(id, ImageRenditionService.Size.THUMB)).thenReturn(Optional.of(original));
+
+        ResponseEntity<Resource> response = productController.getImage(id, "thumb", null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertFalse(response.getHeaders().getCacheControl().contains("immutable"));
+        assertThrows(IllegalArgumentException.class, () -> productController.getImage(id, "huge", null));
+    }
+}
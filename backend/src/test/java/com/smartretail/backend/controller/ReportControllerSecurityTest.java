@@ -0,0 +1,99 @@
+package com.smartretail.backend.controller;
+
+import com.smartretail.backend.config.SecurityConfig;
+import com.smartretail.backend.models.ReportJob;
+import com.smartretail.backend.models.User;
+import com.smartretail.backend.security.CustomOAuth2AuthenticationSuccessHandler;
+import com.smartretail.backend.security.JwtAuthenticationFilter;
+import com.smartretail.backend.security.JwtUtil;
+import com.smartretail.backend.service.AnalyticsService;
+import com.smartretail.backend.service.AuthService;
+import com.smartretail.backend.service.ReportJobService;
+import com.smartretail.backend.service.ReportService;
+import com.smartretail.backend.service.UserService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.impl.DefaultClaims;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Runs the report PDF download through the real security chain: the async result is written on
+ * a second (ASYNC) dispatch, which the JWT filter skips.
+ */
+@WebMvcTest(ReportController.class)
+@Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+class ReportControllerSecurityTest {
+
+    private static final String TOKEN = "manager-token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ReportService reportService;
+    @MockitoBean
+    private AnalyticsService analyticsService;
+    @MockitoBean
+    private ReportJobService reportJobService;
+    @MockitoBean
+    private JwtUtil jwtUtil;
+    @MockitoBean
+    private AuthService authService;
+    @MockitoBean
+    private UserService userService;
+    @MockitoBean
+    private CustomOAuth2AuthenticationSuccessHandler oAuth2SuccessHandler;
+
+    @Test
+    void testDownloadFullReportPdf_AsyncDispatchIsNotDenied() throws Exception {
+        Claims claims = new DefaultClaims(Map.of("sub", "manager@shop.com"));
+        when(jwtUtil.validateToken(TOKEN)).thenReturn(claims);
+        when(authService.getUserByEmail("manager@shop.com"))
+                .thenReturn(new User("u1", "manager@shop.com", "hash", "Manager", "MANAGER"));
+        ReportJob job = new ReportJob("key", "2026-01-01", "2026-01-31", 10, 30, "en");
+        job.setId("job1");
+        job.setStatus(ReportJob.Status.DONE);
+        when(reportJobService.submit(eq("2026-01-01"), eq("2026-01-31"), anyInt(), anyInt(), any(), any()))
+                .thenReturn(new ReportJobService.Submission(job, CompletableFuture.completedFuture(job)));
+        when(reportJobService.getResult(job)).thenReturn(Optional.of("%PDF-1.7".getBytes()));
+
+        MvcResult started = mockMvc.perform(get("/api/reports/full/pdf")
+                        .param("startDate", "2026-01-01")
+                        .param("endDate", "2026-01-31")
+                        .header("Authorization", "Bearer " + TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(content().string("%PDF-1.7"));
+    }
+
+    @Test
+    void testDownloadFullReportPdf_AnonymousIsSentToLogin() throws Exception {
+        mockMvc.perform(get("/api/reports/full/pdf")
+                        .param("startDate", "2026-01-01")
+                        .param("endDate", "2026-01-31"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isFound());
+
+        verifyNoInteractions(reportJobService);
+    }
+}
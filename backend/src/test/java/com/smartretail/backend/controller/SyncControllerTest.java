@@ -4,11 +4,14 @@ import com.smartretail.backend.models.Bill;
 import com.smartretail.backend.models.Product;
 import com.smartretail.backend.service.BillService;
 import com.smartretail.backend.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -32,6 +35,9 @@ class SyncControllerTest {
     @Mock
     private ProductService productService;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private SyncController syncController;
 
@@ -99,6 +105,9 @@ class SyncControllerTest {
         assertEquals(Arrays.asList("p123"), body.get("processedProducts"));
         assertEquals(Arrays.asList("Bill bill005: Bill bill005 already exists"), body.get("errors"));
         assertEquals("Sync completed with errors", body.get("message"));
+        assertEquals(1.0, meterRegistry.counter("sync.items", "type", "bill", "outcome", "failure").count());
+        assertEquals(1.0, meterRegistry.counter("sync.items", "type", "product", "outcome", "success").count());
+        assertEquals(1, meterRegistry.get("sync.pending").tag("outcome", "partial").timer().count());
         verify(billService).createBill(bill, Locale.ENGLISH, true);
         verify(productService).updateProduct("p123", product, Locale.ENGLISH, true);
     }
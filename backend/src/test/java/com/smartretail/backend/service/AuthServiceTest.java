@@ -0,0 +1,124 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.dto.LoginRequest;
+import com.smartretail.backend.dto.LoginResponse;
+import com.smartretail.backend.exception.ServiceBusyException;
+import com.smartretail.backend.models.User;
+import com.smartretail.backend.repository.UserRepository;
+import com.smartretail.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuthServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RefreshTokenStore refreshTokenStore;
+    @Mock
+    private JwtUtil jwtUtil;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(5);
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId("u1");
+        user.setEmail("cashier@shop.in");
+        user.setRole("CASHIER");
+        user.setPassword(encoder.encode("secret"));
+    }
+
+    @Test
+    void testLogin_RepeatWithinWindowReusesTokens() {
+        AuthServiceImpl auth = service(new SimpleAsyncTaskExecutor(), encoder);
+        when(userRepository.findByEmail("cashier@shop.in")).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(anyString(), anyString())).thenReturn("access");
+        when(jwtUtil.generateRefreshToken(anyString())).thenReturn("refresh");
+
+        LoginResponse first = auth.login(login("secret"));
+        LoginResponse second = auth.login(login("secret"));
+
+        assertSame(first, second);
+        verify(refreshTokenStore, times(1)).save(anyString(), anyString(), any(Date.class));
+        assertEquals(1.0, meterRegistry.get("auth.logins").tag("result", "reused").counter().count());
+        assertThrows(RuntimeException.class, () -> auth.login(login("wrong")));
+    }
+
+    @Test
+    void testLogin_FullQueueAnswersBusy() {
+        AsyncTaskExecutor saturated = mock(AsyncTaskExecutor.class);
+        when(saturated.submit(any(Callable.class))).thenThrow(new TaskRejectedException("full"));
+        AuthServiceImpl auth = service(saturated, encoder);
+        when(userRepository.findByEmail("cashier@shop.in")).thenReturn(Optional.of(user));
+
+        ServiceBusyException e = assertThrows(ServiceBusyException.class, () -> auth.login(login("secret")));
+
+        assertTrue(e.getRetryAfterSeconds() > 0);
+        verifyNoInteractions(refreshTokenStore);
+    }
+
+    @Test
+    void testLogin_WeakerHashIsUpgraded() {
+        AuthServiceImpl auth = service(new SimpleAsyncTaskExecutor(), new BCryptPasswordEncoder(6));
+        when(userRepository.findByEmail("cashier@shop.in")).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken(anyString(), anyString())).thenReturn("access");
+        when(jwtUtil.generateRefreshToken(anyString())).thenReturn("refresh");
+
+        auth.login(login("secret"));
+
+        verify(userRepository).save(user);
+        assertTrue(user.getPassword().startsWith("$2a$06$"), user.getPassword());
+    }
+
+    @Test
+    void testRefreshToken_TypedTokenIsCheckedAgainstRevocationsOnly() {
+        AuthServiceImpl auth = service(new SimpleAsyncTaskExecutor(), encoder);
+        Claims claims = Jwts.claims().setSubject("cashier@shop.in");
+        claims.put("typ", JwtUtil.REFRESH_TYPE);
+        when(jwtUtil.validateToken("rt")).thenReturn(claims);
+        when(userRepository.findByEmail("cashier@shop.in")).thenReturn(Optional.of(user));
+        when(jwtUtil.generateToken("cashier@shop.in", "CASHIER")).thenReturn("access");
+
+        assertEquals("access", auth.refreshToken("rt"));
+        verify(refreshTokenStore, never()).find(anyString());
+
+        when(refreshTokenStore.isRevoked("rt")).thenReturn(true);
+        assertThrows(RuntimeException.class, () -> auth.refreshToken("rt"));
+    }
+
+    private AuthServiceImpl service(AsyncTaskExecutor executor, BCryptPasswordEncoder passwordEncoder) {
+        return new AuthServiceImpl(userRepository, refreshTokenStore, jwtUtil, passwordEncoder,
+                executor, meterRegistry, 5000, 30);
+    }
+
+    private static LoginRequest login(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("cashier@shop.in");
+        request.setPassword(password);
+        return request;
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Product;
+import com.smartretail.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BarcodeIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private BarcodeIndex barcodeIndex;
+
+    @BeforeEach
+    void setUp() {
+        barcodeIndex = new BarcodeIndex(productRepository, new SimpleMeterRegistry(),
+                List.of("20", "21", "22"), List.of("23", "24", "25", "26", "27", "28", "29"));
+    }
+
+    @Test
+    void testCanonical_PadsToGtin14AndValidatesCheckDigit() {
+        assertEquals("04006381333931", barcodeIndex.canonical("4006381333931"));
+        // UPC-A and its EAN-13 form are the same item
+        assertEquals(barcodeIndex.canonical("036000291452"), barcodeIndex.canonical("0036000291452"));
+        assertNull(barcodeIndex.canonical("4006381333932"));
+        assertNull(barcodeIndex.canonical("12345"));
+        assertEquals("2312345", barcodeIndex.canonical("2312345"));
+    }
+
+    @Test
+    void testResolve_GtinFromMemory() {
+        barcodeIndex.index(product("p1", "4006381333931"));
+
+        Optional<BarcodeIndex.Match> match = barcodeIndex.resolve("4006381333931");
+
+        assertTrue(match.isPresent());
+        assertEquals("p1", match.get().productId());
+        assertEquals(BarcodeIndex.Type.GTIN, match.get().type());
+        verify(productRepository, never()).findByBarcodes(anyString());
+    }
+
+    @Test
+    void testResolve_WeighedItemCarriesWeight() {
+        barcodeIndex.index(product("apples", "2312345"));
+        String scan = withCheckDigit("231234501250");
+
+        BarcodeIndex.Match match = barcodeIndex.resolve(scan).orElseThrow();
+
+        assertEquals("apples", match.productId());
+        assertEquals(BarcodeIndex.Type.WEIGHED_WEIGHT, match.type());
+        assertEquals(1250, match.embeddedValue());
+    }
+
+    @Test
+    void testResolve_InvalidCodeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> barcodeIndex.resolve("4006381333932"));
+    }
+
+    @Test
+    void testIndex_ReplacesPreviousBarcodes() {
+        barcodeIndex.index(product("p1", "4006381333931"));
+        barcodeIndex.index(product("p1", "036000291452"));
+        when(productRepository.findByBarcodes("04006381333931")).thenReturn(Optional.empty());
+
+        assertTrue(barcodeIndex.resolve("4006381333931").isEmpty());
+        assertEquals("p1", barcodeIndex.resolve("036000291452").orElseThrow().productId());
+    }
+
+    @Test
+    void testLongToStringMap_RemoveKeepsProbeChains() {
+        BarcodeIndex.LongToStringMap map = new BarcodeIndex.LongToStringMap(4);
+        for (long k = 1; k <= 500; k++) map.put(k * 1_000_003L, "v" + k);
+        for (long k = 1; k <= 500; k += 2) map.remove(k * 1_000_003L);
+
+        assertEquals(250, map.size());
+        for (long k = 1; k <= 500; k++) {
+            assertEquals(k % 2 == 0 ? "v" + k : null, map.get(k * 1_000_003L));
+        }
+    }
+
+    private static String withCheckDigit(String twelve) {
+        for (int d = 0; d <= 9; d++) {
+            if (BarcodeIndex.checkDigitValid(twelve + d)) return twelve + d;
+        }
+        throw new IllegalStateException();
+    }
+
+    private static Product product(String id, String... barcodes) {
+        Product p = new Product();
+        p.setProductId(id);
+        p.setName(id);
+        p.setBarcodes(List.of(barcodes));
+        return p;
+    }
+}
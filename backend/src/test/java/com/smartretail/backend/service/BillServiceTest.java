@@ -4,11 +4,15 @@ import com.smartretail.backend.models.Bill;
 import com.smartretail.backend.models.Customer;
 import com.smartretail.backend.models.Product;
 import com.smartretail.backend.repository.BillRepository;
+import com.smartretail.backend.security.PdfAccessTokens;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
 
@@ -33,6 +37,10 @@ class BillServiceTest {
     private NotificationService notificationService;
     @Mock
     private MessageSource messageSource;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private PdfAccessTokens pdfAccessTokens = new PdfAccessTokens("", 3600, 300, "test-jwt-secret");
 
     @InjectMocks
     private BillServiceImpl billService;
@@ -250,26 +258,35 @@ class BillServiceTest {
     }
 
     @Test
-    void testValidatePdfAccessToken_ValidToken() {
-        Bill bill = new Bill();
-        bill.setPdfAccessToken("valid-token");
+    void testValidatePdfAccessToken_IssuedTokenIsValidForItsBillOnly() {
+        String token = billService.generatePdfAccessToken("b12345678");
 
-        when(billRepository.findByBillId("b12345678")).thenReturn(java.util.Optional.of(bill));
-
-        boolean isValid = billService.validatePdfAccessToken("b12345678", "valid-token");
-
-        assertTrue(isValid);
+        assertTrue(billService.validatePdfAccessToken("b12345678", token));
+        assertFalse(billService.validatePdfAccessToken("b99999999", token));
+        // Verified from the signature alone
+        verifyNoInteractions(billRepository);
     }
 
     @Test
     void testValidatePdfAccessToken_InvalidToken() {
-        Bill bill = new Bill();
-        bill.setPdfAccessToken("valid-token");
-
-        when(billRepository.findByBillId("b12345678")).thenReturn(java.util.Optional.of(bill));
+        String token = billService.generatePdfAccessToken("b12345678");
+        int sig = token.lastIndexOf('.') + 1;
+        String tampered = token.substring(0, sig) + (token.charAt(sig) == 'A' ? 'B' : 'A') + token.substring(sig + 1);
 
-        boolean isValid = billService.validatePdfAccessToken("b12345678", "invalid-token");
+        assertFalse(billService.validatePdfAccessToken("b12345678", tampered));
+        assertFalse(billService.validatePdfAccessToken("b12345678", "b12345678|uuid|9999999999"));
+        assertFalse(billService.validatePdfAccessToken("b12345678", null));
+    }
 
-        assertFalse(isValid);
+    @Test
+    void testPdfAccessTokens_OldKeyStillVerifiesAfterRotation() {
+        PdfAccessTokens before = new PdfAccessTokens("k1:c2VjcmV0LW9uZQ==", 3600, 300, "unused");
+        PdfAccessTokens after = new PdfAccessTokens("k2:c2VjcmV0LXR3bw==,k1:c2VjcmV0LW9uZQ==", 3600, 300, "unused");
+        PdfAccessTokens retired = new PdfAccessTokens("k2:c2VjcmV0LXR3bw==", 3600, 300, "unused");
+
+        String oldToken = before.issue("b1");
+        assertTrue(after.verify("b1", oldToken));
+        assertTrue(after.issue("b1").startsWith("k2."));
+        assertFalse(retired.verify("b1", oldToken));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.dto.FullReportResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingReportServiceTest {
+
+    @Mock
+    private ReportService delegate;
+
+    private CoalescingReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        reportService = new CoalescingReportService(delegate, new RequestCoalescer(new SimpleMeterRegistry(), 10), 30);
+    }
+
+    @Test
+    void testGetInventoryReport_SharedResultIsReadOnly() {
+        when(delegate.getInventoryReport(10, 30, Locale.ENGLISH)).thenReturn(new HashMap<>(Map.of("totalProducts", 3)));
+
+        Map<String, Object> first = reportService.getInventoryReport(10, 30, Locale.ENGLISH);
+        Map<String, Object> second = reportService.getInventoryReport(10, 30, Locale.ENGLISH);
+
+        assertThrows(UnsupportedOperationException.class, () -> first.put("totalProducts", 0));
+        assertEquals(3, second.get("totalProducts"));
+        verify(delegate, times(1)).getInventoryReport(10, 30, Locale.ENGLISH);
+    }
+
+    @Test
+    void testGetFullReportData_EachCallerGetsItsOwnResponse() {
+        when(delegate.getFullReportData("2026-01-01", "2026-01-31", 10, 30, Locale.ENGLISH))
+                .thenReturn(new FullReportResponse(new HashMap<>(Map.of("total", 42)), "summary",
+                        new HashMap<>(Map.of("totalProducts", 3))));
+
+        FullReportResponse first = reportService.getFullReportData("2026-01-01", "2026-01-31", 10, 30, Locale.ENGLISH);
+        first.setTextSummary("localised");
+        FullReportResponse second = reportService.getFullReportData("2026-01-01", "2026-01-31", 10, 30, Locale.ENGLISH);
+
+        assertNotSame(first, second);
+        assertEquals("summary", second.getTextSummary());
+        assertThrows(UnsupportedOperationException.class, () -> first.getInventoryReport().clear());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> sales = (Map<String, Object>) first.getSalesReport();
+        assertThrows(UnsupportedOperationException.class, () -> sales.put("total", 0));
+        verify(delegate, times(1)).getFullReportData("2026-01-01", "2026-01-31", 10, 30, Locale.ENGLISH);
+    }
+}
@@ -0,0 +1,109 @@
+package com.smartretail.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.models.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        exportService = new ExportService(mongoTemplate, new ObjectMapper(), meterRegistry, 100);
+    }
+
+    @Test
+    void testBills_NdjsonWritesOneProjectedObjectPerLine() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Bill.class))).thenReturn(Stream.of(bill("B1", 2), bill("B2", 3)));
+
+        ExportService.Export export = exportService.bills(ExportService.Format.parse("ndjson"), null, null, "totalAmount");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = export.writeTo(out);
+
+        assertEquals(2, rows);
+        assertEquals("{\"billId\":\"B1\",\"totalAmount\":20.0}\n{\"billId\":\"B2\",\"totalAmount\":30.0}\n",
+                out.toString(StandardCharsets.UTF_8));
+        assertEquals(2.0, meterRegistry.get("export.rows").tag("entity", "bills").counter().count());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(Bill.class));
+        assertEquals(new Document("billId", 1).append("totalAmount", 1), query.getValue().getFieldsObject());
+        assertEquals(new Document("createdAt", 1).append("billId", 1), query.getValue().getSortObject());
+    }
+
+    @Test
+    void testBills_CsvWritesHeaderAndNestedValuesAsJson() throws Exception {
+        when(mongoTemplate.stream(any(Query.class), eq(Bill.class))).thenReturn(Stream.of(bill("B1", 1)));
+
+        ExportService.Export export = exportService.bills(ExportService.Format.CSV, null, null, "items");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("billId,items", lines[0]);
+        assertTrue(lines[1].startsWith("B1,\"[{\"\"productId\"\":\"\"P1\"\""), lines[1]);
+        assertEquals("bills.csv", export.getFilename());
+    }
+
+    @Test
+    void testProducts_CsvNeutralisesFormulaText() throws Exception {
+        Product product = new Product();
+        product.setId("p1");
+        product.setName("=HYPERLINK(\"http://x\",\"Milk\")");
+        product.setCategory("@dairy");
+        product.setQuantity(-2);
+        when(mongoTemplate.stream(any(Query.class), eq(Product.class))).thenReturn(Stream.of(product));
+
+        ExportService.Export export = exportService.products(ExportService.Format.CSV, null, null, null, "name,category,quantity");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,name,category,quantity", lines[0]);
+        assertEquals("p1,\"'=HYPERLINK(\"\"http://x\"\",\"\"Milk\"\")\",'@dairy,-2", lines[1]);
+    }
+
+    @Test
+    void testBills_RejectsUnknownFormatAndFieldBeforeStreaming() {
+        assertThrows(IllegalArgumentException.class, () -> ExportService.Format.parse("xlsx"));
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.bills(ExportService.Format.NDJSON, null, null, "totalAmount,secret"));
+        verify(mongoTemplate, never()).stream(any(Query.class), eq(Bill.class));
+    }
+
+    private Bill bill(String id, int qty) {
+        return new Bill(id, List.of(new Bill.BillItem("P1", "Rice", qty, 10.0)), "cashier@shop.in");
+    }
+}
@@ -0,0 +1,148 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.MongoWriteException;
+import com.mongodb.WriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.model.Filters;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FileServiceImplTest {
+
+    @Mock
+    private GridFsTemplate gridFsTemplate;
+    @Mock
+    private GridFSBucket gridFSBucket;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private MongoCollection<Document> files;
+    @Mock
+    private ImageRenditionService renditionService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MockMultipartFile upload = new MockMultipartFile("image", "rice.png", "image/png", new byte[]{1, 2, 3});
+    private final ObjectId storedId = new ObjectId();
+    private FileServiceImpl fileService;
+
+    @BeforeEach
+    void setUp() {
+        // Only the upload and release paths touch the collection directly
+        lenient().when(mongoTemplate.getCollection("fs.files")).thenReturn(files);
+        fileService = new FileServiceImpl(gridFsTemplate, gridFSBucket, mongoTemplate, meterRegistry,
+                renditionService, 1024, 256);
+    }
+
+    @Test
+    void testStoreProductImage_NewContentIsHashedAndRendered() throws Exception {
+        when(gridFsTemplate.store(any(InputStream.class), anyString(), anyString(), any(Document.class)))
+                .thenAnswer(inv -> {
+                    inv.getArgument(0, InputStream.class).readAllBytes();
+                    return storedId;
+                });
+
+        String id = fileService.storeProductImage(upload, "p1");
+
+        assertEquals(storedId.toHexString(), id);
+        ArgumentCaptor<Document> meta = ArgumentCaptor.forClass(Document.class);
+        verify(gridFsTemplate).store(any(InputStream.class), eq("product_p1"), eq("image/png"), meta.capture());
+        assertEquals(List.of("p1"), meta.getValue().get("productRefs"));
+        // SHA-256 of {1, 2, 3}
+        verify(files).updateOne(eq(Filters.eq("_id", storedId)), argThat((Bson u) -> u.toString()
+                .contains("039058c6f2c0cb492c533b0a4d14ef77cc0f78abccced5287d84a1a2011cfb81")));
+        verify(renditionService).submit(storedId.toHexString());
+        assertEquals(1.0, meterRegistry.get("image.uploads").tag("result", "stored").counter().count());
+    }
+
+    @Test
+    void testStoreProductImage_DuplicateContentReusesExistingFile() throws Exception {
+        ObjectId existingId = new ObjectId();
+        MongoWriteException duplicate = duplicateKey();
+        when(gridFsTemplate.store(any(InputStream.class), anyString(), anyString(), any(Document.class))).thenReturn(storedId);
+        when(files.updateOne(any(Bson.class), any(Bson.class))).thenThrow(duplicate);
+        when(files.findOneAndUpdate(any(Bson.class), any(Bson.class))).thenReturn(new Document("_id", existingId));
+
+        String id = fileService.storeProductImage(upload, "p2");
+
+        assertEquals(existingId.toHexString(), id);
+        verify(gridFsTemplate).delete(any(Query.class));
+        verify(renditionService, never()).submit(anyString());
+        assertEquals(1.0, meterRegistry.get("image.uploads").tag("result", "deduplicated").counter().count());
+    }
+
+    @Test
+    void testReleaseProductImage_IgnoresMissingId() {
+        fileService.releaseProductImage(null, "p1");
+        fileService.releaseProductImage("legacy-url", "p1");
+        verify(files, never()).updateOne(any(Bson.class), any(Bson.class));
+
+        fileService.releaseProductImage(storedId.toHexString(), "p1");
+        verify(files).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void testFindImage_RefusesPdfsStoredInTheSameBucket() {
+        GridFSFile receipt = file("receipt_b1", new Document("kind", "receipt-pdf").append("contentType", "application/pdf"));
+        when(gridFsTemplate.findOne(any(Query.class))).thenReturn(receipt);
+
+        assertTrue(fileService.findImage(storedId.toHexString(), null).isEmpty());
+        assertTrue(fileService.findImage(storedId.toHexString(), ImageRenditionService.Size.THUMB).isEmpty());
+
+        verify(renditionService, never()).submit(anyString());
+        verifyNoInteractions(gridFSBucket);
+    }
+
+    @Test
+    void testFindImage_ServesUntaggedLegacyProductImage() {
+        GridFSFile legacy = file("product_p1", new Document("contentType", "image/png"));
+        when(gridFsTemplate.findOne(any(Query.class))).thenReturn(legacy);
+        doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write(new byte[]{1, 2, 3});
+            return null;
+        }).when(gridFSBucket).downloadToStream(eq(storedId), any(OutputStream.class));
+
+        FileService.StoredImage image = fileService.findImage(storedId.toHexString(), null).orElseThrow();
+
+        assertEquals("image/png", image.contentType());
+        assertEquals(3, image.length());
+    }
+
+    private GridFSFile file(String filename, Document metadata) {
+        return new GridFSFile(new BsonObjectId(storedId), filename, 3, 261120, new Date(), metadata);
+    }
+
+    private static MongoWriteException duplicateKey() {
+        MongoWriteException e = mock(MongoWriteException.class);
+        when(e.getError()).thenReturn(new WriteError(11000, "E11000 duplicate key", new BsonDocument()));
+        return e;
+    }
+}
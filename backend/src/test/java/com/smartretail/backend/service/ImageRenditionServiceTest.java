@@ -0,0 +1,148 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSDownloadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.result.UpdateResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImageRenditionServiceTest {
+
+    @Test
+    void testDecode_SubsamplesLargeImages() throws IOException {
+        byte[] png = png(new BufferedImage(4000, 1000, BufferedImage.TYPE_INT_RGB));
+
+        BufferedImage decoded = ImageRenditionService.decode(new ByteArrayInputStream(png), 500);
+
+        assertTrue(decoded.getWidth() <= 1000, "width " + decoded.getWidth());
+        assertTrue(decoded.getWidth() >= 500, "width " + decoded.getWidth());
+    }
+
+    @Test
+    void testDecode_UnknownFormatReturnsNull() throws IOException {
+        assertNull(ImageRenditionService.decode(new ByteArrayInputStream("not an image".getBytes()), 500));
+    }
+
+    @Test
+    void testScale_KeepsAspectRatioAndNeverUpscales() {
+        BufferedImage scaled = ImageRenditionService.scale(new BufferedImage(1200, 900, BufferedImage.TYPE_INT_RGB),
+                ImageRenditionService.Size.THUMB.getMaxEdge());
+        assertEquals(160, scaled.getWidth());
+        assertEquals(120, scaled.getHeight());
+
+        BufferedImage small = ImageRenditionService.scale(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB), 480);
+        assertEquals(100, small.getWidth());
+        assertEquals(50, small.getHeight());
+    }
+
+    @Test
+    void testEncode_JpegForOpaquePngForTransparent() throws IOException {
+        ImageRenditionService.Encoded opaque = ImageRenditionService.encode(
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB));
+        assertEquals("image/jpeg", opaque.contentType());
+        assertNotNull(ImageIO.read(new ByteArrayInputStream(opaque.bytes())));
+
+        ImageRenditionService.Encoded transparent = ImageRenditionService.encode(
+                new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+        assertEquals("image/png", transparent.contentType());
+    }
+
+    @Test
+    void testSizeParse() {
+        assertNull(ImageRenditionService.Size.parse(null));
+        assertNull(ImageRenditionService.Size.parse("original"));
+        assertEquals(ImageRenditionService.Size.CARD, ImageRenditionService.Size.parse("Card"));
+        assertThrows(IllegalArgumentException.class, () -> ImageRenditionService.Size.parse("huge"));
+    }
+
+    @Test
+    void testGenerate_FailedSizeRemovesRenditionsAlreadyStored() throws IOException {
+        Fixture fixture = new Fixture();
+        ObjectId thumb = new ObjectId();
+        when(fixture.gridFsTemplate.store(any(InputStream.class), anyString(), anyString(), any(Document.class)))
+                .thenReturn(thumb)
+                .thenThrow(new MongoException("disk full"));
+
+        fixture.service.generate(fixture.originalId.toHexString());
+
+        assertEquals(List.of(thumb), fixture.deletedIds());
+        verify(fixture.files, never()).updateOne(any(Bson.class), any(Bson.class));
+    }
+
+    @Test
+    void testGenerate_LosingNodeRemovesItsRenditions() throws IOException {
+        Fixture fixture = new Fixture();
+        ObjectId thumb = new ObjectId();
+        ObjectId card = new ObjectId();
+        ObjectId full = new ObjectId();
+        when(fixture.gridFsTemplate.store(any(InputStream.class), anyString(), anyString(), any(Document.class)))
+                .thenReturn(thumb, card, full);
+        // The update is conditional on no renditions being linked yet; another node got there first
+        when(fixture.files.updateOne(any(Bson.class), any(Bson.class))).thenReturn(UpdateResult.acknowledged(0, 0L, null));
+
+        fixture.service.generate(fixture.originalId.toHexString());
+
+        assertEquals(List.of(thumb, card, full), fixture.deletedIds());
+    }
+
+    /** A 2000x1500 PNG original whose every size needs a new rendition. */
+    private static class Fixture {
+        final GridFsTemplate gridFsTemplate = mock(GridFsTemplate.class);
+        @SuppressWarnings("unchecked")
+        final MongoCollection<Document> files = mock(MongoCollection.class);
+        final ObjectId originalId = new ObjectId();
+        final ImageRenditionService service;
+
+        Fixture() throws IOException {
+            byte[] png = png(new BufferedImage(2000, 1500, BufferedImage.TYPE_INT_RGB));
+            GridFSBucket bucket = mock(GridFSBucket.class);
+            MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+            GridFSFile original = new GridFSFile(new BsonObjectId(originalId), "milk.png", 5_000_000, 261_120, new Date(),
+                    new Document("contentType", "image/png"));
+            when(gridFsTemplate.findOne(any(Query.class))).thenReturn(original);
+            when(bucket.openDownloadStream(originalId)).thenReturn(mock(GridFSDownloadStream.class,
+                    withSettings().defaultAnswer(delegatesTo(new ByteArrayInputStream(png)))));
+            when(mongoTemplate.getCollection("fs.files")).thenReturn(files);
+            service = new ImageRenditionService(gridFsTemplate, bucket, mongoTemplate, new SyncTaskExecutor(),
+                    new SimpleMeterRegistry());
+        }
+
+        List<Object> deletedIds() {
+            ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+            verify(gridFsTemplate).delete(query.capture());
+            return List.copyOf(query.getValue().getQueryObject().get("_id", Document.class).getList("$in", Object.class));
+        }
+    }
+
+    private static byte[] png(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
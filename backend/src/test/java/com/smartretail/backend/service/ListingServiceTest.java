@@ -0,0 +1,121 @@
+package com.smartretail.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartretail.backend.dto.CursorPage;
+import com.smartretail.backend.models.Customer;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingServiceTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ListingService listingService;
+
+    @BeforeEach
+    void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        listingService = new ListingService(mongoTemplate, new ObjectMapper(), 2, 5);
+    }
+
+    @Test
+    void testListCustomers_FullPageReturnsCursorForNextPage() {
+        Customer a = customer("c1", "Asha", new Date(3000));
+        Customer b = customer("c2", "Bhanu", new Date(2000));
+        Customer c = customer("c3", "Chitra", new Date(1000));
+        when(mongoTemplate.find(any(Query.class), eq(Customer.class))).thenReturn(List.of(a, b, c));
+
+        CursorPage<Object> page = listingService.listCustomers(null, null, null, null,
+                new ListingService.ListParams(null, null, null, null));
+
+        assertEquals(List.of(a, b), page.getItems());
+        assertNotNull(page.getNextCursor());
+        ListingService.Cursor cursor = ListingService.decode(page.getNextCursor(), "-createdAt");
+        assertEquals(new Date(2000), cursor.value());
+        assertEquals("c2", cursor.id());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Customer.class));
+        assertEquals(3, query.getValue().getLimit());
+        assertEquals(new Document("createdAt", -1).append("id", -1), query.getValue().getSortObject());
+    }
+
+    @Test
+    void testListCustomers_LastPageHasNoCursorAndCursorNarrowsQuery() {
+        when(mongoTemplate.find(any(Query.class), eq(Customer.class)))
+                .thenReturn(List.of(customer("c3", "Chitra", new Date(1000))));
+        String cursor = ListingService.encode("-createdAt", new Date(2000), "c2");
+
+        CursorPage<Object> page = listingService.listCustomers(null, null, null, null,
+                new ListingService.ListParams(cursor, 50, null, null));
+
+        assertNull(page.getNextCursor());
+        assertEquals(5, page.getLimit());
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Customer.class));
+        String criteria = query.getValue().getQueryObject().toJson();
+        assertTrue(criteria.contains("$or"), criteria);
+        assertTrue(criteria.contains("\"$lt\": \"c2\""), criteria);
+    }
+
+    @Test
+    void testListCustomers_ProjectsRequestedFieldsOnly() {
+        when(mongoTemplate.find(any(Query.class), eq(Customer.class)))
+                .thenReturn(List.of(customer("c1", "Asha", new Date(3000))));
+
+        CursorPage<Object> page = listingService.listCustomers(null, null, null, null,
+                new ListingService.ListParams(null, null, null, "name, mobile"));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> row = (Map<String, Object>) page.getItems().get(0);
+        assertEquals(List.of("id", "name", "mobile"), List.copyOf(row.keySet()));
+        assertEquals("Asha", row.get("name"));
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).find(query.capture(), eq(Customer.class));
+        assertEquals(new Document("name", 1).append("mobile", 1).append("createdAt", 1).append("id", 1),
+                query.getValue().getFieldsObject());
+    }
+
+    @Test
+    void testListCustomers_RejectsUnknownFieldSortAndForeignCursor() {
+        assertThrows(IllegalArgumentException.class, () -> listingService.listCustomers(null, null, null, null,
+                new ListingService.ListParams(null, null, null, "name,passwordHash")));
+        assertThrows(IllegalArgumentException.class, () -> listingService.listCustomers(null, null, null, null,
+                new ListingService.ListParams(null, null, "mobile", null)));
+        String productCursor = ListingService.encode("productId", "p1", "x");
+        assertThrows(IllegalArgumentException.class, () -> listingService.listCustomers(null, null, null, null,
+                new ListingService.ListParams(productCursor, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> listingService.listCustomers(null, null, null, null,
+                new ListingService.ListParams("not*base64", null, null, null)));
+        verify(mongoTemplate, never()).find(any(Query.class), eq(Customer.class));
+    }
+
+    private Customer customer(String id, String name, Date createdAt) {
+        Customer c = new Customer(name, null, "90000" + id);
+        c.setId(id);
+        c.setCreatedAt(createdAt);
+        return c;
+    }
+}
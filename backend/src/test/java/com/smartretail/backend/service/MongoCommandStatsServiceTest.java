@@ -0,0 +1,56 @@
+package com.smartretail.backend.service;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoCommandStatsServiceTest {
+
+    @Test
+    void testFilterShape_RedactsValuesButKeepsOperators() {
+        BsonDocument command = BsonDocument.parse(
+                "{find: 'customers', filter: {mobile: '9876543210', lastPurchaseDate: {$lt: {$date: 0}}}, sort: {_id: 1}}");
+
+        String shape = MongoCommandStatsService.filterShape(command, "find");
+
+        assertFalse(shape.contains("9876543210"));
+        assertTrue(shape.contains("\"mobile\": \"?\""));
+        assertTrue(shape.contains("\"$lt\": \"?\""));
+        assertTrue(shape.endsWith("sort={\"_id\": 1}"));
+    }
+
+    @Test
+    void testFilterShape_InListAndPipeline() {
+        BsonDocument aggregate = BsonDocument.parse(
+                "{aggregate: 'bills', pipeline: [{$match: {createdAt: {$gte: 1, $lte: 2}, billId: {$in: ['B1', 'B2']}}}, {$group: {_id: null}}]}");
+
+        String shape = MongoCommandStatsService.filterShape(aggregate, "aggregate");
+
+        assertFalse(shape.contains("B1"));
+        assertTrue(shape.contains("\"$in\": \"[?]\""));
+        assertTrue(shape.startsWith("[{\"$match\""));
+    }
+
+    @Test
+    void testCollectionOf_UpdateAndGetMore() {
+        assertEquals("products", MongoCommandStatsService.collectionOf(
+                BsonDocument.parse("{update: 'products', updates: [{q: {productId: 'p1'}, u: {}}]}"), "update"));
+        assertEquals("bills", MongoCommandStatsService.collectionOf(
+                BsonDocument.parse("{getMore: {$numberLong: '42'}, collection: 'bills'}"), "getMore"));
+        assertNull(MongoCommandStatsService.filterShape(BsonDocument.parse("{insert: 'bills'}"), "insert"));
+    }
+
+    @Test
+    void testGetSlowCommands_EmptyByDefault() {
+        MongoCommandStatsService service = new MongoCommandStatsService(100, 10);
+
+        List<Map<String, Object>> slow = service.getSlowCommands();
+
+        assertTrue(slow.isEmpty());
+        assertTrue(service.getHistograms().isEmpty());
+    }
+}
@@ -0,0 +1,88 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Bill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PdfServiceTest {
+
+    @Mock
+    private MessageSource messageSource;
+
+    private PdfServiceImpl pdfService;
+    private Bill bill;
+
+    @BeforeEach
+    void setUp() {
+        // Only the tests that render a PDF resolve labels
+        lenient().when(messageSource.getMessage(anyString(), isNull(), anyString(), any(Locale.class)))
+                .thenAnswer(inv -> inv.getArgument(2));
+        pdfService = new PdfServiceImpl(new ReceiptLabelSource(messageSource), new SimpleMeterRegistry());
+        bill = new Bill("bill001", Arrays.asList(
+                new Bill.BillItem("p1", "Milk", 2, 30.0),
+                new Bill.BillItem("p2", "Bread", 1, 45.5)), "cashier@example.com");
+        bill.setCustomer(new Bill.CustomerInfo("Asha", null, "9876543210"));
+    }
+
+    @Test
+    void testGenerateBillPdf_ProducesPdf() {
+        byte[] pdf = pdfService.generateBillPdf(bill, Locale.ENGLISH);
+
+        assertTrue(pdf.length > 0);
+        assertEquals("%PDF", new String(pdf, 0, 4, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testWriteBillPdf_LeavesStreamOpen() {
+        TrackingOutputStream out = new TrackingOutputStream();
+
+        pdfService.writeBillPdf(bill, Locale.ENGLISH, out);
+
+        assertFalse(out.closed);
+        assertEquals("%PDF", new String(out.toByteArray(), 0, 4, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    void testLabelsResolvedOncePerLocale() {
+        pdfService.generateBillPdf(bill, Locale.ENGLISH);
+        pdfService.generateBillPdf(bill, Locale.ENGLISH);
+
+        verify(messageSource, times(1)).getMessage(eq("pdf.bill.total"), isNull(), anyString(), eq(Locale.ENGLISH));
+    }
+
+    @Test
+    void testGenerateBillPdf_NullBill() {
+        assertThrows(IllegalArgumentException.class, () -> pdfService.generateBillPdf(null, Locale.ENGLISH));
+    }
+
+    @Test
+    void testFormatAmount() {
+        assertEquals("₹45.50", PdfServiceImpl.formatAmount(45.5));
+        assertEquals("₹0.10", PdfServiceImpl.formatAmount(0.1));
+        assertEquals("₹1234.57", PdfServiceImpl.formatAmount(1234.567));
+    }
+
+    private static class TrackingOutputStream extends ByteArrayOutputStream {
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Product;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCatalogCacheTest {
+
+    private ProductCatalogCache cache;
+    private Product product;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCatalogCache(new SimpleMeterRegistry(), 100, 600);
+        product = new Product();
+        product.setId("665f1c2e9b1d8a3f4c2e1a01");
+        product.setProductId("p1");
+        product.setName("Milk");
+        product.setQuantity(10);
+        product.setLastUpdated(new Date(1_000));
+    }
+
+    @Test
+    void testInvalidateIfChanged_OwnWriteIsKept() {
+        cache.getAll(this::loadAll);
+        product.setQuantity(9);
+        product.setLastUpdated(new Date(2_000));
+        cache.put(product);
+
+        // The change stream echoes the document this node just wrote
+        cache.invalidateIfChanged(product.getId(), ProductCatalogCache.copy(product, null));
+
+        assertEquals(9, cache.get("p1", this::load).orElseThrow().getQuantity());
+        assertEquals(9, cache.getAll(this::loadAll).get(0).getQuantity());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testInvalidateIfChanged_ForeignWriteInvalidates() {
+        cache.put(product);
+        Product elsewhere = ProductCatalogCache.copy(product, null);
+        elsewhere.setQuantity(7);
+        elsewhere.setLastUpdated(new Date(2_000));
+
+        cache.invalidateIfChanged(product.getId(), elsewhere);
+
+        assertEquals(0, cache.size());
+        cache.get("p1", this::load);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEvict_RemovesProductFromSnapshot() {
+        cache.getAll(() -> List.of(product));
+
+        cache.evict("p1");
+
+        assertEquals(List.of(), cache.getAll(this::loadAll));
+        assertEquals(0, loads.get());
+    }
+
+    private Optional<Product> load(String productId) {
+        loads.incrementAndGet();
+        return Optional.of(product);
+    }
+
+    private List<Product> loadAll() {
+        loads.incrementAndGet();
+        return List.of(product);
+    }
+}
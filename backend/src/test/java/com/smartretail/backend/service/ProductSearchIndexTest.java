@@ -0,0 +1,89 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Product;
+import com.smartretail.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex(productRepository, new SimpleMeterRegistry());
+        when(productRepository.findAll()).thenReturn(List.of(
+                product("p1001", "Basmati Rice 5kg", "Grocery"),
+                product("p1002", "Toor Dal", "Grocery"),
+                product("p1003", "चावल", "अनाज"),
+                product("p1004", "Bath Soap", "Personal Care")));
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void testSearch_PrefixRanksNameMatchFirst() {
+        List<Map<String, Object>> results = searchIndex.search("basm", 10);
+
+        assertEquals("p1001", results.get(0).get("productId"));
+    }
+
+    @Test
+    void testSearch_ToleratesTypos() {
+        List<Map<String, Object>> results = searchIndex.search("basmti rice", 10);
+
+        assertFalse(results.isEmpty());
+        assertEquals("p1001", results.get(0).get("productId"));
+    }
+
+    @Test
+    void testSearch_MatchesTransliteratedNames() {
+        assertEquals("p1003", searchIndex.search("chawal", 10).get(0).get("productId"));
+        assertEquals("p1002", searchIndex.search("तूर", 10).get(0).get("productId"));
+    }
+
+    @Test
+    void testSearch_ExactProductIdWins() {
+        List<Map<String, Object>> results = searchIndex.search("P1004", 10);
+
+        assertEquals("p1004", results.get(0).get("productId"));
+    }
+
+    @Test
+    void testIndexAndRemove_AreIncremental() {
+        searchIndex.index(product("p2001", "Sunflower Oil", "Grocery"));
+        assertEquals("p2001", searchIndex.search("sunflower", 10).get(0).get("productId"));
+
+        searchIndex.remove("p2001");
+        assertTrue(searchIndex.search("sunflower", 10).isEmpty());
+        assertEquals(4, searchIndex.size());
+    }
+
+    @Test
+    void testFold_MergesCommonSpellings() {
+        assertEquals(SearchText.fold("chawal"), SearchText.keys("चावल").get(0));
+        assertEquals(SearchText.fold("chaaval"), SearchText.fold("chawal"));
+    }
+
+    private static Product product(String id, String name, String category) {
+        Product p = new Product();
+        p.setProductId(id);
+        p.setName(name);
+        p.setCategory(category);
+        p.setPrice(100);
+        return p;
+    }
+}
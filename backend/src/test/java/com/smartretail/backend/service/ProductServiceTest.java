@@ -3,11 +3,13 @@ package com.smartretail.backend.service;
 import com.smartretail.backend.exception.ProductNotFoundException;
 import com.smartretail.backend.models.Product;
 import com.smartretail.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
 
@@ -39,6 +41,15 @@ class ProductServiceTest {
     @Mock
     private AuditLogService auditLogService;
 
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private BarcodeIndex barcodeIndex;
+
+    @Spy
+    private ProductCatalogCache catalogCache = new ProductCatalogCache(new SimpleMeterRegistry(), 100, 600);
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -60,14 +71,14 @@ class ProductServiceTest {
         product.setAddedBy("ravi@shop.com");
         product.setLastUpdated(new Date());
 
-        // Mock MessageSource for error messages
-        when(messageSource.getMessage(eq("product.exists"), any(), eq(locale)))
+        // Mock MessageSource for error messages; each test uses at most one of them
+        lenient().when(messageSource.getMessage(eq("product.exists"), any(), eq(locale)))
                 .thenReturn("Product already exists: p12345678");
-        when(messageSource.getMessage(eq("product.not.found"), any(), eq(locale)))
+        lenient().when(messageSource.getMessage(eq("product.not.found"), any(), eq(locale)))
                 .thenReturn("Product not found: p12345678");
-        when(messageSource.getMessage(eq("product.restock.invalid.quantity"), any(), eq(locale)))
+        lenient().when(messageSource.getMessage(eq("product.restock.invalid.quantity"), any(), eq(locale)))
                 .thenReturn("Restock quantity must be positive");
-        when(messageSource.getMessage(eq("product.update.failed"), any(), eq(locale)))
+        lenient().when(messageSource.getMessage(eq("product.update.failed"), any(), eq(locale)))
                 .thenReturn("Product update failed: p12345678");
     }
 
@@ -315,4 +326,46 @@ class ProductServiceTest {
                 () -> productService.deleteProduct("p12345678", locale));
         assertEquals("Product not found: p12345678", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetProductById_SecondReadServedFromCache() {
+        when(productRepository.findByProductId("p12345678")).thenReturn(Optional.of(product));
+
+        Product first = productService.getProductById("p12345678", locale);
+        Product second = productService.getProductById("p12345678", locale);
+
+        assertEquals("Laptop", second.getName());
+        assertNotSame(first, second);
+        assertNotNull(second.getStockAsOf());
+        verify(productRepository, times(1)).findByProductId("p12345678");
+    }
+
+    @Test
+    void testRestockProduct_WritesThroughToCache() {
+        when(productRepository.findByProductId("p12345678")).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        productService.getProductById("p12345678", locale);
+
+        productService.restockProduct("p12345678", 5, locale);
+        Product cached = productService.getProductById("p12345678", locale);
+
+        assertEquals(13, cached.getQuantity());
+        // Stock change itself re-read the DB; the read after it was a cache hit
+        verify(productRepository, times(2)).findByProductId("p12345678");
+    }
+
+    @Test
+    void testUpdateProductQuantity_PatchesCatalogSnapshot() {
+        when(productRepository.findAll()).thenReturn(Arrays.asList(product));
+        when(productRepository.findByProductId("p12345678")).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+        productService.getAllProducts();
+
+        productService.updateProductQuantity("p12345678", 3, locale);
+        List<Product> products = productService.getAllProducts();
+
+        // A sale updates the snapshot in place instead of forcing a full reload
+        assertEquals(5, products.get(0).getQuantity());
+        verify(productRepository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,150 @@
+package com.smartretail.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartretail.backend.models.PushSubscription;
+import com.smartretail.backend.models.User;
+import com.smartretail.backend.repository.PushSubscriptionRepository;
+import com.smartretail.backend.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigInteger;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PushNotificationServiceTest {
+
+    // Same pair as application.properties; only used to sign, nothing is sent
+    private static final String VAPID_PUBLIC = "BKpuFUFV1MHiCQvfAp4BkS0MNpH4vKkGVfbx2W6oltrICM2VJlsWyNQnnBlt2pHNM4lP215Wjbee4QBEZ-VBMuk";
+    private static final String VAPID_PRIVATE = "lKNZtclJ29wiW9qObJBNZSVvh0XULEiQGA0nMLR_OnU";
+
+    @Mock
+    private PushSubscriptionRepository subscriptionRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private HttpClient httpClient;
+    @Mock
+    private HttpResponse<Void> response;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PushNotificationService pushService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pushService = new PushNotificationService(subscriptionRepository, userRepository, mongoTemplate, new ObjectMapper(),
+                new SyncTaskExecutor(), meterRegistry, httpClient, VAPID_PUBLIC, VAPID_PRIVATE, 5000);
+    }
+
+    @Test
+    void testSendPushNotification_DeliversToEveryDevice() throws Exception {
+        when(subscriptionRepository.findByUserId("cashier@shop.in"))
+                .thenReturn(List.of(subscription("https://push.example/a"), subscription("https://push.example/b")));
+        when(response.statusCode()).thenReturn(201);
+        doReturn(response).when(httpClient).send(any(HttpRequest.class), any());
+
+        int queued = pushService.sendPushNotification("cashier@shop.in", "Stock \"low\"", "Rice");
+
+        assertEquals(2, queued);
+        verify(httpClient, times(2)).send(any(HttpRequest.class), any());
+        assertEquals(2.0, meterRegistry.get("push.deliveries").tag("result", "sent").counter().count());
+        // Only lastSuccessAt is written back; the stale snapshot never overwrites the keys
+        verify(mongoTemplate, times(2)).updateFirst(any(Query.class),
+                argThat((Update u) -> u.getUpdateObject().get("$set", Document.class).keySet().equals(Set.of("lastSuccessAt"))),
+                eq(PushSubscription.class));
+        verify(subscriptionRepository, never()).save(any());
+    }
+
+    @Test
+    void testDeliver_GoneSubscriptionIsRemoved() throws Exception {
+        PushSubscription gone = subscription("https://push.example/gone");
+        when(subscriptionRepository.findByUserId("cashier@shop.in")).thenReturn(List.of(gone));
+        when(response.statusCode()).thenReturn(410);
+        doReturn(response).when(httpClient).send(any(HttpRequest.class), any());
+
+        pushService.sendPushNotification("cashier@shop.in", "t", "m");
+
+        verify(subscriptionRepository).delete(gone);
+        assertEquals(1.0, meterRegistry.get("push.deliveries").tag("result", "expired").counter().count());
+    }
+
+    @Test
+    void testBroadcast_ByRoleTargetsThoseUsersOnly() throws Exception {
+        User manager = new User();
+        manager.setEmail("manager@shop.in");
+        when(userRepository.findByRole("MANAGER")).thenReturn(List.of(manager));
+        when(subscriptionRepository.findByUserIdIn(Set.of("manager@shop.in")))
+                .thenReturn(List.of(subscription("https://push.example/m")));
+        when(response.statusCode()).thenReturn(201);
+        doReturn(response).when(httpClient).send(any(HttpRequest.class), any());
+
+        assertEquals(1, pushService.broadcast("Closing early", "Store closes at 6", "manager"));
+        verify(subscriptionRepository, never()).findAll();
+    }
+
+    @Test
+    void testSaveSubscription_SameEndpointIsUpdatedNotDuplicated() {
+        PushSubscription stored = subscription("https://push.example/a");
+        stored.setId("s1");
+        when(subscriptionRepository.findByEndpoint("https://push.example/a")).thenReturn(List.of(stored));
+
+        PushSubscription again = subscription("https://push.example/a");
+        pushService.saveSubscription("owner@shop.in", again);
+
+        verify(subscriptionRepository).save(stored);
+        assertEquals("owner@shop.in", stored.getUserId());
+        assertThrows(IllegalArgumentException.class,
+                () -> pushService.saveSubscription("owner@shop.in", new PushSubscription()));
+    }
+
+    // A real P-256 key pair, as a browser would hand out, so the payload can be encrypted
+    private static PushSubscription subscription(String endpoint) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            ECPublicKey key = (ECPublicKey) generator.generateKeyPair().getPublic();
+            byte[] point = new byte[65];
+            point[0] = 0x04;
+            copy(key.getW().getAffineX(), point, 1);
+            copy(key.getW().getAffineY(), point, 33);
+            byte[] auth = new byte[16];
+            new SecureRandom().nextBytes(auth);
+            Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+            return new PushSubscription("cashier@shop.in", endpoint, b64.encodeToString(point), b64.encodeToString(auth));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void copy(BigInteger value, byte[] into, int offset) {
+        byte[] raw = value.toByteArray();
+        int len = Math.min(raw.length, 32);
+        System.arraycopy(raw, raw.length - len, into, offset + 32 - len, len);
+    }
+}
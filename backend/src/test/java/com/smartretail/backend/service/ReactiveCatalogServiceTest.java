@@ -0,0 +1,56 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.ReactiveGridFsTemplate;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCatalogServiceTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private ReactiveGridFsTemplate gridFsTemplate;
+    @Mock
+    private ProductCatalogCache cache;
+    @Mock
+    private ImageRenditionService renditionService;
+
+    private final ObjectId fileId = new ObjectId();
+    private ReactiveCatalogService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReactiveCatalogService(mongoTemplate, gridFsTemplate, cache, renditionService, 200, 1024);
+    }
+
+    @Test
+    void testFindImage_RefusesPdfsStoredInTheSameBucket() {
+        GridFSFile report = new GridFSFile(new BsonObjectId(fileId), "report_job1", 3, 261120, new Date(),
+                new Document("kind", "report-pdf").append("contentType", "application/pdf"));
+        when(gridFsTemplate.findOne(any(Query.class))).thenReturn(Mono.just(report));
+
+        assertNull(service.findImage(fileId.toHexString(), null).block());
+        assertNull(service.findImage(fileId.toHexString(), ImageRenditionService.Size.CARD).block());
+
+        verify(renditionService, never()).submit(anyString());
+        verify(gridFsTemplate, never()).getResource(any(GridFSFile.class));
+    }
+}
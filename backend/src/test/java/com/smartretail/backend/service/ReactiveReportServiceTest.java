@@ -0,0 +1,111 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.dto.FullReportResponse;
+import com.smartretail.backend.models.Bill;
+import com.smartretail.backend.models.Product;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveReportServiceTest {
+
+    @Mock
+    private ReactiveMongoTemplate mongoTemplate;
+    @Mock
+    private MessageSource messageSource;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger flaskCalls = new AtomicInteger();
+
+    @Test
+    void testAnalyticsReport_IdenticalCallsShareOneFlaskRoundTrip() {
+        ReactiveReportService service = service("{\"total\": 42}");
+
+        Object first = service.analyticsReport("2026-01-01", "2026-01-31", Locale.ENGLISH).block();
+        Object second = service.analyticsReport("2026-01-01", "2026-01-31", Locale.ENGLISH).block();
+        service.analyticsReport("2026-01-01", "2026-01-31", new Locale("hi")).block();
+
+        assertEquals(Map.of("total", 42), first);
+        assertEquals(first, second);
+        assertEquals(2, flaskCalls.get());
+        assertEquals(2, meterRegistry.get("flask.requests").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testSalesReport_EmptyRangeReportsZeros() {
+        ReactiveReportService service = service("{}");
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("bills"), eq(Map.class))).thenReturn(Flux.empty());
+        when(mongoTemplate.find(any(Query.class), eq(Bill.class))).thenReturn(Flux.empty());
+
+        Map<String, Object> report = service.salesReport(new Date(0), new Date(), Locale.ENGLISH).block();
+
+        assertEquals(0, report.get("billCount"));
+        assertEquals(0.0, report.get("totalSales"));
+        assertEquals(List.of(), report.get("bills"));
+    }
+
+    @Test
+    void testSalesReport_InvertedRangeIsRejected() {
+        ReactiveReportService service = service("{}");
+        when(messageSource.getMessage(eq("report.date.range.invalid"), any(), eq(Locale.ENGLISH))).thenReturn("bad range");
+
+        Mono<Map<String, Object>> report = service.salesReport(new Date(), new Date(0), Locale.ENGLISH);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, report::block);
+        assertEquals("bad range", e.getMessage());
+        verifyNoInteractions(mongoTemplate);
+    }
+
+    @Test
+    void testFullReport_CombinesFlaskAndInventory() {
+        ReactiveReportService service = service("{\"summary\": \"ok\"}");
+        Product low = new Product();
+        low.setQuantity(2);
+        when(mongoTemplate.count(any(Query.class), eq(Product.class))).thenReturn(Mono.just(10L));
+        when(mongoTemplate.find(any(Query.class), eq(Product.class))).thenReturn(Flux.just(low), Flux.empty());
+
+        FullReportResponse full = service.fullReport("2026-01-01", "2026-01-31", 5, 30, Locale.ENGLISH).block();
+
+        assertEquals(Map.of("summary", "ok"), full.getSalesReport());
+        assertEquals(10, full.getInventoryReport().get("totalProducts"));
+        assertEquals(1, full.getInventoryReport().get("lowStockCount"));
+        assertEquals(0, full.getInventoryReport().get("expiringCount"));
+    }
+
+    // Flask is answered in-process; every call is counted
+    private ReactiveReportService service(String flaskBody) {
+        WebClient flask = WebClient.builder()
+                .exchangeFunction(request -> {
+                    flaskCalls.incrementAndGet();
+                    return Mono.just(ClientResponse.create(HttpStatus.OK)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .body(flaskBody)
+                            .build());
+                })
+                .build();
+        return new ReactiveReportService(mongoTemplate, flask, messageSource, meterRegistry, 5000, 60, 500, 200);
+    }
+}
@@ -0,0 +1,121 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.smartretail.backend.models.Bill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptPdfCacheTest {
+
+    @Mock
+    private PdfService pdfService;
+    @Mock
+    private GridFsTemplate gridFsTemplate;
+    @Mock
+    private GridFSBucket gridFSBucket;
+
+    private SimpleMeterRegistry meterRegistry;
+    private Bill bill;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lenient().when(pdfService.getTemplateVersion()).thenReturn("t1");
+        lenient().doAnswer(inv -> {
+            Bill b = inv.getArgument(0);
+            OutputStream out = inv.getArgument(2);
+            out.write(("%PDF-" + b.getBillId() + "-" + b.getTotalAmount()).getBytes(StandardCharsets.US_ASCII));
+            return null;
+        }).when(pdfService).writeBillPdf(any(Bill.class), any(Locale.class), any(OutputStream.class));
+
+        bill = new Bill("bill001", Arrays.asList(new Bill.BillItem("p1", "Milk", 2, 30.0)), "cashier@example.com");
+    }
+
+    private ReceiptPdfCache cache(boolean gridFs, long maxBytes) {
+        return new ReceiptPdfCache(pdfService, gridFsTemplate, gridFSBucket, meterRegistry, maxBytes, gridFs);
+    }
+
+    @Test
+    void testGet_RendersOnceThenServesFromMemory() {
+        ReceiptPdfCache cache = cache(false, 1024 * 1024);
+
+        ReceiptPdfCache.CachedPdf first = cache.get(bill, Locale.ENGLISH);
+        ReceiptPdfCache.CachedPdf second = cache.get(bill, Locale.ENGLISH);
+
+        assertSame(first.bytes(), second.bytes());
+        assertEquals(first.etag(), second.etag());
+        assertTrue(first.etag().startsWith("\"") && first.etag().endsWith("\""));
+        verify(pdfService, times(1)).writeBillPdf(any(), any(), any());
+        assertEquals(1.0, meterRegistry.counter("cache.gets", "cache", "receipt_pdf", "result", "hit").count());
+        assertEquals(1.0, meterRegistry.counter("cache.gets", "cache", "receipt_pdf", "result", "miss").count());
+    }
+
+    @Test
+    void testGet_LocaleIsPartOfKey() {
+        ReceiptPdfCache cache = cache(false, 1024 * 1024);
+
+        cache.get(bill, Locale.ENGLISH);
+        cache.get(bill, Locale.forLanguageTag("hi"));
+
+        verify(pdfService, times(2)).writeBillPdf(any(), any(), any());
+    }
+
+    @Test
+    void testGet_ChangedBillIsRerendered() {
+        ReceiptPdfCache cache = cache(false, 1024 * 1024);
+        ReceiptPdfCache.CachedPdf first = cache.get(bill, Locale.ENGLISH);
+
+        bill.setItems(Arrays.asList(new Bill.BillItem("p1", "Milk", 3, 30.0)));
+        ReceiptPdfCache.CachedPdf second = cache.get(bill, Locale.ENGLISH);
+
+        assertNotEquals(first.etag(), second.etag());
+        verify(pdfService, times(2)).writeBillPdf(any(), any(), any());
+    }
+
+    @Test
+    void testInvalidate_DropsMemoryAndGridFs() {
+        ReceiptPdfCache cache = cache(true, 1024 * 1024);
+        when(gridFsTemplate.store(any(InputStream.class), anyString(), anyString(), any(Document.class)))
+                .thenReturn(new ObjectId());
+        cache.get(bill, Locale.ENGLISH);
+
+        cache.invalidate("bill001");
+        cache.get(bill, Locale.ENGLISH);
+
+        verify(pdfService, times(2)).writeBillPdf(any(), any(), any());
+        verify(gridFsTemplate, times(2)).store(any(InputStream.class), anyString(), eq("application/pdf"), any(Document.class));
+        // two replace-deletes on store plus the invalidation
+        verify(gridFsTemplate, times(3)).delete(any(Query.class));
+    }
+
+    @Test
+    void testMemoryBoundEvictsLeastRecentlyUsed() {
+        ReceiptPdfCache cache = cache(false, 20);
+        Bill other = new Bill("bill002", Arrays.asList(new Bill.BillItem("p2", "Bread", 1, 45.0)), "cashier@example.com");
+
+        cache.get(bill, Locale.ENGLISH);
+        cache.get(other, Locale.ENGLISH);
+        cache.get(bill, Locale.ENGLISH);
+
+        verify(pdfService, times(3)).writeBillPdf(any(), any(), any());
+    }
+}
@@ -0,0 +1,95 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.Bill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.MessageSource;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReceiptTextRendererTest {
+
+    @Mock
+    private MessageSource messageSource;
+
+    private ReceiptTextRenderer renderer;
+    private Bill bill;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(messageSource.getMessage(anyString(), isNull(), anyString(), eq(Locale.ENGLISH)))
+                .thenAnswer(inv -> ((String) inv.getArgument(0)).substring("pdf.bill.".length()));
+        lenient().when(messageSource.getMessage(anyString(), isNull(), anyString(), eq(Locale.forLanguageTag("hi"))))
+                .thenReturn("कुल");
+        renderer = new ReceiptTextRenderer(new ReceiptLabelSource(messageSource), new SimpleMeterRegistry(), 48);
+        bill = new Bill("bill001", Arrays.asList(
+                new Bill.BillItem("p1", "Milk", 2, 30.0),
+                new Bill.BillItem("p2", "Basmati Rice Premium Long Grain Aged 5kg Family Pack", 1, 645.5)),
+                "cashier@example.com");
+        bill.setCustomer(new Bill.CustomerInfo("Asha", null, "9876543210"));
+    }
+
+    @Test
+    void testRenderText_FixedWidthWithTotals() {
+        String text = new String(renderer.renderText(bill, Locale.ENGLISH), StandardCharsets.UTF_8);
+
+        for (String line : text.split("\n")) {
+            assertTrue(line.length() <= 48, "line too wide: " + line);
+        }
+        assertTrue(text.contains("billId: bill001"));
+        assertTrue(text.contains("60.00"));
+        assertTrue(text.contains("total: ₹705.50"));
+    }
+
+    @Test
+    void testRenderEscPos_InitAndCut() {
+        byte[] escPos = renderer.renderEscPos(bill, Locale.ENGLISH);
+
+        assertEquals(0x1B, escPos[0]);
+        assertEquals('@', escPos[1]);
+        assertEquals(0x1D, escPos[escPos.length - 4]);
+        assertEquals('V', escPos[escPos.length - 3]);
+        assertTrue(new String(escPos, Charset.forName("IBM00858")).contains("total: Rs.705.50"));
+    }
+
+    @Test
+    void testRenderEscPos_FallsBackToEnglishForUnsupportedScript() {
+        byte[] escPos = renderer.renderEscPos(bill, Locale.forLanguageTag("hi"));
+
+        String decoded = new String(escPos, Charset.forName("IBM00858"));
+        assertFalse(decoded.contains("?"));
+        assertTrue(decoded.contains("total: Rs.705.50"));
+    }
+
+    @Test
+    void testRenderText_KeepsLocalizedLabels() {
+        String text = new String(renderer.renderText(bill, Locale.forLanguageTag("hi")), StandardCharsets.UTF_8);
+
+        assertTrue(text.contains("कुल: ₹705.50"));
+    }
+
+    @Test
+    void testWidth_NarrowestSupportedRendersAndNarrowerIsRejected() {
+        ReceiptTextRenderer narrow = new ReceiptTextRenderer(new ReceiptLabelSource(messageSource),
+                new SimpleMeterRegistry(), ReceiptTextRenderer.MIN_WIDTH);
+        String text = new String(narrow.renderText(bill, Locale.ENGLISH), StandardCharsets.UTF_8);
+
+        for (String line : text.split("\n")) {
+            assertTrue(line.length() <= ReceiptTextRenderer.MIN_WIDTH, "line too wide: " + line);
+        }
+        assertThrows(IllegalArgumentException.class, () -> new ReceiptTextRenderer(
+                new ReceiptLabelSource(messageSource), new SimpleMeterRegistry(), 24));
+    }
+}
@@ -0,0 +1,77 @@
+package com.smartretail.backend.service;
+
+import com.smartretail.backend.models.RefreshToken;
+import com.smartretail.backend.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenStoreTest {
+
+    @Mock
+    private RefreshTokenRepository repository;
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RefreshTokenStore(repository, mongoTemplate, meterRegistry, 1000);
+    }
+
+    @Test
+    void testIsRevoked_BeforeFirstBuildAsksMongo() {
+        when(repository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+
+        assertFalse(store.isRevoked("token-a"));
+        verify(repository).findByTokenHash(RefreshTokenStore.hash("token-a"));
+    }
+
+    @Test
+    void testIsRevoked_FilterAnswersUnrevokedTokensWithoutMongo() {
+        when(mongoTemplate.stream(any(Query.class), eq(Document.class), eq("refresh_tokens")))
+                .thenReturn(Stream.of(new Document("tokenHash", RefreshTokenStore.hash("revoked"))));
+        store.rebuild();
+
+        RefreshToken record = new RefreshToken("u1", RefreshTokenStore.hash("revoked"), new Date());
+        record.setRevokedAt(new Date());
+        when(repository.findByTokenHash(RefreshTokenStore.hash("revoked"))).thenReturn(Optional.of(record));
+
+        assertFalse(store.isRevoked("live"));
+        assertTrue(store.isRevoked("revoked"));
+        verify(repository, times(1)).findByTokenHash(anyString());
+    }
+
+    @Test
+    void testBloomFilter_NoFalseNegativesAndFewFalsePositives() {
+        RefreshTokenStore.BloomFilter filter = new RefreshTokenStore.BloomFilter(1000, 0.001);
+        for (int i = 0; i < 1000; i++) filter.put(RefreshTokenStore.hash("in-" + i));
+
+        for (int i = 0; i < 1000; i++) assertTrue(filter.mightContain(RefreshTokenStore.hash("in-" + i)));
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain(RefreshTokenStore.hash("out-" + i))) falsePositives++;
+        }
+        assertTrue(falsePositives < 50, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,107 @@
+package com.smartretail.backend.service;
+
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.smartretail.backend.models.ReportJob;
+import com.smartretail.backend.repository.ReportJobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    @Mock
+    private ReportService reportService;
+
+    @Mock
+    private ReportPdfService reportPdfService;
+
+    @Mock
+    private ReportJobRepository jobRepository;
+
+    @Mock
+    private GridFsTemplate gridFsTemplate;
+
+    @Mock
+    private GridFSBucket gridFSBucket;
+
+    @Mock
+    private PushNotificationService pushNotificationService;
+
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ReportJobService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ReportJobService(reportService, reportPdfService, jobRepository, gridFsTemplate,
+                gridFSBucket, pushNotificationService, executor, meterRegistry, 15, 7);
+    }
+
+    @Test
+    void testSubmit_IdenticalRequestsShareInFlightJob() {
+        when(jobRepository.findFirstByJobKeyAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+                anyString(), eq(ReportJob.Status.DONE), any(Date.class))).thenReturn(Optional.empty());
+
+        ReportJobService.Submission first = service.submit("2025-09-01", "2025-09-30", 10, 30, Locale.ENGLISH, "owner");
+        ReportJobService.Submission second = service.submit("2025-09-01", "2025-09-30", 10, 30, Locale.ENGLISH, "manager");
+
+        assertSame(first.job(), second.job());
+        assertSame(first.completion(), second.completion());
+        verify(executor, times(1)).execute(any(Runnable.class));
+        assertEquals(1.0, meterRegistry.get("report.job.submissions").tag("result", "deduplicated").counter().count());
+    }
+
+    @Test
+    void testSubmit_ReusesRecentlyFinishedJob() {
+        ReportJob done = new ReportJob("key", "2025-09-01", "2025-09-30", 10, 30, "en");
+        done.setStatus(ReportJob.Status.DONE);
+        when(jobRepository.findFirstByJobKeyAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+                anyString(), eq(ReportJob.Status.DONE), any(Date.class))).thenReturn(Optional.of(done));
+
+        ReportJobService.Submission submission = service.submit("2025-09-01", "2025-09-30", 10, 30, Locale.ENGLISH, "owner");
+
+        assertSame(done, submission.job());
+        assertTrue(submission.completion().isDone());
+        verify(executor, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    void testSubmit_QueueFullMarksJobFailed() {
+        when(jobRepository.findFirstByJobKeyAndStatusAndCompletedAtAfterOrderByCompletedAtDesc(
+                anyString(), eq(ReportJob.Status.DONE), any(Date.class))).thenReturn(Optional.empty());
+        doThrow(new TaskRejectedException("full")).when(executor).execute(any(Runnable.class));
+
+        assertThrows(TaskRejectedException.class,
+                () -> service.submit("2025-09-01", "2025-09-30", 10, 30, Locale.ENGLISH, "owner"));
+
+        // A later identical request must not be attached to the rejected job
+        reset(executor);
+        service.submit("2025-09-01", "2025-09-30", 10, 30, Locale.ENGLISH, "owner");
+        verify(executor).execute(any(Runnable.class));
+    }
+
+    @Test
+    void testJobKey_DependsOnLocale() {
+        assertNotEquals(ReportJobService.jobKey("2025-09-01", "2025-09-30", 10, 30, Locale.ENGLISH),
+                ReportJobService.jobKey("2025-09-01", "2025-09-30", 10, 30, Locale.forLanguageTag("hi")));
+    }
+}
@@ -1,13 +1,18 @@
 package com.smartretail.backend.service;
 
+import com.smartretail.backend.dto.FullReportResponse;
 import com.smartretail.backend.models.Bill;
 import com.smartretail.backend.models.Product;
 import com.smartretail.backend.repository.BillRepository;
 import com.smartretail.backend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.context.MessageSource;
 import org.springframework.data.mongodb.core.MongoTemplate;
@@ -30,6 +35,13 @@ class ReportServiceTest {
     private MongoTemplate mongoTemplate;
     @Mock
     private MessageSource messageSource;
+    @Mock
+    private AnalyticsService analyticsService;
+    // The coalescing front the full report goes through for its inventory half
+    @Mock
+    private ReportService reports;
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private ReportServiceImpl reportService;
@@ -44,7 +56,7 @@ class ReportServiceTest {
         aggregationResult.put("averageBillAmount", 500.0);
 
         when(mongoTemplate.aggregate(any(), eq("bills"), eq(Map.class)))
-                .thenReturn(new AggregationResults<>(List.of(aggregationResult), null));
+                .thenReturn(new AggregationResults<>(List.of(aggregationResult), new Document()));
         when(billRepository.findAll()).thenReturn(List.of(new Bill()));
 
         Map<String, Object> result = reportService.getSalesReport(startDate, endDate, Locale.ENGLISH);
@@ -60,7 +72,7 @@ class ReportServiceTest {
         Date startDate = new Date(2025 - 1900, 8, 1);
         Date endDate = new Date(2025 - 1900, 8, 30);
         when(mongoTemplate.aggregate(any(), eq("bills"), eq(Map.class)))
-                .thenReturn(new AggregationResults<>(List.of(), null));
+                .thenReturn(new AggregationResults<>(List.of(), new Document()));
         when(messageSource.getMessage("report.no.bills.found", null, Locale.ENGLISH))
                 .thenReturn("No bills found for the given date range");
 
@@ -86,4 +98,17 @@ class ReportServiceTest {
         assertEquals(1, ((List<?>) result.get("lowStockProducts")).size());
         assertEquals(1, ((List<?>) result.get("expiringProducts")).size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetFullReportData_InventoryGoesThroughCoalescingFront() {
+        Map<String, Object> inventory = Map.of("totalProducts", 1);
+        when(analyticsService.getReport("2025-09-01", "2025-09-30")).thenReturn(Map.of("total", 42));
+        when(analyticsService.getTextReport("2025-09-01", "2025-09-30")).thenReturn("summary");
+        when(reports.getInventoryReport(10, 30, Locale.ENGLISH)).thenReturn(inventory);
+
+        FullReportResponse result = reportService.getFullReportData("2025-09-01", "2025-09-30", 10, 30, Locale.ENGLISH);
+
+        assertSame(inventory, result.getInventoryReport());
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,87 @@
+package com.smartretail.backend.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(meterRegistry, 10);
+
+    @Test
+    void testExecute_ConcurrentIdenticalCallsShareOneComputation() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = pool.submit(() -> coalescer.execute("sales", Duration.ZERO, () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "report";
+            }, "2025-09-01", "en"));
+            started.await(5, TimeUnit.SECONDS);
+
+            Future<String> follower = pool.submit(() -> coalescer.execute("sales", Duration.ZERO, () -> {
+                calls.incrementAndGet();
+                return "other";
+            }, "2025-09-01", "en"));
+            // Give the follower time to attach to the in-flight call
+            while (meterRegistry.find("coalesce.requests").tag("result", "joined").counter() == null) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals("report", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("report", follower.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_ResultCachedForTtlAndKeyedByArguments() {
+        AtomicInteger calls = new AtomicInteger();
+
+        coalescer.execute("inventory", Duration.ofMinutes(1), calls::incrementAndGet, 10, 30, "en");
+        coalescer.execute("inventory", Duration.ofMinutes(1), calls::incrementAndGet, 10, 30, "en");
+        coalescer.execute("inventory", Duration.ofMinutes(1), calls::incrementAndGet, 10, 30, "hi");
+
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.get("coalesce.requests").tag("result", "cached").counter().count());
+    }
+
+    @Test
+    void testExecute_FailuresAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("flask.report", Duration.ofMinutes(1), () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("down");
+        }, "2025-09-01"));
+        Object value = coalescer.execute("flask.report", Duration.ofMinutes(1), () -> {
+            calls.incrementAndGet();
+            return "ok";
+        }, "2025-09-01");
+
+        assertEquals("ok", value);
+        assertEquals(2, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
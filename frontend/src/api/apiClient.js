@@ -69,4 +69,11 @@ api.interceptors.response.use(
   }
 );
 
+// List endpoints return one bounded page per call and the next page's cursor in
+// X-Next-Cursor (absent on the last page). Callers fetch further pages on demand.
+export async function getPage(url, params = {}) {
+  const res = await api.get(url, { params });
+  return { items: res.data, nextCursor: res.headers['x-next-cursor'] || null };
+}
+
 export default api;
@@ -5,28 +5,28 @@ import { listProducts } from '../../services/productService';
 import { useNavigate } from 'react-router-dom';
 import { useTranslation } from 'react-i18next';
 import { useToast } from '../../context/ToastContext';
+import usePagedList from '../../hooks/usePagedList';
+import LoadMore from '../common/LoadMore';
+
+// Only what the pickers show; further pages are fetched on demand
+const CUSTOMER_PAGE = { sort: 'name', fields: 'id,name,email,mobile' };
+const PRODUCT_PAGE = { sort: 'name', fields: 'productId,name,price' };
 
 export default function BillForm() {
   const { t } = useTranslation();
   const { showToast } = useToast();
-  const [customers, setCustomers] = useState([]);
-  const [products, setProducts] = useState([]);
+  const customerList = usePagedList(listCustomers, CUSTOMER_PAGE);
+  const productList = usePagedList(listProducts, PRODUCT_PAGE);
+  const customers = customerList.items;
+  const products = productList.items;
   const [selectedCustomer, setSelectedCustomer] = useState('');
   const [items, setItems] = useState([{ productId: '', quantity: 1 }]);
   const [total, setTotal] = useState(0);
   const nav = useNavigate();
 
   useEffect(() => {
-    (async () => {
-      try {
-        const [custs, prods] = await Promise.all([listCustomers(), listProducts()]);
-        setCustomers(custs);
-        setProducts(prods);
-      } catch (err) {
-        showToast("Failed to load customers or products", 'error');
-      }
-    })();
-  }, [showToast]);
+    if (customerList.error || productList.error) showToast("Failed to load customers or products", 'error');
+  }, [customerList.error, productList.error, showToast]);
 
   useEffect(() => {
     let t = 0;
@@ -111,6 +111,7 @@ export default function BillForm() {
               </option>
             ))}
           </select>
+          <LoadMore hasMore={customerList.hasMore} loading={customerList.loadingMore} onLoadMore={customerList.loadMore} auto={false} />
         </div>
 
         <div>
@@ -158,6 +159,7 @@ export default function BillForm() {
             >
               {t('billForm.addItem')}
             </button>
+            <LoadMore hasMore={productList.hasMore} loading={productList.loadingMore} onLoadMore={productList.loadMore} auto={false} />
           </div>
         </div>
 
@@ -11,6 +11,7 @@ import {
 import { useToast } from '../../context/ToastContext';
 import authService from '../../services/authService';
 import Fuse from 'fuse.js';
+import usePagedList from '../../hooks/usePagedList';
 import { motion, AnimatePresence } from 'framer-motion';
 import DatePicker from 'react-datepicker';
 import "react-datepicker/dist/react-datepicker.css";
@@ -232,9 +233,6 @@ const CustomDateInput = React.forwardRef(({ value, onClick, placeholder }, ref)
 
 export default function BillList() {
   const { t } = useTranslation();
-  const [bills, setBills] = useState([]);
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState(null);
   const [resendingId, setResendingId] = useState(null);
   const [downloadingId, setDownloadingId] = useState(null);
   const [selectedBill, setSelectedBill] = useState(null);
@@ -253,22 +251,31 @@ export default function BillList() {
   const user = authService.getUserFromToken();
   const canManage = user?.role === 'OWNER' || user?.role === 'MANAGER';
 
+  // Dates, an exact mobile number and the descending sorts are server filters; the rest of the
+  // search and the ascending sorts apply to the pages loaded so far
+  const isoDay = (d) => d ? `${d.getFullYear()}-${String(d.getMonth() + 1).padStart(2, '0')}-${String(d.getDate()).padStart(2, '0')}` : undefined;
+  const mobileSearch = /^\+?\d{6,}$/.test(searchTerm.trim()) ? searchTerm.trim() : undefined;
+  const {
+    items: bills, hasMore, loading, loadingMore, error: loadError, reload: loadBills, loadMore
+  } = usePagedList(listBills, {
+    from: isoDay(startDate),
+    to: isoDay(endDate),
+    customerMobile: mobileSearch,
+    sort: { 'createdAt-desc': '-createdAt', 'totalAmount-desc': '-totalAmount' }[sortBy],
+  });
+  const error = loadError ? (loadError.response?.data?.message || loadError.message) : null;
+
+  useEffect(() => {
+    if (loadError) showToast(error, 'error');
+  }, [loadError]);
+
   const fuse = useMemo(() => new Fuse(bills, {
     keys: ['billId', 'customer.name', 'customer.mobile', 'paymentMethod'],
     threshold: 0.4,
   }), [bills]);
 
   const displayBills = useMemo(() => {
-    let items = searchTerm ? fuse.search(searchTerm).map(r => r.item) : [...bills];
-
-    if (startDate || endDate) {
-      const start = startDate ? new Date(startDate.setHours(0, 0, 0, 0)) : new Date(0);
-      const end = endDate ? new Date(endDate.setHours(23, 59, 59, 999)) : new Date();
-      items = items.filter(b => {
-        const billDate = new Date(b.createdAt || b.date);
-        return billDate >= start && billDate <= end;
-      });
-    }
+    let items = searchTerm && !mobileSearch ? fuse.search(searchTerm).map(r => r.item) : [...bills];
 
     const [key, dir] = sortBy.split('-');
     return [...items].sort((a, b) => {
@@ -276,7 +283,7 @@ export default function BillList() {
       let valB = key === 'createdAt' ? new Date(b.createdAt || b.date).getTime() : (b.totalAmount || 0);
       return dir === 'asc' ? valA - valB : valB - valA;
     });
-  }, [bills, searchTerm, sortBy, startDate, endDate, fuse]);
+  }, [bills, searchTerm, mobileSearch, sortBy, fuse]);
 
   const totalPages = Math.ceil(displayBills.length / itemsPerPage);
   const paginatedBills = useMemo(() => {
@@ -284,22 +291,10 @@ export default function BillList() {
     return displayBills.slice(startIndex, startIndex + itemsPerPage);
   }, [displayBills, currentPage, itemsPerPage]);
 
-  useEffect(() => { loadBills(); }, []);
-
-  async function loadBills() {
-    try {
-      setLoading(true);
-      setError(null);
-      const data = await listBills();
-      setBills(Array.isArray(data) ? data : []);
-    } catch (err) {
-      const msg = err.response?.data?.message || err.message;
-      setError(msg);
-      showToast(msg, 'error');
-    } finally {
-      setLoading(false);
-    }
-  }
+  // A fetched page may add no rows that match the local search; stay on the last real page
+  useEffect(() => {
+    if (!loadingMore && currentPage > Math.max(totalPages, 1)) setCurrentPage(Math.max(totalPages, 1));
+  }, [currentPage, totalPages, loadingMore]);
 
   const handleDownload = async (bill, e) => {
     e?.stopPropagation();
@@ -621,7 +616,7 @@ export default function BillList() {
             </motion.tbody>
           </table>
 
-          {totalPages > 1 && (
+          {(totalPages > 1 || hasMore) && (
             <div className="flex justify-between items-center p-4 border-t border-gray-200 dark:border-gray-700/50">
               <p className="text-sm text-gray-600 dark:text-gray-400">
                 {t('billList.showing', {
@@ -642,8 +637,12 @@ export default function BillList() {
                   {currentPage}
                 </span>
                 <button
-                  onClick={() => setCurrentPage(prev => Math.min(prev + 1, totalPages))}
-                  disabled={currentPage === totalPages}
+                  onClick={async () => {
+                    // Past the last loaded page: fetch the next one from the server first
+                    if (currentPage >= totalPages && hasMore) await loadMore();
+                    setCurrentPage(prev => prev + 1);
+                  }}
+                  disabled={(currentPage >= totalPages && !hasMore) || loadingMore}
                   className="px-3 py-1 rounded-lg bg-gray-200 dark:bg-gray-800 text-gray-700 dark:text-gray-300 disabled:opacity-50 disabled:cursor-not-allowed hover:bg-gray-300 dark:hover:bg-gray-700 transition-colors"
                 >
                   {t('common.next')}
@@ -0,0 +1,28 @@
+import React, { useEffect, useRef } from 'react';
+import { useTranslation } from 'react-i18next';
+
+// Fetches the next page when scrolled into view; the button covers short pages
+// and browsers without IntersectionObserver. Pass auto={false} where the control is
+// always on screen (e.g. under a picker), or every page would be pulled in.
+export default function LoadMore({ hasMore, loading, onLoadMore, auto = true }) {
+  const { t } = useTranslation();
+  const sentinel = useRef(null);
+
+  useEffect(() => {
+    if (!auto || !hasMore || loading || !sentinel.current || !('IntersectionObserver' in window)) return;
+    const observer = new IntersectionObserver(entries => {
+      if (entries[0].isIntersecting) onLoadMore();
+    }, { rootMargin: '200px' });
+    observer.observe(sentinel.current);
+    return () => observer.disconnect();
+  }, [auto, hasMore, loading, onLoadMore]);
+
+  if (!hasMore) return null;
+  return (
+    <div ref={sentinel} className="flex justify-center py-6">
+      <button type="button" onClick={onLoadMore} disabled={loading} className="button-secondary">
+        {loading ? t('common.loadingMore') : t('common.loadMore')}
+      </button>
+    </div>
+  );
+}
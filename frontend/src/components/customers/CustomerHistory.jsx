@@ -63,13 +63,9 @@ export default function CustomerHistory() {
     try {
       showToast(t('history.downloading', { billId: bill.billId }), 'info');
 
-      let pdfToken = bill.pdfAccessToken;
-
-      // If no token exists or token might be expired, generate a new one
-      if (!pdfToken) {
-        const tokenResponse = await generatePdfToken(bill.billId);
-        pdfToken = tokenResponse.pdfAccessToken;
-      }
+      // Download tokens are short-lived and not stored on the bill; always ask for a fresh one
+      const tokenResponse = await generatePdfToken(bill.billId);
+      const pdfToken = tokenResponse.pdfAccessToken;
 
       // Download the PDF with the token
       const blob = await downloadBillPdf(bill.billId, pdfToken);
@@ -1,9 +1,9 @@
 import React, { useEffect, useState, useMemo } from 'react';
 import { useNavigate } from 'react-router-dom';
 import { listCustomers, deleteCustomer } from '../../services/customerService';
-import { listBills } from '../../services/billService';
 import authService from '../../services/authService';
-import Fuse from 'fuse.js';
+import usePagedList from '../../hooks/usePagedList';
+import LoadMore from '../common/LoadMore';
 import { motion, AnimatePresence } from 'framer-motion';
 import { useToast } from '../../context/ToastContext';
 import { useTranslation } from 'react-i18next';
@@ -54,10 +54,8 @@ const SkeletonCard = () => (
 
 export default function CustomerList() {
   const { t } = useTranslation();
-  const [customers, setCustomers] = useState([]);
   const [searchTerm, setSearchTerm] = useState('');
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState(null);
+  const [searchFilter, setSearchFilter] = useState({});
   const [sortBy, setSortBy] = useState('name-asc');
   const [filter, setFilter] = useState('all');
   const [isEmailModalOpen, setIsEmailModalOpen] = useState(false);
@@ -68,15 +66,34 @@ export default function CustomerList() {
   const user = authService.getUserFromToken();
   const canManage = user?.role === 'OWNER' || user?.role === 'MANAGER';
 
-  const fuse = useMemo(() => new Fuse(customers, {
-    keys: ['name', 'email', 'mobile'],
-    threshold: 0.4,
-  }), [customers]);
+  // The search box maps to the listing's server filters: mobile and email match exactly, names by prefix
+  useEffect(() => {
+    const timer = setTimeout(() => {
+      const term = searchTerm.trim();
+      if (!term) setSearchFilter({});
+      else if (term.includes('@')) setSearchFilter({ email: term });
+      else if (/^\+?\d{6,}$/.test(term)) setSearchFilter({ mobile: term });
+      else setSearchFilter({ name: term });
+    }, 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
+  const serverSort = { 'name-asc': 'name', 'lastPurchaseDate-desc': '-lastPurchaseDate' }[sortBy];
+  const {
+    items: customers, hasMore, loading, loadingMore, error: loadError, reload: loadCustomers, loadMore
+  } = usePagedList(listCustomers, { ...searchFilter, sort: serverSort });
+  const error = loadError ? (loadError.message || 'Failed to load data. Please try again.') : null;
+
+  useEffect(() => {
+    if (loadError) showToast(error, 'error');
+  }, [loadError]);
 
+  // Filtered and sorted within the pages loaded so far
   const displayCustomers = useMemo(() => {
-    let items = searchTerm
-      ? fuse.search(searchTerm).map(r => r.item)
-      : [...customers];
+    let items = customers.map(c => ({
+      ...c,
+      totalPurchaseCount: c.totalPurchaseCount || c.purchaseHistory?.length || 0,
+    }));
 
     if (filter === 'inactive') {
       const thirtyDaysAgo = new Date(Date.now() - 30 * 24 * 60 * 60 * 1000);
@@ -99,54 +116,7 @@ export default function CustomerList() {
       }
       return (valA < valB ? -1 : 1) * (direction === 'asc' ? 1 : -1);
     });
-  }, [customers, searchTerm, filter, sortBy, fuse]);
-
-  useEffect(() => {
-    loadCustomers();
-  }, []);
-
-  async function loadCustomers() {
-    try {
-      setLoading(true);
-      setError(null);
-      const [customerData, billData] = await Promise.all([
-        listCustomers(),
-        listBills()
-      ]);
-      if (!Array.isArray(customerData) || !Array.isArray(billData)) {
-        throw new Error("Invalid data from server");
-      }
-      const billMap = new Map();
-      billData.forEach(bill => bill.billId && billMap.set(bill.billId, bill));
-      const processed = customerData.map(customer => {
-        let totalCount = 0;
-        let latestDate = null;
-        if (customer.purchaseHistory?.length > 0) {
-          totalCount = customer.purchaseHistory.length;
-          customer.purchaseHistory.forEach(billId => {
-            const bill = billMap.get(billId);
-            if (bill?.createdAt) {
-              const date = new Date(bill.createdAt);
-              if (!latestDate || date > latestDate) latestDate = date;
-            }
-          });
-        }
-        return {
-          ...customer,
-          totalPurchaseCount: totalCount,
-          lastPurchaseDate: latestDate ? latestDate.toISOString() : null
-        };
-      });
-      setCustomers(processed);
-    } catch (err) {
-      console.error("Failed to load customers:", err);
-      const msg = "Failed to load data. Please try again.";
-      setError(msg);
-      showToast(err.message || msg, 'error');
-    } finally {
-      setLoading(false);
-    }
-  }
+  }, [customers, filter, sortBy]);
 
   const handleViewHistory = (customer) => {
     navigate(`/customers/${customer.id}/history`);
@@ -296,6 +266,7 @@ export default function CustomerList() {
           </AnimatePresence>
         </motion.div>
       )}
+      {!loading && !error && <LoadMore hasMore={hasMore} loading={loadingMore} onLoadMore={loadMore} />}
 
       <SendEmailModal
         isOpen={isEmailModalOpen}
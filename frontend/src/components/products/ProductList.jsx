@@ -2,7 +2,8 @@ import React, { useEffect, useState, useMemo } from 'react';
 import { listProducts, deleteProduct } from '../../services/productService';
 import ProductForm from './ProductForm';
 import BulkUploadModal from './BulkUploadModal';
-import Fuse from 'fuse.js';
+import usePagedList from '../../hooks/usePagedList';
+import LoadMore from '../common/LoadMore';
 import { motion, AnimatePresence } from 'framer-motion';
 import { useToast } from '../../context/ToastContext';
 import authService from '../../services/authService';
@@ -56,7 +57,8 @@ const ProductCard = ({ product, onEdit, onDelete, canManage }) => {
   const { addToCart, cartItems } = useCart();
   const { showToast } = useToast();
   const [quantity, setQuantity] = useState(1);
-  const imageUrl = product.imageUrl ? `${API_BASE}${product.imageUrl}` : null;
+  // Cards only need the 480px rendition, not the uploaded original
+  const imageUrl = product.imageUrl ? `${API_BASE}${product.imageUrl}?size=card` : null;
 
   const itemInCart = cartItems.find(item => item.productId === product.productId);
   const remainingStock = product.quantity - (itemInCart?.quantity || 0);
@@ -211,10 +213,8 @@ const SkeletonCard = () => (
 
 // --- Main Product List Component ---
 export default function ProductList() {
-  const [products, setProducts] = useState([]);
   const [searchTerm, setSearchTerm] = useState('');
-  const [loading, setLoading] = useState(true);
-  const [error, setError] = useState(null);
+  const [nameFilter, setNameFilter] = useState('');
   const [showLowStockOnly, setShowLowStockOnly] = useState(false);
   const [sortBy, setSortBy] = useState('default');
   const [isFormModalOpen, setIsFormModalOpen] = useState(false);
@@ -226,19 +226,24 @@ export default function ProductList() {
   const user = authService.getUserFromToken();
   const canManage = user?.role === 'OWNER' || user?.role === 'MANAGER';
 
-  const fuse = useMemo(() => new Fuse(products, {
-    keys: ['name', 'category', 'productId'],
-    threshold: 0.4,
-  }), [products]);
+  // Search and the low-stock toggle are server filters, so only matching pages are fetched
+  useEffect(() => {
+    const timer = setTimeout(() => setNameFilter(searchTerm.trim()), 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
+  const {
+    items: products, hasMore, loading, loadingMore, error: loadError, reload: loadProducts, loadMore
+  } = usePagedList(listProducts, {
+    name: nameFilter || undefined,
+    lowStock: showLowStockOnly || undefined,
+    sort: sortBy.startsWith('name-') ? 'name' : undefined,
+  });
+  const error = loadError ? t('products.error') : null;
 
+  // Sorted within the pages loaded so far
   const displayProducts = useMemo(() => {
-    const searchedItems = searchTerm
-      ? fuse.search(searchTerm).map(result => result.item)
-      : [...products];
-    const filteredItems = showLowStockOnly
-      ? searchedItems.filter(p => p.quantity < p.reorderLevel)
-      : searchedItems;
-    const sortedItems = [...filteredItems];
+    const sortedItems = [...products];
     switch (sortBy) {
       case 'name-asc':
         sortedItems.sort((a, b) => (a.name || '').localeCompare(b.name || ''));
@@ -262,31 +267,7 @@ export default function ProductList() {
         break;
     }
     return sortedItems;
-  }, [products, searchTerm, showLowStockOnly, sortBy, fuse]);
-
-  useEffect(() => {
-    loadProducts();
-  }, []);
-
-  async function loadProducts() {
-    try {
-      setLoading(true);
-      setError(null);
-      const data = await listProducts();
-      if (Array.isArray(data)) {
-        setProducts(data);
-      } else {
-        console.error("Invalid products response:", data);
-        setProducts([]);
-        setError(t('products.errorLoad'));
-      }
-    } catch (err) {
-      console.error("Failed to load products:", err);
-      setError(t('products.error'));
-    } finally {
-      setLoading(false);
-    }
-  }
+  }, [products, sortBy]);
 
   const handleOpenAddModal = () => {
     setProductToEdit(null);
@@ -437,6 +418,7 @@ export default function ProductList() {
           </AnimatePresence>
         </motion.div>
       )}
+      {!loading && !error && <LoadMore hasMore={hasMore} loading={loadingMore} onLoadMore={loadMore} />}
 
       {/* --- Modals --- */}
       <ProductForm
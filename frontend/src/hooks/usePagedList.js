@@ -0,0 +1,52 @@
+import { useCallback, useEffect, useRef, useState } from 'react';
+
+/**
+ * Keeps one cursor-paged listing in state: the first page loads on mount and
+ * whenever `params` change (a search term, a filter), loadMore() appends the next.
+ * Responses that arrive after the params changed again are dropped.
+ */
+export default function usePagedList(fetchPage, params = {}) {
+  const [items, setItems] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
+  const [error, setError] = useState(null);
+  const generation = useRef(0);
+  const key = JSON.stringify(params);
+
+  const reload = useCallback(async () => {
+    const current = ++generation.current;
+    setLoading(true);
+    setError(null);
+    try {
+      const page = await fetchPage(params);
+      if (current !== generation.current) return;
+      setItems(Array.isArray(page.items) ? page.items : []);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      if (current === generation.current) setError(err);
+    } finally {
+      if (current === generation.current) setLoading(false);
+    }
+  }, [fetchPage, key]);
+
+  const loadMore = useCallback(async () => {
+    if (!nextCursor || loadingMore) return;
+    const current = generation.current;
+    setLoadingMore(true);
+    try {
+      const page = await fetchPage({ ...params, cursor: nextCursor });
+      if (current !== generation.current) return;
+      setItems(prev => [...prev, ...(Array.isArray(page.items) ? page.items : [])]);
+      setNextCursor(page.nextCursor);
+    } catch (err) {
+      if (current === generation.current) setError(err);
+    } finally {
+      if (current === generation.current) setLoadingMore(false);
+    }
+  }, [fetchPage, key, nextCursor, loadingMore]);
+
+  useEffect(() => { reload(); }, [reload]);
+
+  return { items, hasMore: !!nextCursor, loading, loadingMore, error, reload, loadMore };
+}
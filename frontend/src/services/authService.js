@@ -127,9 +127,33 @@ function getUserRole() {
 
 /**
  * Logout user
+ * POST /api/auth/logout revokes this device's refresh token; tokens are cleared either way
  */
 function logout() {
+  const refreshToken = getRefreshToken();
   clearTokens();
+  if (refreshToken) {
+    api.post('/api/auth/logout', refreshToken, {
+      headers: { 'Content-Type': 'text/plain' }
+    }).catch(() => {});
+  }
+}
+
+/**
+ * Sign out on every device
+ * POST /api/auth/logout-all
+ */
+async function logoutAll() {
+  const refreshToken = getRefreshToken();
+  try {
+    if (refreshToken) {
+      await api.post('/api/auth/logout-all', refreshToken, {
+        headers: { 'Content-Type': 'text/plain' }
+      });
+    }
+  } finally {
+    clearTokens();
+  }
 }
 
 export default {
@@ -142,5 +166,6 @@ export default {
   clearTokens,
   getUserFromToken,
   logout,
+  logoutAll,
   getUserRole
 };
\ No newline at end of file
@@ -1,5 +1,5 @@
 // src/services/billService.js
-import api from '../api/apiClient';
+import api, { getPage } from '../api/apiClient';
 
 /**
  * Create a new bill
@@ -30,12 +30,11 @@ export async function getBill(billId) {
 }
 
 /**
- * Get all bills
+ * One page of bills ({ items, nextCursor }); pass cursor for the next page
  */
-export async function listBills() {
+export async function listBills(filters = {}) {
   try {
-    const res = await api.get('/api/bills');
-    return res.data;
+    return await getPage('/api/bills', filters);
   } catch (err) {
     console.error('Failed to list bills:', err);
     throw err.response?.data || err;
@@ -1,5 +1,5 @@
 // src/services/customerService.js
-import api from '../api/apiClient'
+import api, { getPage } from '../api/apiClient'
 
 /**
  * Create a new customer
@@ -28,12 +28,11 @@ export async function getCustomer(id) {
 }
 
 /**
- * Get all customers
+ * One page of customers ({ items, nextCursor }); pass cursor for the next page
  */
-export async function listCustomers() {
+export async function listCustomers(filters = {}) {
   try {
-    const res = await api.get('/api/customers')
-    return res.data
+    return await getPage('/api/customers', filters)
   } catch (err) {
     console.error('Failed to list customers:', err)
     throw err.response?.data || err
@@ -1,4 +1,4 @@
-import api from '../api/apiClient';
+import api, { getPage } from '../api/apiClient';
 
 // Send a notification to a user (JSON body)
 export async function sendNotification(notificationRequest) {
@@ -6,10 +6,9 @@ export async function sendNotification(notificationRequest) {
   return res.data;
 }
 
-// Get all notifications
-export async function listNotifications() {
-  const res = await api.get('/api/notifications');
-  return res.data;
+// One page of notifications ({ items, nextCursor }); pass cursor for the next page
+export async function listNotifications(filters = {}) {
+  return getPage('/api/notifications', filters);
 }
 
 // Send a test notification email
@@ -29,3 +28,14 @@ export async function getVapidPublicKey() {
   const res = await api.get('/api/notifications/vapid-public-key');
   return res.data;
 }
+
+// Remove this device's push subscription (other devices stay subscribed)
+export async function unsubscribePush(endpoint) {
+  await api.delete('/api/notifications/subscribe', { params: { endpoint } });
+}
+
+// Store-wide push alert; role limits it to OWNER, MANAGER or CASHIER devices
+export async function broadcastPush(title, message, role) {
+  const res = await api.post('/api/notifications/push/broadcast', { title, message, role });
+  return res.data;
+}
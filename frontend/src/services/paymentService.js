@@ -1,4 +1,4 @@
-import api from '../api/apiClient';
+import api, { getPage } from '../api/apiClient';
 
 // Create a new payment
 export async function createPayment(payment) {
@@ -12,8 +12,7 @@ export async function getPayment(paymentId) {
   return res.data;
 }
 
-// List all payments
-export async function listPayments() {
-  const res = await api.get('/api/payments');
-  return res.data;
+// One page of payments ({ items, nextCursor }); pass cursor for the next page
+export async function listPayments(filters = {}) {
+  return getPage('/api/payments', filters);
 }
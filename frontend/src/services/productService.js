@@ -1,8 +1,8 @@
-import api from '../api/apiClient';
+import api, { getPage } from '../api/apiClient';
 
-export async function listProducts() {
-  const res = await api.get('/api/products');
-  return res.data;
+// One page of products ({ items, nextCursor }); pass cursor for the next page
+export async function listProducts(filters = {}) {
+  return getPage('/api/products', filters);
 }
 
 export async function getProduct(id) {
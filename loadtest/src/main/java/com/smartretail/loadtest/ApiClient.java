@@ -0,0 +1,98 @@
+package com.smartretail.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/** Thin java.net.http wrapper that times every call into {@link Stats}. */
+public class ApiClient {
+
+    private final HttpClient http;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Duration timeout;
+    private final Stats stats;
+
+    public ApiClient(String baseUrl, int timeoutSeconds, Stats stats) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.stats = stats;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public String login(String email, String password) throws IOException, InterruptedException {
+        Response r = post("auth.login", "/api/auth/login", null, Map.of("email", email, "password", password));
+        if (r.status != 200) {
+            throw new IOException("Login failed for " + email + ": HTTP " + r.status);
+        }
+        return mapper.readTree(r.body).path("accessToken").asText();
+    }
+
+    public Response get(String operation, String path, String token, Map<String, String> query)
+            throws InterruptedException {
+        String uri = baseUrl + path;
+        if (query != null && !query.isEmpty()) {
+            uri += "?" + query.entrySet().stream()
+                    .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                    .collect(Collectors.joining("&"));
+        }
+        return send(operation, builder(uri, token).GET());
+    }
+
+    public Response post(String operation, String path, String token, Object body)
+            throws InterruptedException, IOException {
+        return send(operation, builder(baseUrl + path, token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body))));
+    }
+
+    public JsonNode json(Response response) throws IOException {
+        return mapper.readTree(response.body);
+    }
+
+    private HttpRequest.Builder builder(String uri, String token) {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(timeout)
+                .header("Accept-Language", "en");
+        if (token != null) b.header("Authorization", "Bearer " + token);
+        return b;
+    }
+
+    private Response send(String operation, HttpRequest.Builder request) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            stats.record(operation, System.nanoTime() - start, response.statusCode());
+            return new Response(response.statusCode(), response.body(), response.headers());
+        } catch (IOException e) {
+            // Timeouts and refused connections count as errors with status 0
+            stats.record(operation, System.nanoTime() - start, 0);
+            return new Response(0, new byte[0], HttpHeaders.of(Map.of(), (name, value) -> true));
+        }
+    }
+
+    public record Response(int status, byte[] body, HttpHeaders headers) {
+        public boolean ok() {
+            return status >= 200 && status < 300;
+        }
+
+        /** First value of the header, or null when absent. */
+        public String header(String name) {
+            return headers.firstValue(name).orElse(null);
+        }
+    }
+}
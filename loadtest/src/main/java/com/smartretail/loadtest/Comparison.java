@@ -0,0 +1,42 @@
+package com.smartretail.loadtest;
+
+import java.util.TreeSet;
+
+/** Prints baseline vs candidate per operation and flags regressions beyond the allowed percentage. */
+public final class Comparison {
+
+    private Comparison() {}
+
+    /** @return true when no operation regressed beyond {@code maxRegressionPercent} */
+    public static boolean compare(RunResult baseline, RunResult candidate, double maxRegressionPercent) {
+        System.out.printf("%-20s %12s %12s %8s %12s %12s %8s %10s%n",
+                "operation", "base rps", "cand rps", "Δ%", "base p99", "cand p99", "Δ%", "errors");
+        boolean ok = true;
+        TreeSet<String> names = new TreeSet<>(baseline.operations.keySet());
+        names.addAll(candidate.operations.keySet());
+        for (String name : names) {
+            RunResult.OperationResult b = baseline.operations.get(name);
+            RunResult.OperationResult c = candidate.operations.get(name);
+            if (b == null || c == null) {
+                System.out.printf("%-20s %s%n", name, b == null ? "only in candidate" : "only in baseline");
+                continue;
+            }
+            double rpsDelta = delta(b.throughputPerSec, c.throughputPerSec);
+            double p99Delta = delta(b.p99Ms, c.p99Ms);
+            // Throughput falling or p99 rising are both regressions
+            boolean regressed = -rpsDelta > maxRegressionPercent || p99Delta > maxRegressionPercent;
+            ok &= !regressed;
+            System.out.printf("%-20s %12.2f %12.2f %+7.1f%% %10.1fms %10.1fms %+7.1f%% %4d->%-4d%s%n",
+                    name, b.throughputPerSec, c.throughputPerSec, rpsDelta, b.p99Ms, c.p99Ms, p99Delta,
+                    b.errors, c.errors, regressed ? "  REGRESSION" : "");
+        }
+        System.out.printf("%-20s %12.2f %12.2f %+7.1f%%%n", "TOTAL",
+                baseline.throughputPerSec, candidate.throughputPerSec,
+                delta(baseline.throughputPerSec, candidate.throughputPerSec));
+        return ok;
+    }
+
+    private static double delta(double base, double candidate) {
+        return base == 0 ? 0 : (candidate - base) / base * 100.0;
+    }
+}
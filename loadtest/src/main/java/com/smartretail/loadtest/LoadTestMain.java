@@ -0,0 +1,94 @@
+package com.smartretail.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Usage:
+ *   java -jar target/loadtest.jar run scenarios/festival-peak.json [--base-url URL] [--out results/x.json]
+ *   java -jar target/loadtest.jar compare baseline.json candidate.json [--max-regression 10]
+ *   java -jar target/loadtest.jar startup [--runs 5] [--health-url URL] [--max-ms 1000] -- java -jar backend.jar
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            usage();
+            System.exit(2);
+        }
+        switch (args[0]) {
+            case "run" -> run(args);
+            case "compare" -> compare(args);
+            case "startup" -> startup(args);
+            default -> {
+                usage();
+                System.exit(2);
+            }
+        }
+    }
+
+    private static void run(String[] args) throws Exception {
+        Scenario scenario = Scenario.load(Path.of(args[1]));
+        String baseUrl = option(args, "--base-url", null);
+        if (baseUrl != null) scenario.baseUrl = baseUrl;
+        String defaultOut = "results/" + scenario.name + "-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json";
+        Path out = Path.of(option(args, "--out", defaultOut));
+
+        Workload.log("scenario '%s' against %s: %d users, %ds measured", scenario.name, scenario.baseUrl,
+                scenario.users, scenario.durationSeconds);
+        RunResult result = new Workload(scenario).run();
+
+        if (out.getParent() != null) out.getParent().toFile().mkdirs();
+        result.write(out);
+        System.out.printf("%-20s %10s %10s %9s %9s %9s %9s %9s%n", "operation", "count", "rps", "p50", "p95", "p99", "p99.9", "errors");
+        result.operations.forEach((name, op) -> System.out.printf("%-20s %10d %10.2f %7.1fms %7.1fms %7.1fms %7.1fms %9d%n",
+                name, op.count, op.throughputPerSec, op.p50Ms, op.p95Ms, op.p99Ms, op.p999Ms, op.errors));
+        Workload.log("total %.2f req/s, %d errors; results written to %s", result.throughputPerSec, result.totalErrors, out);
+    }
+
+    private static void compare(String[] args) throws Exception {
+        if (args.length < 3) {
+            usage();
+            System.exit(2);
+        }
+        double maxRegression = Double.parseDouble(option(args, "--max-regression", "10"));
+        boolean ok = Comparison.compare(RunResult.read(Path.of(args[1])), RunResult.read(Path.of(args[2])), maxRegression);
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void startup(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            usage();
+            System.exit(2);
+        }
+        String[] options = Arrays.copyOfRange(args, 0, separator);
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        int runs = Integer.parseInt(option(options, "--runs", "5"));
+        String healthUrl = option(options, "--health-url", "http://localhost:8080/actuator/health");
+        Duration timeout = Duration.ofSeconds(Long.parseLong(option(options, "--timeout", "120")));
+        long maxMs = Long.parseLong(option(options, "--max-ms", "0"));
+
+        Workload.log("starting '%s' %d times, ready = 200 from %s", String.join(" ", command), runs, healthUrl);
+        boolean ok = StartupTiming.report(StartupTiming.measure(command, healthUrl, runs, timeout), maxMs);
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static String option(String[] args, String name, String fallback) {
+        for (int i = 0; i < args.length - 1; i++) {
+            if (args[i].equals(name)) return args[i + 1];
+        }
+        return fallback;
+    }
+
+    private static void usage() {
+        System.err.println("usage: run <scenario.json> [--base-url URL] [--out FILE]");
+        System.err.println("       compare <baseline.json> <candidate.json> [--max-regression PERCENT]");
+        System.err.println("       startup [--runs N] [--health-url URL] [--timeout SECONDS] [--max-ms MS] -- <command...>");
+    }
+}
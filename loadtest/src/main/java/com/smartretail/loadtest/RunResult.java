@@ -0,0 +1,46 @@
+package com.smartretail.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** Serialized summary of one run; two of these are what `compare` diffs. */
+public class RunResult {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public String scenario;
+    public String baseUrl;
+    public String startedAt;
+    public int users;
+    public double measuredSeconds;
+    public long totalRequests;
+    public long totalErrors;
+    public double throughputPerSec;
+    public Map<String, OperationResult> operations = new TreeMap<>();
+
+    public void write(Path path) throws IOException {
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    public static RunResult read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), RunResult.class);
+    }
+
+    public static class OperationResult {
+        public long count;
+        public long errors;
+        public double throughputPerSec;
+        public double p50Ms;
+        public double p90Ms;
+        public double p95Ms;
+        public double p99Ms;
+        public double p999Ms;
+        public double maxMs;
+        public Map<String, Long> statusCodes = new TreeMap<>();
+    }
+}
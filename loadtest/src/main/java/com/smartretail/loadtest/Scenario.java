@@ -0,0 +1,125 @@
+package com.smartretail.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Workload description loaded from scenarios/*.json. Every field has a default so a
+ * scenario file only needs to state what differs from a normal weekday till.
+ */
+public class Scenario {
+
+    public enum ActionType {
+        PRODUCT_LOOKUP, PRODUCT_LIST, CREATE_BILL, SYNC_BURST, SALES_REPORT, INVENTORY_REPORT, FULL_REPORT
+    }
+
+    public String name = "unnamed";
+    public String baseUrl = "http://localhost:8080";
+
+    /** Concurrent tills (closed model: each user waits for its response, then thinks). */
+    public int users = 10;
+    public int rampUpSeconds = 10;
+    public int warmupSeconds = 15;
+    public int durationSeconds = 120;
+    public int requestTimeoutSeconds = 30;
+
+    /** Manager accounts; users are spread over them round-robin. */
+    public List<Credentials> credentials = new ArrayList<>();
+
+    /** Products created with a large stock before the run so checkout never hits "insufficient stock". */
+    public int seedProducts = 200;
+    public int customerPool = 1000;
+    /** Share of bills that carry a customer e-mail and therefore render + mail a PDF. */
+    public double emailRatio = 0.0;
+    public String reportRangeStart = "2026-01-01";
+    public String reportRangeEnd = "2026-01-31";
+
+    public Range thinkTimeMs = new Range(500, 2000);
+    public List<BasketSize> basketSizes = new ArrayList<>(List.of(new BasketSize(3, 60), new BasketSize(12, 30), new BasketSize(40, 10)));
+    public List<Action> actions = new ArrayList<>();
+
+    public static Scenario load(Path path) throws IOException {
+        Scenario scenario = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
+                .readValue(path.toFile(), Scenario.class);
+        scenario.validate();
+        return scenario;
+    }
+
+    void validate() {
+        if (users <= 0 || durationSeconds <= 0) throw new IllegalArgumentException("users and durationSeconds must be positive");
+        if (credentials.isEmpty()) throw new IllegalArgumentException("scenario needs at least one manager credential");
+        if (actions.isEmpty()) throw new IllegalArgumentException("scenario needs at least one action");
+        if (basketSizes.isEmpty()) throw new IllegalArgumentException("scenario needs at least one basket size");
+        if (thinkTimeMs.min > thinkTimeMs.max) throw new IllegalArgumentException("thinkTimeMs.min > thinkTimeMs.max");
+    }
+
+    Action pickAction() {
+        int total = actions.stream().mapToInt(a -> a.weight).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Action a : actions) {
+            roll -= a.weight;
+            if (roll < 0) return a;
+        }
+        return actions.get(actions.size() - 1);
+    }
+
+    int pickBasketSize() {
+        int total = basketSizes.stream().mapToInt(b -> b.weight).sum();
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (BasketSize b : basketSizes) {
+            roll -= b.weight;
+            if (roll < 0) return b.items;
+        }
+        return basketSizes.get(0).items;
+    }
+
+    public static class Credentials {
+        public String email;
+        public String password;
+    }
+
+    public static class Range {
+        public long min;
+        public long max;
+
+        public Range() {}
+
+        public Range(long min, long max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        long sample() {
+            return max <= min ? min : ThreadLocalRandom.current().nextLong(min, max + 1);
+        }
+    }
+
+    public static class BasketSize {
+        public int items;
+        public int weight;
+
+        public BasketSize() {}
+
+        public BasketSize(int items, int weight) {
+            this.items = items;
+            this.weight = weight;
+        }
+    }
+
+    public static class Action {
+        public ActionType type;
+        public int weight = 1;
+        /** Overrides the scenario think time after this action (e.g. a report is read for a while). */
+        public Range thinkTimeMs;
+        /** SYNC_BURST only: offline bills and inventory updates replayed in one request. */
+        public int bills = 20;
+        public int products = 5;
+    }
+}
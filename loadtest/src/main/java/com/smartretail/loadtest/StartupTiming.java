@@ -0,0 +1,103 @@
+package com.smartretail.loadtest;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cold-start timing: launches the backend command repeatedly and measures from process
+ * launch until the health URL first answers 200, which is what an autoscaler waits for.
+ * Spring's own "Started ... in N seconds" figure is reported next to it when it is logged.
+ */
+public final class StartupTiming {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private StartupTiming() {}
+
+    public record Run(long readyMs, Double springSeconds) {}
+
+    public static List<Run> measure(List<String> command, String healthUrl, int runs, Duration timeout) throws Exception {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(healthUrl)).timeout(Duration.ofMillis(500)).GET().build();
+        List<Run> results = new ArrayList<>();
+        for (int i = 1; i <= runs; i++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            AtomicReference<Double> springSeconds = new AtomicReference<>();
+            Thread reader = new Thread(() -> readLog(process, springSeconds), "startup-log");
+            reader.setDaemon(true);
+            reader.start();
+            try {
+                long readyMs = awaitReady(http, probe, process, start, timeout);
+                reader.join(200);
+                Double reported = springSeconds.get();
+                results.add(new Run(readyMs, reported));
+                Workload.log("run %d/%d: ready after %d ms%s", i, runs, readyMs,
+                        reported != null ? String.format(" (Spring reports %.3f s)", reported) : "");
+            } finally {
+                process.destroy();
+                if (!process.waitFor(10, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+            }
+        }
+        return results;
+    }
+
+    /** @return true when the median time to ready is within {@code maxMs} (or no limit is given) */
+    public static boolean report(List<Run> runs, long maxMs) {
+        List<Long> ready = new ArrayList<>();
+        runs.forEach(r -> ready.add(r.readyMs()));
+        Collections.sort(ready);
+        long median = ready.get(ready.size() / 2);
+        System.out.printf("%-10s %8s %8s %8s%n", "", "min", "median", "max");
+        System.out.printf("%-10s %6dms %6dms %6dms%n", "ready", ready.get(0), median, ready.get(ready.size() - 1));
+        if (maxMs <= 0) return true;
+        boolean ok = median <= maxMs;
+        System.out.printf("median %d ms %s the %d ms target%n", median, ok ? "meets" : "MISSES", maxMs);
+        return ok;
+    }
+
+    private static long awaitReady(HttpClient http, HttpRequest probe, Process process, long start, Duration timeout)
+            throws Exception {
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("backend exited with status " + process.exitValue() + " before it was ready");
+            }
+            try {
+                if (http.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (java.io.IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("backend not ready within " + timeout.toSeconds() + " s");
+    }
+
+    // Drains the child's output so it never blocks on a full pipe, keeping Spring's startup line
+    private static void readLog(Process process, AtomicReference<Double> springSeconds) {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                Matcher m = STARTED.matcher(line);
+                if (springSeconds.get() == null && m.find()) springSeconds.set(Double.parseDouble(m.group(1)));
+            }
+        } catch (java.io.IOException ignored) {
+            // Process was stopped
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.smartretail.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Per-operation latency histograms (microseconds) and status counts, safe for concurrent writers. */
+public class Stats {
+
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private volatile boolean measuring;
+
+    public void startMeasuring() {
+        // Drop whatever the warm-up phase recorded
+        operations.values().forEach(Operation::reset);
+        measuring = true;
+    }
+
+    public void stopMeasuring() {
+        measuring = false;
+    }
+
+    public void record(String operation, long elapsedNanos, int status) {
+        if (!measuring) return;
+        operations.computeIfAbsent(operation, k -> new Operation()).record(elapsedNanos, status);
+    }
+
+    /** Interval view for the live progress line; does not disturb the totals. */
+    public Map<String, long[]> drainInterval() {
+        Map<String, long[]> result = new TreeMap<>();
+        operations.forEach((name, op) -> {
+            Histogram h = op.intervalSnapshot();
+            if (h.getTotalCount() > 0) {
+                result.put(name, new long[]{h.getTotalCount(), h.getValueAtPercentile(99)});
+            }
+        });
+        return result;
+    }
+
+    public Map<String, RunResult.OperationResult> summarize(double measuredSeconds) {
+        Map<String, RunResult.OperationResult> result = new TreeMap<>();
+        operations.forEach((name, op) -> result.put(name, op.summarize(measuredSeconds)));
+        return result;
+    }
+
+    private static final class Operation {
+        private final Recorder recorder = new Recorder(MAX_TRACKABLE_MICROS, 3);
+        private final Histogram total = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        void record(long elapsedNanos, int status) {
+            recorder.recordValue(Math.min(MAX_TRACKABLE_MICROS, Math.max(1, elapsedNanos / 1000)));
+            statuses.computeIfAbsent(status, k -> new LongAdder()).increment();
+            if (status == 0 || status >= 400) errors.increment();
+        }
+
+        synchronized Histogram intervalSnapshot() {
+            Histogram interval = recorder.getIntervalHistogram();
+            total.add(interval);
+            return interval;
+        }
+
+        synchronized void reset() {
+            recorder.reset();
+            total.reset();
+            errors.reset();
+            statuses.clear();
+        }
+
+        synchronized RunResult.OperationResult summarize(double measuredSeconds) {
+            total.add(recorder.getIntervalHistogram());
+            RunResult.OperationResult r = new RunResult.OperationResult();
+            r.count = total.getTotalCount();
+            r.errors = errors.sum();
+            r.throughputPerSec = measuredSeconds > 0 ? r.count / measuredSeconds : 0;
+            r.p50Ms = total.getValueAtPercentile(50) / 1000.0;
+            r.p90Ms = total.getValueAtPercentile(90) / 1000.0;
+            r.p95Ms = total.getValueAtPercentile(95) / 1000.0;
+            r.p99Ms = total.getValueAtPercentile(99) / 1000.0;
+            r.p999Ms = total.getValueAtPercentile(99.9) / 1000.0;
+            r.maxMs = total.getMaxValue() / 1000.0;
+            statuses.forEach((code, n) -> r.statusCodes.put(code == 0 ? "io_error" : String.valueOf(code), n.sum()));
+            return r;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.smartretail.loadtest;
+
+import com.smartretail.loadtest.Scenario.Action;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** One virtual till: loops over weighted actions with think time until the run stops. */
+public class TillSession implements Runnable {
+
+    private final int id;
+    private final String runId;
+    private final Scenario scenario;
+    private final ApiClient client;
+    private final String token;
+    private final List<Map<String, Object>> catalog;
+    private final AtomicLong billSequence;
+    private volatile boolean running = true;
+
+    public TillSession(int id, String runId, Scenario scenario, ApiClient client, String token,
+                       List<Map<String, Object>> catalog, AtomicLong billSequence) {
+        this.id = id;
+        this.runId = runId;
+        this.scenario = scenario;
+        this.client = client;
+        this.token = token;
+        this.catalog = catalog;
+        this.billSequence = billSequence;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Action action = scenario.pickAction();
+            try {
+                execute(action);
+                long think = (action.thinkTimeMs != null ? action.thinkTimeMs : scenario.thinkTimeMs).sample();
+                if (think > 0) Thread.sleep(think);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // Request-level failures are already counted by ApiClient; keep the till going
+            }
+        }
+    }
+
+    private void execute(Action action) throws Exception {
+        switch (action.type) {
+            case PRODUCT_LOOKUP -> client.get("products.lookup", "/api/products/" + randomProduct().get("productId"), token, null);
+            case PRODUCT_LIST -> client.get("products.list", "/api/products", token, null);
+            case CREATE_BILL -> client.post("bills.create", "/api/bills", token, bill(scenario.pickBasketSize()));
+            case SYNC_BURST -> client.post("sync.pending", "/api/sync/pending", token, syncBurst(action));
+            case SALES_REPORT -> client.get("reports.sales", "/api/reports/sales", token,
+                    Map.of("startDate", scenario.reportRangeStart, "endDate", scenario.reportRangeEnd));
+            case INVENTORY_REPORT -> client.get("reports.inventory", "/api/reports/inventory", token, null);
+            case FULL_REPORT -> client.get("reports.full", "/api/reports/full", token,
+                    Map.of("startDate", scenario.reportRangeStart, "endDate", scenario.reportRangeEnd));
+        }
+    }
+
+    private Map<String, Object> bill(int basketSize) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Map<String, Object>> items = new ArrayList<>(basketSize);
+        for (int i = 0; i < basketSize; i++) {
+            Map<String, Object> product = randomProduct();
+            items.add(Map.of(
+                    "productId", product.get("productId"),
+                    "productName", product.get("name"),
+                    "qty", 1 + random.nextInt(3),
+                    "price", product.get("price")));
+        }
+        int customer = random.nextInt(Math.max(1, scenario.customerPool));
+        Map<String, Object> customerInfo = new HashMap<>();
+        customerInfo.put("name", "Load Customer " + customer);
+        customerInfo.put("mobile", String.format("90%08d", customer));
+        if (random.nextDouble() < scenario.emailRatio) {
+            customerInfo.put("email", "load" + customer + "@example.com");
+        }
+
+        Map<String, Object> bill = new HashMap<>();
+        bill.put("billId", "LT-" + runId + "-" + id + "-" + billSequence.incrementAndGet());
+        bill.put("customer", customerInfo);
+        bill.put("items", items);
+        bill.put("addedBy", "loadtest");
+        return bill;
+    }
+
+    private Map<String, Object> syncBurst(Action action) {
+        List<Map<String, Object>> bills = new ArrayList<>(action.bills);
+        for (int i = 0; i < action.bills; i++) {
+            bills.add(bill(scenario.pickBasketSize()));
+        }
+        List<Map<String, Object>> products = new ArrayList<>(action.products);
+        for (int i = 0; i < action.products; i++) {
+            // Full snapshot: the sync update copies every field, so a partial body would blank the product
+            Map<String, Object> update = new HashMap<>(randomProduct());
+            update.put("quantity", 100_000);
+            products.add(update);
+        }
+        return Map.of("bills", bills, "inventoryUpdates", products);
+    }
+
+    private Map<String, Object> randomProduct() {
+        return catalog.get(ThreadLocalRandom.current().nextInt(catalog.size()));
+    }
+}
@@ -0,0 +1,149 @@
+package com.smartretail.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Prepares data, runs the virtual tills for the scenario duration and summarizes the measured window. */
+public class Workload {
+
+    private static final String SEED_PREFIX = "LT-P-";
+    // The backend's listing.max-limit default
+    private static final int CATALOG_PAGE_SIZE = 1000;
+
+    private final Scenario scenario;
+    private final Stats stats = new Stats();
+    private final ApiClient client;
+
+    public Workload(Scenario scenario) {
+        this.scenario = scenario;
+        this.client = new ApiClient(scenario.baseUrl, scenario.requestTimeoutSeconds, stats);
+    }
+
+    public RunResult run() throws Exception {
+        Instant startedAt = Instant.now();
+        String runId = Long.toString(startedAt.getEpochSecond(), 36);
+
+        List<String> tokens = new ArrayList<>();
+        for (Scenario.Credentials c : scenario.credentials) {
+            tokens.add(client.login(c.email, c.password));
+        }
+        seedProducts(tokens.get(0));
+        List<Map<String, Object>> catalog = loadCatalog(tokens.get(0));
+        log("catalog has %d sellable products, starting %d tills", catalog.size(), scenario.users);
+
+        AtomicLong billSequence = new AtomicLong();
+        List<TillSession> sessions = new ArrayList<>();
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService tills = Executors.newFixedThreadPool(scenario.users, r -> {
+            Thread t = new Thread(r, "till-" + threadIds.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        long rampStepMs = scenario.users > 1 ? scenario.rampUpSeconds * 1000L / (scenario.users - 1) : 0;
+        for (int i = 0; i < scenario.users; i++) {
+            TillSession session = new TillSession(i, runId, scenario, client,
+                    tokens.get(i % tokens.size()), catalog, billSequence);
+            sessions.add(session);
+            scheduler.schedule(() -> tills.submit(session), i * rampStepMs, TimeUnit.MILLISECONDS);
+        }
+        scheduler.scheduleAtFixedRate(this::printProgress, 10, 10, TimeUnit.SECONDS);
+
+        Thread.sleep((scenario.rampUpSeconds + scenario.warmupSeconds) * 1000L);
+        log("warm-up done, measuring for %ds", scenario.durationSeconds);
+        stats.startMeasuring();
+        long measureStart = System.nanoTime();
+        Thread.sleep(scenario.durationSeconds * 1000L);
+        stats.stopMeasuring();
+        double measuredSeconds = (System.nanoTime() - measureStart) / 1e9;
+
+        sessions.forEach(TillSession::stop);
+        scheduler.shutdownNow();
+        tills.shutdown();
+        if (!tills.awaitTermination(scenario.requestTimeoutSeconds, TimeUnit.SECONDS)) {
+            tills.shutdownNow();
+        }
+
+        RunResult result = new RunResult();
+        result.scenario = scenario.name;
+        result.baseUrl = scenario.baseUrl;
+        result.startedAt = startedAt.toString();
+        result.users = scenario.users;
+        result.measuredSeconds = measuredSeconds;
+        result.operations = stats.summarize(measuredSeconds);
+        result.operations.values().forEach(op -> {
+            result.totalRequests += op.count;
+            result.totalErrors += op.errors;
+        });
+        result.throughputPerSec = result.totalRequests / measuredSeconds;
+        return result;
+    }
+
+    /** Creates SEED_PREFIX products with stock high enough for the whole run; existing ones are left alone. */
+    private void seedProducts(String token) throws IOException, InterruptedException {
+        if (scenario.seedProducts <= 0) return;
+        int created = 0;
+        for (int i = 1; i <= scenario.seedProducts; i++) {
+            Map<String, Object> product = new HashMap<>();
+            product.put("productId", String.format("%s%05d", SEED_PREFIX, i));
+            product.put("name", "Load Item " + i);
+            product.put("category", "LoadTest");
+            product.put("price", 10 + (i * 37 % 490));
+            product.put("quantity", 10_000_000);
+            product.put("expiryDate", "2030-12-31");
+            if (client.post("seed.product", "/api/products", token, product).ok()) created++;
+        }
+        log("seeded %d new products (%d requested)", created, scenario.seedProducts);
+    }
+
+    /** Walks every page of the product listing, following X-Next-Cursor until the server stops sending it. */
+    private List<Map<String, Object>> loadCatalog(String token) throws IOException, InterruptedException {
+        List<Map<String, Object>> catalog = new ArrayList<>();
+        String cursor = null;
+        do {
+            Map<String, String> query = new HashMap<>();
+            query.put("limit", String.valueOf(CATALOG_PAGE_SIZE));
+            if (cursor != null) query.put("cursor", cursor);
+            ApiClient.Response response = client.get("seed.catalog", "/api/products", token, query);
+            if (!response.ok()) throw new IOException("Could not list products: HTTP " + response.status());
+            addSellable(client.json(response), catalog);
+            cursor = response.header("X-Next-Cursor");
+        } while (cursor != null && !cursor.isEmpty());
+
+        if (catalog.isEmpty()) throw new IllegalStateException("No products with enough stock; set seedProducts > 0");
+        return catalog;
+    }
+
+    private void addSellable(JsonNode page, List<Map<String, Object>> catalog) {
+        for (JsonNode p : page) {
+            String productId = p.path("productId").asText();
+            boolean seeded = productId.startsWith(SEED_PREFIX);
+            if (scenario.seedProducts > 0 ? !seeded : p.path("quantity").asInt() < 1000) continue;
+            Map<String, Object> product = new HashMap<>();
+            product.put("productId", productId);
+            product.put("name", p.path("name").asText());
+            product.put("category", p.path("category").asText());
+            product.put("price", p.path("price").asDouble());
+            product.put("minQuantity", p.path("minQuantity").asInt());
+            product.put("reorderLevel", p.path("reorderLevel").asInt());
+            catalog.add(product);
+        }
+    }
+
+    private void printProgress() {
+        StringJoiner line = new StringJoiner("  ");
+        stats.drainInterval().forEach((op, v) -> line.add(String.format("%s=%d (p99 %.1fms)", op, v[0], v[1] / 1000.0)));
+        log("last 10s: %s", line.length() == 0 ? "-" : line);
+    }
+
+    static void log(String format, Object... args) {
+        System.out.printf("[LOADTEST] " + format + "%n", args);
+    }
+}